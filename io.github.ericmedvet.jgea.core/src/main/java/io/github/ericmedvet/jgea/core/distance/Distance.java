@@ -25,8 +25,27 @@ import java.util.function.Function;
 
 @FunctionalInterface
 public interface Distance<T> extends BiFunction<T, T, Double> {
+  // exact if below the threshold, otherwise any value not lower than the threshold
+  default double boundedApply(T t1, T t2, double threshold) {
+    return apply(t1, t2);
+  }
+
+  default boolean isBelow(T t1, T t2, double threshold) {
+    return boundedApply(t1, t2, threshold) < threshold;
+  }
+
   default <K> Distance<K> on(Function<K, T> f) {
     Distance<T> tDistance = this;
-    return (k1, k2) -> tDistance.apply(f.apply(k1), f.apply(k2));
+    return new Distance<>() {
+      @Override
+      public Double apply(K k1, K k2) {
+        return tDistance.apply(f.apply(k1), f.apply(k2));
+      }
+
+      @Override
+      public double boundedApply(K k1, K k2, double threshold) {
+        return tDistance.boundedApply(f.apply(k1), f.apply(k2), threshold);
+      }
+    };
   }
 }
@@ -20,33 +20,38 @@
 
 package io.github.ericmedvet.jgea.core.distance;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Edit<T> implements Distance<List<T>> {
 
-  // from https://en.wikibooks.org/wiki/Algorithm_Implementation/Strings/Levenshtein_distance#Java
-  @Override
-  public Double apply(List<T> ts1, List<T> ts2) {
-    int len0 = ts1.size() + 1;
-    int len1 = ts2.size() + 1;
-    int[] cost = new int[len0];
-    int[] newCost = new int[len0];
-    for (int i = 0; i < len0; i++) {
-      cost[i] = i;
+  static int intThreshold(double threshold) {
+    return threshold > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.ceil(threshold);
+  }
+
+  private static <T> int[][] codes(List<T> ts1, List<T> ts2) {
+    // equal symbols get the same small int code, so that equals() is not invoked for each pair of positions
+    Map<T, Integer> codes = new HashMap<>();
+    int[][] encoded = new int[][] {new int[ts1.size()], new int[ts2.size()]};
+    for (int i = 0; i < ts1.size(); i++) {
+      encoded[0][i] = codes.computeIfAbsent(ts1.get(i), t -> codes.size());
     }
-    for (int j = 1; j < len1; j++) {
-      newCost[0] = j;
-      for (int i = 1; i < len0; i++) {
-        int match = ts1.get(i - 1).equals(ts2.get(j - 1)) ? 0 : 1;
-        int cost_replace = cost[i - 1] + match;
-        int cost_insert = cost[i] + 1;
-        int cost_delete = newCost[i - 1] + 1;
-        newCost[i] = Math.min(Math.min(cost_insert, cost_delete), cost_replace);
-      }
-      int[] swap = cost;
-      cost = newCost;
-      newCost = swap;
+    for (int i = 0; i < ts2.size(); i++) {
+      encoded[1][i] = codes.computeIfAbsent(ts2.get(i), t -> codes.size());
     }
-    return (double) cost[len0 - 1];
+    return encoded;
+  }
+
+  @Override
+  public Double apply(List<T> ts1, List<T> ts2) {
+    int[][] encoded = codes(ts1, ts2);
+    return (double) Levenshtein.distance(encoded[0], encoded[1]);
+  }
+
+  @Override
+  public double boundedApply(List<T> ts1, List<T> ts2, double threshold) {
+    int[][] encoded = codes(ts1, ts2);
+    return Levenshtein.bounded(encoded[0], encoded[1], intThreshold(threshold));
   }
 }
@@ -20,25 +20,37 @@
 package io.github.ericmedvet.jgea.core.distance;
 
 import io.github.ericmedvet.jgea.core.representation.grammar.GrammarOptionString;
+import java.util.List;
+import java.util.Map;
 
 public class GrammarOptionStringDistance<S> implements Distance<GrammarOptionString<S>> {
   @Override
   public Double apply(GrammarOptionString<S> gos1, GrammarOptionString<S> gos2) {
-    for (S s : gos1.options().keySet()) {
-      if (gos1.options().get(s).size() != gos2.options().get(s).size()) {
+    return boundedApply(gos1, gos2, Double.POSITIVE_INFINITY);
+  }
+
+  @Override
+  public double boundedApply(GrammarOptionString<S> gos1, GrammarOptionString<S> gos2, double threshold) {
+    for (Map.Entry<S, List<Integer>> entry : gos1.options().entrySet()) {
+      if (entry.getValue().size() != gos2.options().get(entry.getKey()).size()) {
         throw new IllegalArgumentException(String.format(
-            "Sequences size should be the same for symbol %d (%d vs. %d)",
-            s, gos1.options().get(s).size(), gos2.options().get(s).size()));
+            "Sequences size should be the same for symbol %s (%d vs. %d)",
+            entry.getKey(),
+            entry.getValue().size(),
+            gos2.options().get(entry.getKey()).size()));
       }
     }
     int sum = 0;
-    for (S s : gos1.options().keySet()) {
-      for (int i = 0; i < gos1.options().get(s).size(); i = i + 1) {
-        sum = sum
-            + Math.abs(gos1.options().get(s).get(i)
-                - gos2.options().get(s).get(i));
+    for (Map.Entry<S, List<Integer>> entry : gos1.options().entrySet()) {
+      List<Integer> options1 = entry.getValue();
+      List<Integer> options2 = gos2.options().get(entry.getKey());
+      for (int i = 0; i < options1.size(); i = i + 1) {
+        sum = sum + Math.abs(options1.get(i) - options2.get(i));
+      }
+      if (sum >= threshold) {
+        return sum;
       }
     }
-    return (double) sum;
+    return sum;
   }
 }
@@ -0,0 +1,156 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.distance;
+
+import java.util.Arrays;
+
+public class Levenshtein {
+
+  private static final int MAX_TABLE_SYMBOL = 4096;
+
+  private Levenshtein() {}
+
+  private static int banded(int[] s1, int[] s2, int k) {
+    int big = k + 1;
+    int[] previous = new int[s2.length + 1];
+    int[] current = new int[s2.length + 1];
+    for (int j = 0; j <= s2.length; j++) {
+      previous[j] = j <= k ? j : big;
+    }
+    for (int i = 1; i <= s1.length; i++) {
+      int lo = Math.max(1, i - k);
+      int hi = Math.min(s2.length, i + k);
+      current[lo - 1] = (lo == 1 && i <= k) ? i : big;
+      int rowMin = current[lo - 1];
+      for (int j = lo; j <= hi; j++) {
+        int value = Math.min(
+            previous[j - 1] + (s1[i - 1] == s2[j - 1] ? 0 : 1),
+            Math.min(previous[j] + 1, current[j - 1] + 1));
+        current[j] = Math.min(value, big);
+        rowMin = Math.min(rowMin, current[j]);
+      }
+      if (hi < s2.length) {
+        current[hi + 1] = big;
+      }
+      if (rowMin > k) {
+        return big;
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[s2.length];
+  }
+
+  public static int bounded(int[] s1, int[] s2, int threshold) {
+    if (threshold <= 0) {
+      return 0;
+    }
+    int[] pattern = s1.length <= s2.length ? s1 : s2;
+    int[] text = s1.length <= s2.length ? s2 : s1;
+    if (text.length - pattern.length >= threshold) {
+      return threshold;
+    }
+    if (pattern.length == 0) {
+      return text.length;
+    }
+    if (pattern.length <= Long.SIZE) {
+      return myers(pattern, text, threshold);
+    }
+    int k = Math.min(threshold - 1, text.length);
+    int d = banded(pattern, text, k);
+    return d <= k ? d : threshold;
+  }
+
+  public static int bounded(CharSequence s1, CharSequence s2, int threshold) {
+    return bounded(codes(s1), codes(s2), threshold);
+  }
+
+  public static int[] codes(CharSequence s) {
+    int[] codes = new int[s.length()];
+    for (int i = 0; i < codes.length; i++) {
+      codes[i] = s.charAt(i);
+    }
+    return codes;
+  }
+
+  public static int distance(int[] s1, int[] s2) {
+    return bounded(s1, s2, Integer.MAX_VALUE);
+  }
+
+  public static int distance(CharSequence s1, CharSequence s2) {
+    return distance(codes(s1), codes(s2));
+  }
+
+  // Myers' bit-vector algorithm, in the formulation by Hyyro, for patterns of at most 64 symbols
+  private static int myers(int[] pattern, int[] text, int threshold) {
+    int m = pattern.length;
+    int minSymbol = Arrays.stream(pattern).min().orElse(0);
+    int maxSymbol = Arrays.stream(pattern).max().orElse(0);
+    long[] table = null;
+    int[] symbols = null;
+    long[] masks = null;
+    if (minSymbol >= 0 && maxSymbol < MAX_TABLE_SYMBOL) {
+      table = new long[maxSymbol + 1];
+      for (int i = 0; i < m; i++) {
+        table[pattern[i]] = table[pattern[i]] | (1L << i);
+      }
+    } else {
+      symbols = Arrays.stream(pattern).distinct().sorted().toArray();
+      masks = new long[symbols.length];
+      for (int i = 0; i < m; i++) {
+        int index = Arrays.binarySearch(symbols, pattern[i]);
+        masks[index] = masks[index] | (1L << i);
+      }
+    }
+    long pv = -1L;
+    long mv = 0L;
+    long last = 1L << (m - 1);
+    int score = m;
+    for (int j = 0; j < text.length; j++) {
+      long eq;
+      if (table != null) {
+        eq = (text[j] >= 0 && text[j] < table.length) ? table[text[j]] : 0L;
+      } else {
+        int index = Arrays.binarySearch(symbols, text[j]);
+        eq = index >= 0 ? masks[index] : 0L;
+      }
+      long xv = eq | mv;
+      long xh = (((eq & pv) + pv) ^ pv) | eq;
+      long ph = mv | ~(xh | pv);
+      long mh = pv & xh;
+      if ((ph & last) != 0) {
+        score = score + 1;
+      } else if ((mh & last) != 0) {
+        score = score - 1;
+      }
+      ph = (ph << 1) | 1L;
+      mh = mh << 1;
+      pv = mh | ~(xv | ph);
+      mv = ph & xv;
+      // each remaining column can lower the score by at most one
+      if (score - (text.length - 1 - j) >= threshold) {
+        return threshold;
+      }
+    }
+    return Math.min(score, threshold);
+  }
+}
@@ -32,8 +32,22 @@ public class StringSequence implements Distance<String> {
 
   @Override
   public Double apply(String string1, String string2) {
+    if (innerDistance instanceof Edit<Character>) {
+      return (double) Levenshtein.distance(string1, string2);
+    }
     return innerDistance.apply(
         string1.chars().mapToObj(c -> (char) c).toList(),
         string2.chars().mapToObj(c -> (char) c).toList());
   }
+
+  @Override
+  public double boundedApply(String string1, String string2, double threshold) {
+    if (innerDistance instanceof Edit<Character>) {
+      return Levenshtein.bounded(string1, string2, Edit.intThreshold(threshold));
+    }
+    return innerDistance.boundedApply(
+        string1.chars().mapToObj(c -> (char) c).toList(),
+        string2.chars().mapToObj(c -> (char) c).toList(),
+        threshold);
+  }
 }
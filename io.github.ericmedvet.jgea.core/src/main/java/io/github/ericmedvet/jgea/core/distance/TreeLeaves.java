@@ -20,6 +20,7 @@
 
 package io.github.ericmedvet.jgea.core.distance;
 
+import io.github.ericmedvet.jgea.core.representation.tree.ImmutableTree;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import java.util.List;
 
@@ -35,4 +36,8 @@ public class TreeLeaves<T> implements Distance<Tree<T>> {
   public Double apply(Tree<T> t1, Tree<T> t2) {
     return innerDistance.apply(t1.visitLeaves(), t2.visitLeaves());
   }
+
+  public Distance<ImmutableTree<T>> onImmutable() {
+    return (t1, t2) -> t1 == t2 ? 0d : innerDistance.apply(t1.visitLeaves(), t2.visitLeaves());
+  }
 }
@@ -30,12 +30,34 @@ public interface CaseBasedFitness<S, C, CO, AF> extends Function<S, AF> {
 
   Function<List<CO>, AF> aggregateFunction();
 
+  // to be overridden when the aggregation depends on which cases the outcomes refer to
+  default Function<List<CO>, AF> aggregateFunction(int[] caseIndexes) {
+    return aggregateFunction();
+  }
+
   BiFunction<S, C, CO> caseFunction();
 
   IntFunction<C> caseProvider();
 
   int nOfCases();
 
+  // evenly spaced cases, always including the first one
+  static int[] caseIndexes(int nOfCases, double fidelity) {
+    int n = Math.max(1, Math.min(nOfCases, (int) Math.ceil(nOfCases * fidelity)));
+    return IntStream.range(0, n).map(i -> (int) ((long) i * nOfCases / n)).toArray();
+  }
+
+  default AF apply(S s, double fidelity) {
+    if (fidelity >= 1d) {
+      return apply(s);
+    }
+    int[] caseIndexes = caseIndexes(nOfCases(), fidelity);
+    List<CO> outcomes = IntStream.of(caseIndexes)
+        .mapToObj(i -> caseFunction().apply(s, caseProvider().apply(i)))
+        .toList();
+    return aggregateFunction(caseIndexes).apply(outcomes);
+  }
+
   @Override
   default AF apply(S s) {
     List<CO> outcomes = IntStream.range(0, nOfCases())
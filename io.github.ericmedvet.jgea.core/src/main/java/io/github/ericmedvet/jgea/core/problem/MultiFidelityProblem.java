@@ -0,0 +1,73 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.problem;
+
+import io.github.ericmedvet.jgea.core.fitness.CaseBasedFitness;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import java.util.function.Function;
+
+/**
+ * A problem whose quality can be computed at a reduced fidelity, i.e., with a fraction in {@code ]0,1]} of the
+ * full evaluation cost. Qualities are meant to be compared only with qualities obtained at the same fidelity.
+ */
+public interface MultiFidelityProblem<S, Q> extends QualityBasedProblem<S, Q> {
+  Function<S, Q> qualityFunction(double fidelity);
+
+  @Override
+  default Function<S, Q> qualityFunction() {
+    return qualityFunction(1d);
+  }
+
+  /**
+   * Tells whether a fidelity lower than 1 actually reduces the evaluation cost; if not, every fidelity costs as much
+   * as a full evaluation.
+   */
+  default boolean supportsFidelity() {
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <S, Q> MultiFidelityProblem<S, Q> from(QualityBasedProblem<S, Q> problem) {
+    if (problem instanceof MultiFidelityProblem<S, Q> multiFidelityProblem) {
+      return multiFidelityProblem;
+    }
+    Function<S, Q> qualityFunction = problem.qualityFunction();
+    return new MultiFidelityProblem<>() {
+      @Override
+      public Function<S, Q> qualityFunction(double fidelity) {
+        if (fidelity < 1d && qualityFunction instanceof CaseBasedFitness<?, ?, ?, ?> caseBasedFitness) {
+          return s -> ((CaseBasedFitness<S, ?, ?, Q>) caseBasedFitness).apply(s, fidelity);
+        }
+        return qualityFunction;
+      }
+
+      @Override
+      public boolean supportsFidelity() {
+        return qualityFunction instanceof CaseBasedFitness<?, ?, ?, ?>;
+      }
+
+      @Override
+      public PartialComparator<Q> qualityComparator() {
+        return problem.qualityComparator();
+      }
+    };
+  }
+}
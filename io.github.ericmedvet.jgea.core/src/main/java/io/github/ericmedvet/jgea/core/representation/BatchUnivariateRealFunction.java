@@ -0,0 +1,45 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.UnivariateRealFunction;
+
+public interface BatchUnivariateRealFunction extends UnivariateRealFunction {
+
+  // xColumns[j][i] is the value of the j-th input in the i-th case; returns the outputs for all the cases
+  double[] applyAsDoubles(double[][] xColumns);
+
+  static double[] applyAsDoubles(UnivariateRealFunction function, double[][] xColumns) {
+    if (function instanceof BatchUnivariateRealFunction batchFunction) {
+      return batchFunction.applyAsDoubles(xColumns);
+    }
+    int n = xColumns.length == 0 ? 0 : xColumns[0].length;
+    double[] outputs = new double[n];
+    double[] xs = new double[xColumns.length];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < xs.length; j++) {
+        xs[j] = xColumns[j][i];
+      }
+      outputs[i] = function.applyAsDouble(xs);
+    }
+    return outputs;
+  }
+}
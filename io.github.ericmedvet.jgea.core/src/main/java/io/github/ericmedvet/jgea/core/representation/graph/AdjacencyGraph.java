@@ -0,0 +1,283 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.graph;
+
+import java.io.Serializable;
+import java.util.*;
+
+public class AdjacencyGraph<N, A> implements Graph<N, A>, Serializable {
+  private final Map<N, Set<N>> successors;
+  private final Map<N, Set<N>> predecessors;
+  private final Map<Arc<N>, A> arcs;
+  // valid topological order (Pearce-Kelly), null if the graph has (or might have) cycles
+  private Map<N, Integer> order;
+  private boolean knownCyclic;
+  private int nextOrder;
+
+  public AdjacencyGraph() {
+    successors = new LinkedHashMap<>();
+    predecessors = new LinkedHashMap<>();
+    arcs = new LinkedHashMap<>();
+    order = new HashMap<>();
+  }
+
+  public static <N1, A1> Graph<N1, A1> copyOf(Graph<N1, A1> other) {
+    AdjacencyGraph<N1, A1> g = new AdjacencyGraph<>();
+    other.nodes().forEach(g::addNode);
+    if (other instanceof AdjacencyGraph<N1, A1> otherAdjacencyGraph) {
+      // arcs and the order are already consistent, hence no need to check for cycles
+      otherAdjacencyGraph.arcs.forEach(g::putArc);
+      g.order = otherAdjacencyGraph.order == null ? null : new HashMap<>(otherAdjacencyGraph.order);
+      g.knownCyclic = otherAdjacencyGraph.knownCyclic;
+      g.nextOrder = otherAdjacencyGraph.nextOrder;
+    } else {
+      other.arcs().forEach(a -> g.setArcValue(a, other.getArcValue(a)));
+    }
+    return g;
+  }
+
+  @Override
+  public void addNode(N node) {
+    if (!successors.containsKey(node)) {
+      successors.put(node, new LinkedHashSet<>());
+      predecessors.put(node, new LinkedHashSet<>());
+      if (order != null) {
+        order.put(node, nextOrder);
+      }
+      nextOrder = nextOrder + 1;
+    }
+  }
+
+  @Override
+  public Set<Arc<N>> arcs() {
+    return Collections.unmodifiableSet(arcs.keySet());
+  }
+
+  @Override
+  public A getArcValue(Arc<N> arc) {
+    return arcs.get(arc);
+  }
+
+  @Override
+  public boolean hasArc(Arc<N> arc) {
+    return arcs.containsKey(arc);
+  }
+
+  @Override
+  public boolean hasCycles() {
+    if (order != null) {
+      return false;
+    }
+    if (knownCyclic) {
+      return true;
+    }
+    order = topologicalOrder();
+    knownCyclic = order == null;
+    return knownCyclic;
+  }
+
+  @Override
+  public boolean hasCycles(N node) {
+    return order != null ? false : Graph.super.hasCycles(node);
+  }
+
+  @Override
+  public Set<N> nodes() {
+    return Collections.unmodifiableSet(successors.keySet());
+  }
+
+  @Override
+  public Set<N> predecessors(N node) {
+    Set<N> nodePredecessors = predecessors.get(node);
+    return nodePredecessors == null ? Set.of() : Collections.unmodifiableSet(nodePredecessors);
+  }
+
+  @Override
+  public boolean removeArc(Arc<N> arc) {
+    if (arcs.remove(arc) == null) {
+      return false;
+    }
+    successors.get(arc.getSource()).remove(arc.getTarget());
+    predecessors.get(arc.getTarget()).remove(arc.getSource());
+    // the order stays valid, but a cycle might have been broken
+    knownCyclic = false;
+    return true;
+  }
+
+  @Override
+  public boolean removeNode(N node) {
+    if (!successors.containsKey(node)) {
+      return false;
+    }
+    new ArrayList<>(successors.get(node)).forEach(t -> removeArc(node, t));
+    new ArrayList<>(predecessors.get(node)).forEach(s -> removeArc(s, node));
+    successors.remove(node);
+    predecessors.remove(node);
+    if (order != null) {
+      order.remove(node);
+    }
+    return true;
+  }
+
+  @Override
+  public void setArcValue(Arc<N> arc, A value) {
+    if (!successors.containsKey(arc.getSource()) || !successors.containsKey(arc.getTarget())) {
+      throw new IllegalArgumentException(String.format(
+          "Cannot set arc value between %s and %s because at least one endpoint node is not present",
+          arc.getSource(), arc.getTarget()));
+    }
+    if (!arcs.containsKey(arc) && order != null && !reorder(arc.getSource(), arc.getTarget())) {
+      order = null;
+      knownCyclic = true;
+    }
+    putArc(arc, value);
+  }
+
+  @Override
+  public Set<N> successors(N node) {
+    Set<N> nodeSuccessors = successors.get(node);
+    return nodeSuccessors == null ? Set.of() : Collections.unmodifiableSet(nodeSuccessors);
+  }
+
+  @Override
+  public boolean wouldCreateCycle(N source, N target) {
+    if (source.equals(target)) {
+      return true;
+    }
+    if (order == null) {
+      return Graph.super.wouldCreateCycle(source, target);
+    }
+    int upperBound = order.get(source);
+    if (order.get(target) > upperBound) {
+      return false;
+    }
+    // with a valid order, only nodes not after the source can be on a path to it
+    return !forwardVisit(target, upperBound, source, new LinkedHashSet<>());
+  }
+
+  private boolean forwardVisit(N start, int upperBound, N forbidden, Set<N> visited) {
+    Deque<N> stack = new ArrayDeque<>();
+    stack.push(start);
+    visited.add(start);
+    while (!stack.isEmpty()) {
+      N node = stack.pop();
+      for (N successor : successors.get(node)) {
+        if (successor.equals(forbidden)) {
+          return false;
+        }
+        if (order.get(successor) < upperBound && visited.add(successor)) {
+          stack.push(successor);
+        }
+      }
+    }
+    return true;
+  }
+
+  private void putArc(Arc<N> arc, A value) {
+    arcs.put(arc, value);
+    successors.get(arc.getSource()).add(arc.getTarget());
+    predecessors.get(arc.getTarget()).add(arc.getSource());
+  }
+
+  private boolean reorder(N source, N target) {
+    if (source.equals(target)) {
+      return false;
+    }
+    int lowerBound = order.get(target);
+    int upperBound = order.get(source);
+    if (lowerBound > upperBound) {
+      return true;
+    }
+    Set<N> forward = new LinkedHashSet<>();
+    if (!forwardVisit(target, upperBound, source, forward)) {
+      return false;
+    }
+    Set<N> backward = new LinkedHashSet<>();
+    Deque<N> stack = new ArrayDeque<>();
+    stack.push(source);
+    backward.add(source);
+    while (!stack.isEmpty()) {
+      N node = stack.pop();
+      for (N predecessor : predecessors.get(node)) {
+        if (order.get(predecessor) > lowerBound && backward.add(predecessor)) {
+          stack.push(predecessor);
+        }
+      }
+    }
+    // reassign the pooled positions: first the nodes reaching the source, then those reached by the target
+    Comparator<N> byOrder = Comparator.comparingInt(order::get);
+    List<N> nodes = new ArrayList<>(backward);
+    nodes.sort(byOrder);
+    List<N> forwardNodes = new ArrayList<>(forward);
+    forwardNodes.sort(byOrder);
+    nodes.addAll(forwardNodes);
+    int[] positions = nodes.stream().mapToInt(order::get).sorted().toArray();
+    for (int i = 0; i < positions.length; i++) {
+      order.put(nodes.get(i), positions[i]);
+    }
+    return true;
+  }
+
+  private Map<N, Integer> topologicalOrder() {
+    Map<N, Integer> inDegrees = new HashMap<>();
+    Deque<N> queue = new ArrayDeque<>();
+    predecessors.forEach((n, ps) -> {
+      inDegrees.put(n, ps.size());
+      if (ps.isEmpty()) {
+        queue.add(n);
+      }
+    });
+    Map<N, Integer> newOrder = new HashMap<>();
+    while (!queue.isEmpty()) {
+      N node = queue.poll();
+      newOrder.put(node, newOrder.size());
+      for (N successor : successors.get(node)) {
+        int inDegree = inDegrees.merge(successor, -1, Integer::sum);
+        if (inDegree == 0) {
+          queue.add(successor);
+        }
+      }
+    }
+    if (newOrder.size() < successors.size()) {
+      return null;
+    }
+    nextOrder = newOrder.size();
+    return newOrder;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(successors.keySet(), arcs);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    AdjacencyGraph<?, ?> that = (AdjacencyGraph<?, ?>) o;
+    return successors.keySet().equals(that.successors.keySet()) && arcs.equals(that.arcs);
+  }
+
+  @Override
+  public String toString() {
+    return "{" + "nodes=" + successors.keySet() + ", arcs=" + arcs + '}';
+  }
+}
@@ -40,7 +40,7 @@ public class AlignedCrossover<N, A> implements Crossover<Graph<N, A>> {
 
   @Override
   public Graph<N, A> recombine(Graph<N, A> parent1, Graph<N, A> parent2, RandomGenerator random) {
-    Graph<N, A> child = new LinkedHashGraph<>();
+    Graph<N, A> child = new AdjacencyGraph<>();
     // add all nodes
     parent1.nodes().forEach(child::addNode);
     parent2.nodes().forEach(child::addNode);
@@ -59,11 +59,8 @@ public class AlignedCrossover<N, A> implements Crossover<Graph<N, A>> {
       } else {
         childArc = edgeCrossover.recombine(arc1, arc2, random);
       }
-      if (childArc != null) {
+      if (childArc != null && (allowCycles || !child.wouldCreateCycle(arc.getSource(), arc.getTarget()))) {
         child.setArcValue(arc, childArc);
-        if (!allowCycles && child.hasCycles()) {
-          child.removeArc(arc);
-        }
       }
     }
     // remove unconnected nodes
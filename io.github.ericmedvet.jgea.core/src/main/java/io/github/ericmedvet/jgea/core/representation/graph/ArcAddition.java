@@ -38,21 +38,19 @@ public class ArcAddition<N, A> implements Mutation<Graph<N, A>> {
 
   @Override
   public Graph<N, A> mutate(Graph<N, A> parent, RandomGenerator random) {
-    Graph<N, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<N, A> child = AdjacencyGraph.copyOf(parent);
     if (!parent.nodes().isEmpty()) {
       List<N> fromNodes = Misc.shuffle(new ArrayList<>(child.nodes()), random);
       List<N> toNodes = Misc.shuffle(new ArrayList<>(child.nodes()), random);
       boolean added = false;
       for (N fromNode : fromNodes) {
         for (N toNode : toNodes) {
-          if (!fromNode.equals(toNode) && !child.hasArc(fromNode, toNode)) {
+          if (!fromNode.equals(toNode)
+              && !child.hasArc(fromNode, toNode)
+              && (allowCycles || !child.wouldCreateCycle(fromNode, toNode))) {
             child.setArcValue(fromNode, toNode, arcFactory.build(random));
-            if (!allowCycles && child.hasCycles()) {
-              child.removeArc(fromNode, toNode);
-            } else {
-              added = true;
-              break;
-            }
+            added = true;
+            break;
           }
         }
         if (added) {
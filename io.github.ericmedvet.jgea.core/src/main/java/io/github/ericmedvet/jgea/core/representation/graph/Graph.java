@@ -22,9 +22,7 @@ package io.github.ericmedvet.jgea.core.representation.graph;
 
 import io.github.ericmedvet.jgea.core.util.Sized;
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public interface Graph<N, A> extends Sized {
@@ -82,16 +80,44 @@ public interface Graph<N, A> extends Sized {
 
   void setArcValue(Arc<N> arc, A value);
 
-  private static <M> void recursivelyVisit(Graph<M, ?> graph, M node, Set<M> visited) {
-    if (visited.contains(node)) {
-      throw new RuntimeException();
+  private static <M> Map<M, List<M>> successorsMap(Graph<M, ?> graph) {
+    Map<M, List<M>> map = new HashMap<>();
+    graph.arcs().forEach(a -> map.computeIfAbsent(a.getSource(), n -> new ArrayList<>())
+        .add(a.getTarget()));
+    return map;
+  }
+
+  private static <M> boolean hasCycles(Map<M, List<M>> successorsMap, M node, Set<M> done) {
+    // iterative depth-first visit: a cycle exists iff a node on the current path is reached again
+    if (done.contains(node)) {
+      return false;
+    }
+    Set<M> onPath = new HashSet<>();
+    Deque<Iterator<M>> iterators = new ArrayDeque<>();
+    Deque<M> path = new ArrayDeque<>();
+    onPath.add(node);
+    path.push(node);
+    iterators.push(successorsMap.getOrDefault(node, List.of()).iterator());
+    while (!iterators.isEmpty()) {
+      Iterator<M> iterator = iterators.peek();
+      if (iterator.hasNext()) {
+        M successor = iterator.next();
+        if (onPath.contains(successor)) {
+          return true;
+        }
+        if (!done.contains(successor)) {
+          onPath.add(successor);
+          path.push(successor);
+          iterators.push(successorsMap.getOrDefault(successor, List.of()).iterator());
+        }
+      } else {
+        iterators.pop();
+        M visited = path.pop();
+        onPath.remove(visited);
+        done.add(visited);
+      }
     }
-    visited.add(node);
-    graph.successors(node).forEach(s -> {
-      Set<M> updated = new HashSet<>(visited);
-      updated.add(node);
-      recursivelyVisit(graph, s, updated);
-    });
+    return false;
   }
 
   default A getArcValue(N source, N target) {
@@ -107,8 +133,10 @@ public interface Graph<N, A> extends Sized {
   }
 
   default boolean hasCycles() {
+    Map<N, List<N>> successorsMap = successorsMap(this);
+    Set<N> done = new HashSet<>();
     for (N node : nodes()) {
-      if (hasCycles(node)) {
+      if (hasCycles(successorsMap, node, done)) {
         return true;
       }
     }
@@ -116,12 +144,7 @@ public interface Graph<N, A> extends Sized {
   }
 
   default boolean hasCycles(N node) {
-    try {
-      recursivelyVisit(this, node, new HashSet<>());
-      return false;
-    } catch (RuntimeException e) {
-      return true;
-    }
+    return hasCycles(successorsMap(this), node, new HashSet<>());
   }
 
   default Set<N> predecessors(N node) {
@@ -150,4 +173,27 @@ public interface Graph<N, A> extends Sized {
         .map(Arc::getTarget)
         .collect(Collectors.toSet());
   }
+
+  default boolean wouldCreateCycle(N source, N target) {
+    // true iff the arc source->target would close a cycle, i.e., iff source is reachable from target
+    if (source.equals(target)) {
+      return true;
+    }
+    Map<N, List<N>> successorsMap = successorsMap(this);
+    Set<N> visited = new HashSet<>();
+    Deque<N> stack = new ArrayDeque<>();
+    stack.push(target);
+    visited.add(target);
+    while (!stack.isEmpty()) {
+      for (N successor : successorsMap.getOrDefault(stack.pop(), List.of())) {
+        if (successor.equals(source)) {
+          return true;
+        }
+        if (visited.add(successor)) {
+          stack.push(successor);
+        }
+      }
+    }
+    return false;
+  }
 }
@@ -51,7 +51,7 @@ public class GraphUtils {
 
   public static <N1, A1, N2, A2> Graph<N2, A2> transform(
       Graph<N1, A1> fromGraph, Function<N1, N2> nodeF, Function<Collection<A1>, A2> arcF) {
-    Graph<N2, A2> toGraph = new LinkedHashGraph<>();
+    Graph<N2, A2> toGraph = new AdjacencyGraph<>();
     for (N1 fromNode : fromGraph.nodes()) {
       toGraph.addNode(nodeF.apply(fromNode));
     }
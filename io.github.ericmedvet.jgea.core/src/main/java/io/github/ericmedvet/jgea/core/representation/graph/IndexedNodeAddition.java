@@ -96,7 +96,7 @@ public class IndexedNodeAddition<M extends N, N, A> implements Mutation<Graph<In
 
   @Override
   public Graph<IndexedNode<N>, A> mutate(Graph<IndexedNode<N>, A> parent, RandomGenerator random) {
-    Graph<IndexedNode<N>, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<IndexedNode<N>, A> child = AdjacencyGraph.copyOf(parent);
     if (!child.arcs().isEmpty()) {
       M newNode = nodeFactory.build(random);
       Graph.Arc<IndexedNode<N>> arc = Misc.pickRandomly(child.arcs(), random);
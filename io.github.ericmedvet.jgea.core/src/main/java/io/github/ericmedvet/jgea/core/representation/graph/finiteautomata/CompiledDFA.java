@@ -0,0 +1,189 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.graph.finiteautomata;
+
+import io.github.ericmedvet.jgea.core.representation.graph.Graph;
+import io.github.ericmedvet.jgea.core.util.IntRange;
+import io.github.ericmedvet.jgea.core.util.Sized;
+import java.io.Serializable;
+import java.util.*;
+
+public class CompiledDFA<S> implements Extractor<S>, Sized, Serializable {
+
+  private final List<S> alphabet;
+  private final Map<S, Integer> codes;
+  private final int nOfStates;
+  private final int[] transitions;
+  private final boolean[] accepting;
+
+  public CompiledDFA(Graph<DeterministicFiniteAutomaton.State, Set<S>> graph, List<S> alphabet) {
+    this.alphabet = Collections.unmodifiableList(new ArrayList<>(alphabet));
+    codes = new HashMap<>();
+    for (int i = 0; i < alphabet.size(); i++) {
+      codes.putIfAbsent(alphabet.get(i), i);
+    }
+    // the starting state (the one with index 0) always gets the dense index 0
+    List<DeterministicFiniteAutomaton.State> states = graph.nodes().stream()
+        .sorted(Comparator.comparingInt(DeterministicFiniteAutomaton.State::getIndex))
+        .toList();
+    Map<DeterministicFiniteAutomaton.State, Integer> stateIndexes = new HashMap<>();
+    states.forEach(s -> stateIndexes.put(s, stateIndexes.size()));
+    nOfStates = states.size();
+    accepting = new boolean[nOfStates];
+    states.forEach(s -> accepting[stateIndexes.get(s)] = s.isAccepting());
+    transitions = new int[nOfStates * alphabet.size()];
+    Arrays.fill(transitions, -1);
+    for (Graph.Arc<DeterministicFiniteAutomaton.State> arc : graph.arcs()) {
+      int source = stateIndexes.get(arc.getSource());
+      int target = stateIndexes.get(arc.getTarget());
+      for (S symbol : graph.getArcValue(arc)) {
+        Integer code = codes.get(symbol);
+        if (code != null) {
+          transitions[source * alphabet.size() + code] = target;
+        }
+      }
+    }
+  }
+
+  private static boolean contains(int[] ranges, int i, int j) {
+    int min = ranges[2 * i];
+    int max = ranges[2 * i + 1];
+    int otherMin = ranges[2 * j];
+    int otherMax = ranges[2 * j + 1];
+    return min <= otherMin && otherMin <= max && min <= otherMax && otherMax <= max;
+  }
+
+  private static Set<IntRange> toRanges(int[] ranges) {
+    Set<IntRange> set = new LinkedHashSet<>();
+    for (int i = 0; i < ranges.length / 2; i++) {
+      set.add(new IntRange(ranges[2 * i], ranges[2 * i + 1]));
+    }
+    return set;
+  }
+
+  public int[] encode(List<S> sequence) {
+    int[] encoded = new int[sequence.size()];
+    for (int i = 0; i < encoded.length; i++) {
+      encoded[i] = codes.getOrDefault(sequence.get(i), -1);
+    }
+    return encoded;
+  }
+
+  @Override
+  public Set<IntRange> extract(List<S> sequence) {
+    return toRanges(extract(encode(sequence)));
+  }
+
+  public int[] extract(int[] encoded) {
+    int[] ranges = new int[16];
+    int n = 0;
+    int current = 0;
+    int lastStart = 0;
+    for (int i = 0; i < encoded.length; i++) {
+      if (accepting[current]) {
+        if (2 * n + 2 > ranges.length) {
+          ranges = Arrays.copyOf(ranges, ranges.length * 2);
+        }
+        ranges[2 * n] = lastStart;
+        ranges[2 * n + 1] = i;
+        n = n + 1;
+      }
+      current = next(current, encoded[i]);
+      if (current < 0) {
+        current = 0;
+        i = lastStart;
+        lastStart = i + 1;
+      }
+    }
+    return Arrays.copyOf(ranges, 2 * n);
+  }
+
+  @Override
+  public Set<IntRange> extractNonOverlapping(List<S> sequence) {
+    return toRanges(extractNonOverlapping(encode(sequence)));
+  }
+
+  public int[] extractNonOverlapping(int[] encoded) {
+    int[] all = extract(encoded);
+    int n = all.length / 2;
+    boolean[] discarded = new boolean[n];
+    int nOfKept = n;
+    for (int i = 0; i < n; i++) {
+      if (discarded[i]) {
+        continue;
+      }
+      for (int j = i + 1; j < n; j++) {
+        if (all[2 * j] >= all[2 * i + 1]) {
+          break;
+        }
+        if (discarded[j]) {
+          continue;
+        }
+        nOfKept = nOfKept - 1;
+        if (contains(all, j, i)) {
+          discarded[i] = true;
+          break;
+        } else {
+          discarded[j] = true;
+        }
+      }
+    }
+    int[] kept = new int[2 * nOfKept];
+    int k = 0;
+    for (int i = 0; i < n; i++) {
+      if (!discarded[i]) {
+        kept[2 * k] = all[2 * i];
+        kept[2 * k + 1] = all[2 * i + 1];
+        k = k + 1;
+      }
+    }
+    return kept;
+  }
+
+  public List<S> getAlphabet() {
+    return alphabet;
+  }
+
+  @Override
+  public boolean match(List<S> sequence) {
+    return match(encode(sequence));
+  }
+
+  public boolean match(int[] encoded) {
+    int current = 0;
+    for (int code : encoded) {
+      current = next(current, code);
+      if (current < 0) {
+        return false;
+      }
+    }
+    return accepting[current];
+  }
+
+  private int next(int current, int code) {
+    return code < 0 ? -1 : transitions[current * alphabet.size() + code];
+  }
+
+  @Override
+  public int size() {
+    return nOfStates;
+  }
+}
@@ -114,6 +114,18 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
     };
   }
 
+  public CompiledDFA<S> compile() {
+    return compile(graph.arcs().stream()
+        .map(graph::getArcValue)
+        .flatMap(Set::stream)
+        .distinct()
+        .toList());
+  }
+
+  public CompiledDFA<S> compile(List<S> alphabet) {
+    return new CompiledDFA<>(graph, alphabet);
+  }
+
   @Override
   public Set<IntRange> extract(List<S> sequence) {
     Set<IntRange> ranges = new LinkedHashSet<>();
@@ -21,8 +21,8 @@
 package io.github.ericmedvet.jgea.core.representation.graph.finiteautomata;
 
 import io.github.ericmedvet.jgea.core.IndependentFactory;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import java.util.Set;
 import java.util.random.RandomGenerator;
@@ -39,7 +39,7 @@ public class ShallowDFAFactory<C> implements IndependentFactory<Graph<Determinis
 
   @Override
   public Graph<DeterministicFiniteAutomaton.State, Set<C>> build(RandomGenerator random) {
-    Graph<DeterministicFiniteAutomaton.State, Set<C>> g = new LinkedHashGraph<>();
+    Graph<DeterministicFiniteAutomaton.State, Set<C>> g = new AdjacencyGraph<>();
     DeterministicFiniteAutomaton.State[] states = new DeterministicFiniteAutomaton.State[nOfStates];
     for (int i = 0; i < nOfStates; i++) {
       states[i] = new DeterministicFiniteAutomaton.State(i, i == nOfStates - 1);
@@ -21,8 +21,8 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.functiongraph;
 
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
@@ -60,7 +60,7 @@ public class FunctionGraph
   }
 
   public static Graph<Node, Double> sampleFor(List<String> xVarNames, List<String> yVarNames) {
-    Graph<Node, Double> g = new LinkedHashGraph<>();
+    Graph<Node, Double> g = new AdjacencyGraph<>();
     IntStream.range(0, xVarNames.size()).forEach(i -> g.addNode(new Input(i, xVarNames.get(i))));
     IntStream.range(0, yVarNames.size()).forEach(i -> g.addNode(new Output(i, yVarNames.get(i))));
     return g;
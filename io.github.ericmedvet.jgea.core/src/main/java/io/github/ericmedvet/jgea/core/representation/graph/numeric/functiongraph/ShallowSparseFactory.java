@@ -21,8 +21,8 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.functiongraph;
 
 import io.github.ericmedvet.jgea.core.IndependentFactory;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
@@ -49,7 +49,7 @@ public class ShallowSparseFactory implements IndependentFactory<Graph<Node, Doub
 
   @Override
   public Graph<Node, Double> build(RandomGenerator random) {
-    Graph<Node, Double> g = new LinkedHashGraph<>();
+    Graph<Node, Double> g = new AdjacencyGraph<>();
     List<Input> inputs = IntStream.range(0, xVarNames.size())
         .mapToObj(i -> new Input(i, xVarNames.get(i)))
         .toList();
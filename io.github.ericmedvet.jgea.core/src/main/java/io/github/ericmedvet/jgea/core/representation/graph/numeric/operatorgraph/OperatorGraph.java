@@ -21,8 +21,8 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.operatorgraph;
 
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
@@ -65,7 +65,7 @@ public class OperatorGraph
   }
 
   public static Graph<Node, OperatorGraph.NonValuedArc> sampleFor(List<String> xVarNames, List<String> yVarNames) {
-    Graph<Node, OperatorGraph.NonValuedArc> g = new LinkedHashGraph<>();
+    Graph<Node, OperatorGraph.NonValuedArc> g = new AdjacencyGraph<>();
     IntStream.range(0, xVarNames.size()).forEach(i -> g.addNode(new Input(i, xVarNames.get(i))));
     IntStream.range(0, yVarNames.size()).forEach(i -> g.addNode(new Output(i, yVarNames.get(i))));
     return g;
@@ -21,8 +21,8 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.operatorgraph;
 
 import io.github.ericmedvet.jgea.core.IndependentFactory;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
@@ -44,7 +44,7 @@ public class ShallowFactory implements IndependentFactory<Graph<Node, OperatorGr
 
   @Override
   public Graph<Node, OperatorGraph.NonValuedArc> build(RandomGenerator random) {
-    Graph<Node, OperatorGraph.NonValuedArc> g = new LinkedHashGraph<>();
+    Graph<Node, OperatorGraph.NonValuedArc> g = new AdjacencyGraph<>();
     List<Input> inputs = IntStream.range(0, xVarNames.size())
         .mapToObj(i -> new Input(i, xVarNames.get(i)))
         .toList();
@@ -21,6 +21,9 @@
 package io.github.ericmedvet.jgea.core.representation.tree;
 
 import io.github.ericmedvet.jgea.core.IndependentFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.ToIntFunction;
 import java.util.random.RandomGenerator;
 
@@ -41,14 +44,24 @@ public class FullTreeBuilder<N> implements TreeBuilder<N> {
 
   @Override
   public Tree<N> build(RandomGenerator random, int h) {
+    return build(random, h, Tree::of);
+  }
+
+  @Override
+  public ImmutableTree<N> buildImmutable(RandomGenerator random, int h) {
+    return build(random, h, ImmutableTree::of);
+  }
+
+  private <T> T build(RandomGenerator random, int h, BiFunction<N, List<T>, T> nodeBuilder) {
     if (h == 1) {
-      return Tree.of(terminalFactory.build(random));
+      return nodeBuilder.apply(terminalFactory.build(random), List.of());
     }
-    Tree<N> t = Tree.of(nonTerminalFactory.build(random));
-    int nChildren = arityFunction.applyAsInt(t.content());
+    N content = nonTerminalFactory.build(random);
+    int nChildren = arityFunction.applyAsInt(content);
+    List<T> children = new ArrayList<>(nChildren);
     for (int i = 0; i < nChildren; i++) {
-      t.addChild(build(random, h - 1));
+      children.add(build(random, h - 1, nodeBuilder));
     }
-    return t;
+    return nodeBuilder.apply(content, children);
   }
 }
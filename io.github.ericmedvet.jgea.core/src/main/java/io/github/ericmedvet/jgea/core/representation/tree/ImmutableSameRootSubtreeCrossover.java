@@ -0,0 +1,68 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.tree;
+
+import io.github.ericmedvet.jgea.core.operator.Crossover;
+import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ImmutableSameRootSubtreeCrossover<N> implements Crossover<ImmutableTree<N>> {
+
+  private final int maxHeight;
+
+  public ImmutableSameRootSubtreeCrossover(int maxHeight) {
+    this.maxHeight = maxHeight;
+  }
+
+  @Override
+  public ImmutableTree<N> recombine(ImmutableTree<N> parent1, ImmutableTree<N> parent2, RandomGenerator random) {
+    int[] depths1 = parent1.depths();
+    List<ImmutableTree<N>> subtrees1 = parent1.topSubtrees();
+    List<ImmutableTree<N>> subtrees2 = parent2.topSubtrees();
+    Set<N> roots = subtrees1.stream().map(ImmutableTree::content).collect(Collectors.toSet());
+    roots.retainAll(subtrees2.stream().map(ImmutableTree::content).collect(Collectors.toSet()));
+    List<Integer> indexes1 = Misc.shuffle(
+        IntStream.range(0, subtrees1.size())
+            .filter(i -> roots.contains(subtrees1.get(i).content()))
+            .boxed()
+            .toList(),
+        random);
+    List<ImmutableTree<N>> candidates2 = Misc.shuffle(
+        subtrees2.stream()
+            .filter(t -> roots.contains(t.content()))
+            .distinct()
+            .toList(),
+        random);
+    for (int i1 : indexes1) {
+      for (ImmutableTree<N> subtree2 : candidates2) {
+        if ((subtrees1.get(i1).content().equals(subtree2.content()))
+            && (depths1[i1] + subtree2.height() <= maxHeight)) {
+          return parent1.replace(i1, subtree2);
+        }
+      }
+    }
+    return parent1;
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.tree;
+
+import io.github.ericmedvet.jgea.core.operator.Crossover;
+import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+public class ImmutableSubtreeCrossover<N> implements Crossover<ImmutableTree<N>> {
+
+  private final int maxHeight;
+
+  public ImmutableSubtreeCrossover(int maxHeight) {
+    this.maxHeight = maxHeight;
+  }
+
+  @Override
+  public ImmutableTree<N> recombine(ImmutableTree<N> parent1, ImmutableTree<N> parent2, RandomGenerator random) {
+    int[] depths1 = parent1.depths();
+    List<ImmutableTree<N>> subtrees2 = parent2.topSubtrees();
+    List<Integer> indexes1 =
+        Misc.shuffle(IntStream.range(0, depths1.length).boxed().toList(), random);
+    List<Integer> indexes2 =
+        Misc.shuffle(IntStream.range(0, subtrees2.size()).boxed().toList(), random);
+    for (int i1 : indexes1) {
+      for (int i2 : indexes2) {
+        if (depths1[i1] + subtrees2.get(i2).height() <= maxHeight) {
+          // the unchanged parts of parent1 and the whole subtree of parent2 are shared with the child
+          return parent1.replace(i1, subtrees2.get(i2));
+        }
+      }
+    }
+    return parent1;
+  }
+}
@@ -0,0 +1,63 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.tree;
+
+import io.github.ericmedvet.jgea.core.operator.Mutation;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+public class ImmutableSubtreeMutation<N> implements Mutation<ImmutableTree<N>> {
+
+  private final int maxHeight;
+  private final TreeBuilder<N> builder;
+  private final boolean replaceAll;
+
+  public ImmutableSubtreeMutation(int maxHeight, TreeBuilder<N> builder, boolean replaceAll) {
+    this.maxHeight = maxHeight;
+    this.builder = builder;
+    this.replaceAll = replaceAll;
+  }
+
+  public ImmutableSubtreeMutation(int maxHeight, TreeBuilder<N> builder) {
+    this(maxHeight, builder, true);
+  }
+
+  @Override
+  public ImmutableTree<N> mutate(ImmutableTree<N> parent, RandomGenerator random) {
+    if (parent.height() > maxHeight) {
+      return parent;
+    }
+    List<ImmutableTree<N>> subtrees = parent.topSubtrees();
+    int[] depths = parent.depths();
+    int index = random.nextInt(subtrees.size());
+    ImmutableTree<N> toReplaceSubtree = subtrees.get(index);
+    int maxDepth = replaceAll
+        ? IntStream.range(0, subtrees.size())
+            .filter(i -> subtrees.get(i).equals(toReplaceSubtree))
+            .map(i -> depths[i])
+            .max()
+            .orElse(0)
+        : depths[index];
+    ImmutableTree<N> newSubtree = builder.buildImmutable(random, random.nextInt(maxHeight - maxDepth) + 1);
+    return replaceAll ? parent.replaceAll(toReplaceSubtree, newSubtree) : parent.replace(index, newSubtree);
+  }
+}
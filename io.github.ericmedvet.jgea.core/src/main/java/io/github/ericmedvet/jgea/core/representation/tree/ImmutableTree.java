@@ -0,0 +1,308 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.tree;
+
+import io.github.ericmedvet.jgea.core.util.Sized;
+import java.io.PrintStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class ImmutableTree<C> implements Serializable, Sized, Iterable<ImmutableTree<C>> {
+
+  private static final Map<ImmutableTree<?>, WeakReference<ImmutableTree<?>>> POOL =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final C content;
+  private final List<ImmutableTree<C>> children;
+  private final int size;
+  private final int height;
+  private final int hash;
+
+  private ImmutableTree(C content, List<ImmutableTree<C>> children) {
+    this.content = content;
+    this.children = children;
+    int s = 1;
+    int h = 0;
+    int childrenHash = 1;
+    for (ImmutableTree<C> child : children) {
+      s = s + child.size;
+      h = Math.max(h, child.height);
+      childrenHash = 31 * childrenHash + child.hash;
+    }
+    size = s;
+    height = h + 1;
+    hash = 31 * Objects.hashCode(content) + childrenHash;
+  }
+
+  public static <K> ImmutableTree<K> from(Tree<K> tree) {
+    return of(tree.content(), tree.childStream().map(ImmutableTree::from).toList());
+  }
+
+  public static <K> ImmutableTree<K> interned(Tree<K> tree) {
+    return interned(
+        tree.content(), tree.childStream().map(ImmutableTree::interned).toList());
+  }
+
+  public static <K> ImmutableTree<K> interned(K content, List<ImmutableTree<K>> children) {
+    return of(content, children.stream().map(ImmutableTree::intern).toList()).pooled();
+  }
+
+  public static <K> ImmutableTree<K> of(K content) {
+    return new ImmutableTree<>(content, List.of());
+  }
+
+  public static <K> ImmutableTree<K> of(K content, List<ImmutableTree<K>> children) {
+    return new ImmutableTree<>(content, List.copyOf(children));
+  }
+
+  public static int poolSize() {
+    return POOL.size();
+  }
+
+  private static <K> void prettyPrint(ImmutableTree<K> t, int d, PrintStream ps) {
+    ps.printf(
+        "%s (h=%2d d=%2d #c=%2d) %s",
+        String.join("", Collections.nCopies(d, "  ")), t.height(), d, t.nChildren(), t.content());
+    ps.println();
+    t.forEach(c -> prettyPrint(c, d + 1, ps));
+  }
+
+  public ImmutableTree<C> child(int i) {
+    return children.get(i);
+  }
+
+  public Stream<ImmutableTree<C>> childStream() {
+    return children.stream();
+  }
+
+  public List<ImmutableTree<C>> children() {
+    return children;
+  }
+
+  public C content() {
+    return content;
+  }
+
+  public int[] depths() {
+    int[] depths = new int[size];
+    fillDepths(depths, 0, 0);
+    return depths;
+  }
+
+  private int fillDepths(int[] depths, int index, int depth) {
+    depths[index] = depth;
+    int i = index + 1;
+    for (ImmutableTree<C> child : children) {
+      i = child.fillDepths(depths, i, depth + 1);
+    }
+    return i;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ImmutableTree<?> tree = (ImmutableTree<?>) o;
+    if (hash != tree.hash || size != tree.size || height != tree.height) return false;
+    return Objects.equals(content, tree.content) && children.equals(tree.children);
+  }
+
+  @Override
+  public String toString() {
+    return content.toString()
+        + (children.isEmpty()
+            ? ""
+            : ("(" + children.stream().map(ImmutableTree::toString).collect(Collectors.joining(",")) + ")"));
+  }
+
+  public int height() {
+    return height;
+  }
+
+  public ImmutableTree<C> intern() {
+    ImmutableTree<C> existing = lookup();
+    if (existing != null) {
+      return existing;
+    }
+    return of(content, children.stream().map(ImmutableTree::intern).toList()).pooled();
+  }
+
+  public boolean isLeaf() {
+    return children.isEmpty();
+  }
+
+  @Override
+  public Iterator<ImmutableTree<C>> iterator() {
+    return children.iterator();
+  }
+
+  @SuppressWarnings("unchecked")
+  private ImmutableTree<C> lookup() {
+    WeakReference<ImmutableTree<?>> reference = POOL.get(this);
+    return reference == null ? null : (ImmutableTree<C>) reference.get();
+  }
+
+  public List<ImmutableTree<C>> leaves() {
+    List<ImmutableTree<C>> leaves = new ArrayList<>();
+    collectLeaves(leaves);
+    return leaves;
+  }
+
+  private void collectLeaves(List<ImmutableTree<C>> leaves) {
+    if (children.isEmpty()) {
+      leaves.add(this);
+    } else {
+      children.forEach(c -> c.collectLeaves(leaves));
+    }
+  }
+
+  public <H> ImmutableTree<H> map(Function<C, H> mapper) {
+    return of(
+        mapper.apply(content),
+        children.stream().map(c -> c.map(mapper)).toList());
+  }
+
+  public int nChildren() {
+    return children.size();
+  }
+
+  private ImmutableTree<C> pooled() {
+    synchronized (POOL) {
+      ImmutableTree<C> existing = lookup();
+      if (existing != null) {
+        return existing;
+      }
+      POOL.put(this, new WeakReference<>(this));
+      return this;
+    }
+  }
+
+  public void prettyPrint(PrintStream ps) {
+    prettyPrint(this, 0, ps);
+  }
+
+  @Serial
+  private Object readResolve() {
+    // the cached hash depends on the hash of the content, which may be identity-based (e.g., enums)
+    return new ImmutableTree<>(content, children);
+  }
+
+  public ImmutableTree<C> replace(int index, ImmutableTree<C> newSubtree) {
+    if (index == 0) {
+      return newSubtree;
+    }
+    checkIndex(index);
+    int i = 1;
+    for (int c = 0; c < children.size(); c++) {
+      ImmutableTree<C> child = children.get(c);
+      if (index < i + child.size) {
+        List<ImmutableTree<C>> newChildren = new ArrayList<>(children);
+        newChildren.set(c, child.replace(index - i, newSubtree));
+        return new ImmutableTree<>(content, Collections.unmodifiableList(newChildren));
+      }
+      i = i + child.size;
+    }
+    throw new IllegalStateException("Unreachable subtree index: %d".formatted(index));
+  }
+
+  public ImmutableTree<C> replaceAll(ImmutableTree<C> oldSubtree, ImmutableTree<C> newSubtree) {
+    if (equals(oldSubtree)) {
+      return newSubtree;
+    }
+    if (size <= oldSubtree.size) {
+      return this;
+    }
+    List<ImmutableTree<C>> newChildren = null;
+    for (int c = 0; c < children.size(); c++) {
+      ImmutableTree<C> child = children.get(c);
+      ImmutableTree<C> newChild = child.replaceAll(oldSubtree, newSubtree);
+      if (newChild != child) {
+        if (newChildren == null) {
+          newChildren = new ArrayList<>(children);
+        }
+        newChildren.set(c, newChild);
+      }
+    }
+    return newChildren == null
+        ? this
+        : new ImmutableTree<>(content, Collections.unmodifiableList(newChildren));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  public ImmutableTree<C> subtree(int index) {
+    if (index == 0) {
+      return this;
+    }
+    checkIndex(index);
+    int i = 1;
+    for (ImmutableTree<C> child : children) {
+      if (index < i + child.size) {
+        return child.subtree(index - i);
+      }
+      i = i + child.size;
+    }
+    throw new IllegalStateException("Unreachable subtree index: %d".formatted(index));
+  }
+
+  public Tree<C> toTree() {
+    return Tree.of(content, children.stream().map(ImmutableTree::toTree).toList());
+  }
+
+  public List<ImmutableTree<C>> topSubtrees() {
+    List<ImmutableTree<C>> subtrees = new ArrayList<>(size);
+    collectSubtrees(subtrees);
+    return subtrees;
+  }
+
+  private void collectSubtrees(List<ImmutableTree<C>> subtrees) {
+    subtrees.add(this);
+    children.forEach(c -> c.collectSubtrees(subtrees));
+  }
+
+  public List<C> visitDepth() {
+    return topSubtrees().stream().map(ImmutableTree::content).toList();
+  }
+
+  public List<C> visitLeaves() {
+    return leaves().stream().map(ImmutableTree::content).toList();
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(
+          "Subtree index %d out of bounds for tree of size %d".formatted(index, size));
+    }
+  }
+}
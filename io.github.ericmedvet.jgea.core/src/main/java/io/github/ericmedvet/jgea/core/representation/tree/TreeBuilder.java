@@ -25,4 +25,8 @@ import java.util.random.RandomGenerator;
 public interface TreeBuilder<N> {
 
   Tree<N> build(RandomGenerator random, int height);
+
+  default ImmutableTree<N> buildImmutable(RandomGenerator random, int height) {
+    return ImmutableTree.from(build(random, height));
+  }
 }
@@ -20,35 +20,47 @@
 package io.github.ericmedvet.jgea.core.representation.tree.numeric;
 
 import java.io.Serializable;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.ToDoubleFunction;
 import java.util.function.ToIntFunction;
 
 public interface Element {
 
   enum Operator implements Element, ToDoubleFunction<double[]>, Serializable {
-    ADDITION("+", x -> x[0] + x[1], 2),
-    SUBTRACTION("-", x -> x[0] - x[1], 2),
-    DIVISION("/", x -> x[0] / x[1], 2),
-    PROT_DIVISION("p/", x -> (x[1] != 0d) ? (x[0] / x[1]) : 1, 2),
-    MULTIPLICATION("*", x -> x[0] * x[1], 2),
-    LOG("log", x -> Math.log(x[0]), 1),
-    PROT_LOG("plog", x -> (x[0] > 0d) ? Math.log(x[0]) : 0d, 1),
-    EXP("exp", x -> Math.exp(x[0]), 1),
-    SIN("sin", x -> Math.sin(x[0]), 1),
-    COS("cos", x -> Math.cos(x[0]), 1),
-    INVERSE("1/", x -> 1d / x[0], 1),
-    OPPOSITE("_", x -> 0d - x[0], 1),
-    SQRT("√", x -> Math.sqrt(x[0]), 1),
-    SQ("²", x -> Math.pow(x[0], 2d), 1);
+    ADDITION("+", (x0, x1) -> x0 + x1),
+    SUBTRACTION("-", (x0, x1) -> x0 - x1),
+    DIVISION("/", (x0, x1) -> x0 / x1),
+    PROT_DIVISION("p/", (x0, x1) -> (x1 != 0d) ? (x0 / x1) : 1),
+    MULTIPLICATION("*", (x0, x1) -> x0 * x1),
+    LOG("log", x -> Math.log(x)),
+    PROT_LOG("plog", x -> (x > 0d) ? Math.log(x) : 0d),
+    EXP("exp", x -> Math.exp(x)),
+    SIN("sin", x -> Math.sin(x)),
+    COS("cos", x -> Math.cos(x)),
+    INVERSE("1/", x -> 1d / x),
+    OPPOSITE("_", x -> 0d - x),
+    SQRT("√", x -> Math.sqrt(x)),
+    SQ("²", x -> Math.pow(x, 2d));
 
     private final String string;
-    private final ToDoubleFunction<double[]> function;
+    // exactly one of the two is not null: both the scalar and the batch evaluation are derived from it
+    private final DoubleUnaryOperator unaryOperator;
+    private final DoubleBinaryOperator binaryOperator;
     private final int arity;
 
-    Operator(String string, ToDoubleFunction<double[]> function, int arity) {
+    Operator(String string, DoubleUnaryOperator unaryOperator) {
       this.string = string;
-      this.function = function;
-      this.arity = arity;
+      this.unaryOperator = unaryOperator;
+      binaryOperator = null;
+      arity = 1;
+    }
+
+    Operator(String string, DoubleBinaryOperator binaryOperator) {
+      this.string = string;
+      unaryOperator = null;
+      this.binaryOperator = binaryOperator;
+      arity = 2;
     }
 
     public static ToIntFunction<Element> arityFunction() {
@@ -57,7 +69,23 @@ public interface Element {
 
     @Override
     public double applyAsDouble(double... input) {
-      return function.applyAsDouble(input);
+      return arity == 1
+          ? unaryOperator.applyAsDouble(input[0])
+          : binaryOperator.applyAsDouble(input[0], input[1]);
+    }
+
+    public void applyAsDoubles(double[][] inputs, double[] outputs) {
+      double[] x0 = inputs[0];
+      if (arity == 1) {
+        for (int i = 0; i < outputs.length; i++) {
+          outputs[i] = unaryOperator.applyAsDouble(x0[i]);
+        }
+      } else {
+        double[] x1 = inputs[1];
+        for (int i = 0; i < outputs.length; i++) {
+          outputs[i] = binaryOperator.applyAsDouble(x0[i], x1[i]);
+        }
+      }
     }
 
     public int arity() {
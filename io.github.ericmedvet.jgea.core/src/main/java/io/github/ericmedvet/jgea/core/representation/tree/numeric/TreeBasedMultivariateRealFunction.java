@@ -21,6 +21,7 @@
 package io.github.ericmedvet.jgea.core.representation.tree.numeric;
 
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.ImmutableTree;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jgea.core.util.Sized;
 import io.github.ericmedvet.jnb.datastructure.Parametrized;
@@ -39,6 +40,7 @@ public class TreeBasedMultivariateRealFunction
   private final List<String> yVarNames;
   private final DoubleUnaryOperator postOperator;
   private List<Tree<Element>> trees;
+  private List<ImmutableTree<Element>> immutableTrees;
 
   public TreeBasedMultivariateRealFunction(
       List<Tree<Element>> trees,
@@ -92,7 +94,19 @@ public class TreeBasedMultivariateRealFunction
 
   @Override
   public List<Tree<Element>> getParams() {
-    return null;
+    return trees;
+  }
+
+  // memoized, since building (and hashing) the immutable trees costs as much as visiting them
+  public List<ImmutableTree<Element>> getImmutableParams() {
+    if (immutableTrees == null) {
+      immutableTrees = trees.stream().map(ImmutableTree::from).toList();
+    }
+    return immutableTrees;
+  }
+
+  public DoubleUnaryOperator getPostOperator() {
+    return postOperator;
   }
 
   @Override
@@ -102,6 +116,7 @@ public class TreeBasedMultivariateRealFunction
           .formatted(yVarNames().size(), trees.size()));
     }
     this.trees = trees;
+    immutableTrees = null;
   }
 
   @Override
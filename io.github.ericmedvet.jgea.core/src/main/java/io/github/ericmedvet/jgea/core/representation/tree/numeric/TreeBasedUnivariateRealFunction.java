@@ -20,10 +20,13 @@
 
 package io.github.ericmedvet.jgea.core.representation.tree.numeric;
 
+import io.github.ericmedvet.jgea.core.representation.BatchUnivariateRealFunction;
 import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.ImmutableTree;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jgea.core.util.Sized;
 import io.github.ericmedvet.jnb.datastructure.Parametrized;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,12 +34,13 @@ import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 public class TreeBasedUnivariateRealFunction
-    implements NamedUnivariateRealFunction, Sized, Parametrized<Tree<Element>> {
+    implements NamedUnivariateRealFunction, BatchUnivariateRealFunction, Sized, Parametrized<Tree<Element>> {
 
   private final List<String> xVarNames;
   private final String yVarName;
   private final DoubleUnaryOperator postOperator;
   private Tree<Element> tree;
+  private ImmutableTree<Element> immutableTree;
 
   public TreeBasedUnivariateRealFunction(
       Tree<Element> tree, List<String> xVarNames, String yVarName, DoubleUnaryOperator postOperator) {
@@ -82,10 +86,49 @@ public class TreeBasedUnivariateRealFunction
     return ((Element.Operator) tree.content()).applyAsDouble(childrenValues);
   }
 
+  private double[] compute(Tree<Element> tree, double[][] xColumns, int n) {
+    if (tree.content() instanceof Element.Decoration) {
+      throw new RuntimeException(String.format("Cannot compute: decoration node %s found", tree.content()));
+    }
+    if (tree.content() instanceof Element.Variable variable) {
+      int index = xVarNames.indexOf(variable.name());
+      if (index < 0) {
+        throw new RuntimeException(String.format("Undefined variable: %s", variable.name()));
+      }
+      return xColumns[index];
+    }
+    double[] values = new double[n];
+    if (tree.content() instanceof Element.Constant constant) {
+      Arrays.fill(values, constant.value());
+      return values;
+    }
+    double[][] childrenValues = new double[tree.nChildren()][];
+    for (int c = 0; c < childrenValues.length; c++) {
+      childrenValues[c] = compute(tree.child(c), xColumns, n);
+    }
+    ((Element.Operator) tree.content()).applyAsDoubles(childrenValues, values);
+    return values;
+  }
+
   public static Function<Tree<Element>, NamedUnivariateRealFunction> mapper(List<String> xVarNames, String yVarName) {
     return t -> new TreeBasedUnivariateRealFunction(t, xVarNames, yVarName);
   }
 
+  @Override
+  public double[] applyAsDoubles(double[][] xColumns) {
+    if (xColumns.length != xVarNames.size()) {
+      throw new IllegalArgumentException("Wrong number of inputs: %d expected, %d found"
+          .formatted(xVarNames.size(), xColumns.length));
+    }
+    int n = xColumns.length == 0 ? 0 : xColumns[0].length;
+    double[] values = compute(tree, xColumns, n);
+    double[] outputs = new double[n];
+    for (int i = 0; i < n; i++) {
+      outputs[i] = postOperator.applyAsDouble(values[i]);
+    }
+    return outputs;
+  }
+
   @Override
   public double computeAsDouble(Map<String, Double> input) {
     return postOperator.applyAsDouble(compute(tree, input));
@@ -96,14 +139,27 @@ public class TreeBasedUnivariateRealFunction
     return yVarName;
   }
 
+  public DoubleUnaryOperator getPostOperator() {
+    return postOperator;
+  }
+
   @Override
   public Tree<Element> getParams() {
     return tree;
   }
 
+  // memoized, since building (and hashing) the immutable tree costs as much as visiting it
+  public ImmutableTree<Element> getImmutableParams() {
+    if (immutableTree == null) {
+      immutableTree = ImmutableTree.from(tree);
+    }
+    return immutableTree;
+  }
+
   @Override
   public void setParams(Tree<Element> tree) {
     this.tree = tree;
+    immutableTree = null;
   }
 
   @Override
@@ -66,6 +66,17 @@ public abstract class AbstractPopulationBasedIterativeSolver<
 
   protected abstract I updateIndividual(I individual, T state, P problem);
 
+  // to be overridden together with immigrate()
+  protected boolean supportsImmigration() {
+    return false;
+  }
+
+  protected T immigrate(T state, Collection<I> immigrants, P problem, RandomGenerator random)
+      throws SolverException {
+    throw new UnsupportedOperationException(
+        String.format("%s does not support immigration", getClass().getSimpleName()));
+  }
+
   protected static <P extends TotalOrderQualityBasedProblem<?, Q>, I extends Individual<?, ?, Q>, Q>
       Comparator<? super I> comparator(P problem) {
     return (i1, i2) -> problem.totalOrderComparator().compare(i1.quality(), i2.quality());
@@ -169,6 +169,10 @@ public abstract class AbstractStandardEvolver<
   }
 
   protected Collection<G> buildOffspringGenotypes(T state, RandomGenerator random) {
+    return buildOffspringGenotypes(state, random, offspringSize);
+  }
+
+  protected Collection<G> buildOffspringGenotypes(T state, RandomGenerator random, int n) {
     Collection<G> offspringGenotypes = new ArrayList<>();
     Set<G> uniqueOffspringGenotypes = new HashSet<>();
     if (maxUniquenessAttempts > 0) {
@@ -177,7 +181,7 @@ public abstract class AbstractStandardEvolver<
           .toList());
     }
     int attempts = 0;
-    while (offspringGenotypes.size() < offspringSize) {
+    while (offspringGenotypes.size() < n) {
       GeneticOperator<G> operator = Misc.pickRandomly(operators, random);
       List<G> parentGenotypes = new ArrayList<>(operator.arity());
       for (int j = 0; j < operator.arity(); j++) {
@@ -207,6 +211,18 @@ public abstract class AbstractStandardEvolver<
     return init(problem, map(genotypeFactory.build(populationSize, random), List.of(), null, problem, executor));
   }
 
+  @Override
+  protected boolean supportsImmigration() {
+    return true;
+  }
+
+  @Override
+  protected T immigrate(T state, Collection<I> immigrants, P problem, RandomGenerator random) {
+    List<I> population = new ArrayList<>(state.pocPopulation().all());
+    population.addAll(immigrants);
+    return update(state, problem, trimPopulation(population, problem, random), 0, 0);
+  }
+
   protected Collection<I> trimPopulation(Collection<I> population, P problem, RandomGenerator random) {
     PartiallyOrderedCollection<I> orderedPopulation =
         new DAGPartiallyOrderedCollection<>(population, partialComparator(problem));
@@ -25,6 +25,7 @@ import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
 import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.util.SymmetricEigenSolver;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -35,9 +36,6 @@ import java.util.function.Predicate;
 import java.util.logging.Logger;
 import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
-import org.apache.commons.math3.linear.EigenDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
 
 // source -> https://arxiv.org/pdf/1604.00772.pdf
 
@@ -63,6 +61,7 @@ public class CMAEvolutionaryStrategy<S, Q>
   private final int p;
   private final double chiN;
   private final int populationSize;
+  private final SymmetricEigenSolver eigenSolver;
 
   public CMAEvolutionaryStrategy(
       Function<? super List<Double>, ? extends S> solutionMapper,
@@ -116,6 +115,7 @@ public class CMAEvolutionaryStrategy<S, Q>
     cc = (4d + muEff / p) / (p + 4d + 2 * muEff / p);
     c1 = 2 / (Math.pow((p + 1.3), 2) + muEff);
     cMu = Math.min(1 - c1, 2 * (muEff - 2 + 1 / muEff) / (Math.pow((p + 2), 2) + 2 * muEff / 2d));
+    eigenSolver = new SymmetricEigenSolver(p);
   }
 
   private record DecoratedIndividual<S, Q>(
@@ -140,12 +140,12 @@ public class CMAEvolutionaryStrategy<S, Q>
       PartiallyOrderedCollection<Individual<List<Double>, S, Q>> pocPopulation,
       List<Individual<List<Double>, S, Q>> listPopulation,
       double[] means,
-      RealMatrix C,
+      double[][] C,
       double sigma,
       double[] sEvolutionPath,
       double[] cEvolutionPath,
-      RealMatrix B,
-      RealMatrix D,
+      double[][] B,
+      double[] D,
       long lastEigenUpdateIteration)
       implements ListPopulationState<
               Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
@@ -156,6 +156,8 @@ public class CMAEvolutionaryStrategy<S, Q>
         double[] means,
         Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition) {
       int n = means.length;
+      double[] d = new double[n];
+      Arrays.fill(d, 1d);
       return new State<>(
           LocalDateTime.now(),
           0,
@@ -167,19 +169,27 @@ public class CMAEvolutionaryStrategy<S, Q>
           null,
           null,
           means,
-          MatrixUtils.createRealIdentityMatrix(n),
+          identity(n),
           0.5,
           new double[n],
           new double[n],
-          MatrixUtils.createRealIdentityMatrix(n),
-          MatrixUtils.createRealIdentityMatrix(n),
+          identity(n),
+          d,
           0);
     }
 
+    private static double[][] identity(int n) {
+      double[][] m = new double[n][n];
+      for (int i = 0; i < n; i++) {
+        m[i][i] = 1d;
+      }
+      return m;
+    }
+
     public static <S, Q> State<S, Q> from(
         State<S, Q> state,
         double[] means,
-        RealMatrix C,
+        double[][] C,
         double sigma,
         double[] sEvolutionPath,
         double[] cEvolutionPath) {
@@ -203,7 +213,7 @@ public class CMAEvolutionaryStrategy<S, Q>
           state.lastEigenUpdateIteration);
     }
 
-    public static <S, Q> State<S, Q> from(State<S, Q> state, RealMatrix B, RealMatrix D) {
+    public static <S, Q> State<S, Q> from(State<S, Q> state, double[][] B, double[] D) {
       return new State<>(
           state.startingDateTime,
           ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
@@ -277,15 +287,7 @@ public class CMAEvolutionaryStrategy<S, Q>
           throws SolverException {
     State<S, Q> state =
         State.empty(problem, unboxed(genotypeFactory.build(1, random).get(0)), stopCondition());
-    Collection<DecoratedIndividual<S, Q>> newDecoratedIndividuals;
-    try {
-      newDecoratedIndividuals = getAll(executor.invokeAll(IntStream.range(0, populationSize)
-          .mapToObj(k -> newIndividualCallable(state, problem, random))
-          .toList()));
-    } catch (InterruptedException e) {
-      throw new SolverException(e);
-    }
-    return State.from(state, newDecoratedIndividuals, comparator(problem));
+    return State.from(state, sample(state, problem, random, executor), comparator(problem));
   }
 
   @Override
@@ -310,25 +312,47 @@ public class CMAEvolutionaryStrategy<S, Q>
       cmaState = eigenDecomposition(cmaState);
     }
     // sample new population
-    final State<S, Q> finalCmaState = cmaState;
-    Collection<DecoratedIndividual<S, Q>> newDecoratedIndividuals;
+    return State.from(cmaState, sample(cmaState, problem, random, executor), comparator(problem));
+  }
+
+  private Collection<DecoratedIndividual<S, Q>> sample(
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    // the whole population is sampled as Y = Z (B D)^T, with Z drawn here on the calling thread
+    double[][] bd = new double[p][p];
+    for (int i = 0; i < p; i++) {
+      for (int j = 0; j < p; j++) {
+        bd[i][j] = state.B[i][j] * state.D[j];
+      }
+    }
+    double[][] z = new double[populationSize][];
+    double[][] y = new double[populationSize][p];
+    double[][] x = new double[populationSize][p];
+    for (int k = 0; k < populationSize; k++) {
+      z[k] = buildArray(p, random::nextGaussian);
+      for (int i = 0; i < p; i++) {
+        double[] bdi = bd[i];
+        double[] zk = z[k];
+        double yki = 0d;
+        for (int j = 0; j < p; j++) {
+          yki = yki + bdi[j] * zk[j];
+        }
+        y[k][i] = yki;
+        x[k][i] = state.means[i] + state.sigma * yki;
+      }
+    }
     try {
-      newDecoratedIndividuals = getAll(executor.invokeAll(IntStream.range(0, populationSize)
-          .mapToObj(k -> newIndividualCallable(finalCmaState, problem, random))
+      return getAll(executor.invokeAll(IntStream.range(0, populationSize)
+          .mapToObj(k -> newIndividualCallable(state, problem, z[k], y[k], x[k]))
           .toList()));
     } catch (InterruptedException e) {
       throw new SolverException(e);
     }
-    // return
-    return State.from(finalCmaState, newDecoratedIndividuals, comparator(problem));
   }
 
   private Callable<DecoratedIndividual<S, Q>> newIndividualCallable(
-      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random) {
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, double[] zK, double[] yK, double[] xK) {
     return () -> {
-      double[] zK = buildArray(p, random::nextGaussian);
-      double[] yK = state.B.preMultiply(state.D.preMultiply(zK));
-      double[] xK = sum(state.means, mult(yK, state.sigma));
       List<Double> genotype = boxed(xK);
       S solution = solutionMapper.apply(genotype);
       return new DecoratedIndividual<>(
@@ -346,15 +370,15 @@ public class CMAEvolutionaryStrategy<S, Q>
 
   private State<S, Q> eigenDecomposition(State<S, Q> state) {
     L.fine(String.format("Eigen decomposition of covariance matrix (i=%d)", state.nOfIterations()));
-    EigenDecomposition eig = new EigenDecomposition(state.C);
-    RealMatrix B = eig.getV();
-    RealMatrix D = eig.getD();
+    double[][] B = new double[p][p];
+    double[] D = new double[p];
+    eigenSolver.decompose(state.C, B, D);
     for (int i = 0; i < p; i++) {
-      if (D.getEntry(i, i) < 0) {
+      if (D[i] < 0) {
         L.warning("An eigenvalue has become negative");
-        D.setEntry(i, i, 0d);
+        D[i] = 0d;
       }
-      D.setEntry(i, i, Math.sqrt(D.getEntry(i, i)));
+      D[i] = Math.sqrt(D[i]);
     }
     return State.from(state, B, D);
   }
@@ -379,7 +403,12 @@ public class CMAEvolutionaryStrategy<S, Q>
     double[] yW = mult(diff(updatedDistributionMeans, state.means), 1d / state.sigma);
     // step size control
     double[] zM = weightedMeanArray(zMu, weights);
-    double[] bzM = state.B.preMultiply(zM);
+    double[] bzM = new double[p];
+    for (int i = 0; i < p; i++) {
+      for (int j = 0; j < p; j++) {
+        bzM[i] = bzM[i] + state.B[i][j] * zM[j];
+      }
+    }
     double[] sEvolutionPath = buildArray(
         p, i -> (1d - cSigma) * state.sEvolutionPath[i] + (Math.sqrt(cSigma * (2d - cSigma) * muEff)) * bzM[i]);
     double psNorm = norm(sEvolutionPath, 2d);
@@ -397,16 +426,25 @@ public class CMAEvolutionaryStrategy<S, Q>
     double[] cEvolutionPath = buildArray(
         p, i -> (1 - cc) * state.cEvolutionPath[i] + hSigma * Math.sqrt(cc * (2 - cc) * muEff) * yW[i]);
     double deltaH = (1 - hSigma) * cc * (2 - cc);
-    IntStream.range(0, p).forEach(i -> IntStream.range(0, i + 1).forEach(j -> {
-      double cij = (1 + c1 * deltaH - c1 - cMu) * state.C.getEntry(i, j)
-          + c1 * cEvolutionPath[i] * cEvolutionPath[j]
-          + cMu
-              * IntStream.range(0, mu)
-                  .mapToDouble(k -> weights[k] * yMu[k][i] * yMu[k][j])
-                  .sum();
-      state.C.setEntry(i, j, cij);
-      state.C.setEntry(j, i, cij);
-    }));
+    // rank-one and rank-mu updates, in place on the lower triangle and then mirrored
+    double decay = 1 + c1 * deltaH - c1 - cMu;
+    double[][] wyMu = new double[mu][p];
+    for (int k = 0; k < mu; k++) {
+      for (int i = 0; i < p; i++) {
+        wyMu[k][i] = weights[k] * yMu[k][i];
+      }
+    }
+    for (int i = 0; i < p; i++) {
+      double[] ci = state.C[i];
+      for (int j = 0; j <= i; j++) {
+        double rankMu = 0d;
+        for (int k = 0; k < mu; k++) {
+          rankMu = rankMu + wyMu[k][i] * yMu[k][j];
+        }
+        ci[j] = decay * ci[j] + c1 * cEvolutionPath[i] * cEvolutionPath[j] + cMu * rankMu;
+        state.C[j][i] = ci[j];
+      }
+    }
     return State.from(state, updatedDistributionMeans, state.C, sigma, sEvolutionPath, cEvolutionPath);
   }
 }
@@ -32,6 +32,11 @@ public interface Individual<G, S, Q> extends Serializable {
 
   long genotypeBirthIteration();
 
+  // the fraction of the full evaluation budget (e.g., cases, episode duration) used to compute the quality
+  default double fidelity() {
+    return 1d;
+  }
+
   static <G1, S1, Q1> Individual<G1, S1, Q1> of(
       G1 genotype, S1 solution, Q1 quality, long genotypeBirthIteration, long qualityMappingIteration) {
     record HardIndividual<G1, S1, Q1>(
@@ -39,4 +44,26 @@ public interface Individual<G, S, Q> extends Serializable {
         implements Individual<G1, S1, Q1> {}
     return new HardIndividual<>(genotype, solution, quality, genotypeBirthIteration, qualityMappingIteration);
   }
+
+  static <G1, S1, Q1> Individual<G1, S1, Q1> of(
+      G1 genotype,
+      S1 solution,
+      Q1 quality,
+      double fidelity,
+      long genotypeBirthIteration,
+      long qualityMappingIteration) {
+    record MultiFidelityIndividual<G1, S1, Q1>(
+        G1 genotype,
+        S1 solution,
+        Q1 quality,
+        double fidelity,
+        long genotypeBirthIteration,
+        long qualityMappingIteration)
+        implements Individual<G1, S1, Q1> {}
+    if (fidelity >= 1d) {
+      return of(genotype, solution, quality, genotypeBirthIteration, qualityMappingIteration);
+    }
+    return new MultiFidelityIndividual<>(
+        genotype, solution, quality, fidelity, genotypeBirthIteration, qualityMappingIteration);
+  }
 }
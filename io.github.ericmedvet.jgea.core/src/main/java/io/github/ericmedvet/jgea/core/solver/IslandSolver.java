@@ -0,0 +1,311 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver;
+
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class IslandSolver<
+        T extends POCPopulationState<I, G, S, Q, P>,
+        P extends QualityBasedProblem<S, Q>,
+        I extends Individual<G, S, Q>,
+        G,
+        S,
+        Q>
+    extends AbstractPopulationBasedIterativeSolver<IslandSolver.State<T, P, I, G, S, Q>, P, I, G, S, Q> {
+
+  private static final ExecutorService CALLER_RUNS_EXECUTOR = new CallerRunsExecutorService();
+  private final List<? extends AbstractPopulationBasedIterativeSolver<T, P, I, G, S, Q>> solvers;
+  private final int nOfIslands;
+  private final int migrationInterval;
+  private final int nOfMigrants;
+  private final Topology topology;
+
+  // one solver for each island, since solvers may keep state across updates (e.g., adaptive parameters)
+  public IslandSolver(
+      List<? extends AbstractPopulationBasedIterativeSolver<T, P, I, G, S, Q>> solvers,
+      Predicate<? super State<T, P, I, G, S, Q>> stopCondition,
+      int migrationInterval,
+      int nOfMigrants,
+      Topology topology) {
+    super(solvers.get(0).solutionMapper, solvers.get(0).genotypeFactory, stopCondition, false);
+    if (migrationInterval > 0 && solvers.size() > 1) {
+      for (AbstractPopulationBasedIterativeSolver<T, P, I, G, S, Q> solver : solvers) {
+        if (!solver.supportsImmigration()) {
+          throw new IllegalArgumentException("%s does not support immigration: migration interval should be 0"
+              .formatted(solver.getClass().getSimpleName()));
+        }
+      }
+    }
+    this.solvers = List.copyOf(solvers);
+    nOfIslands = solvers.size();
+    this.migrationInterval = migrationInterval;
+    this.nOfMigrants = nOfMigrants;
+    this.topology = topology;
+  }
+
+  public enum Topology {
+    RING,
+    TORUS,
+    FULLY_CONNECTED;
+
+    public List<List<Integer>> sources(int n) {
+      return IntStream.range(0, n).mapToObj(i -> sources(i, n)).toList();
+    }
+
+    private List<Integer> sources(int i, int n) {
+      Set<Integer> sources = new LinkedHashSet<>();
+      switch (this) {
+        case RING -> sources.add((i - 1 + n) % n);
+        case TORUS -> {
+          int nOfRows = (int) Math.floor(Math.sqrt(n));
+          while (n % nOfRows != 0) {
+            nOfRows = nOfRows - 1;
+          }
+          int nOfColumns = n / nOfRows;
+          int r = i / nOfColumns;
+          int c = i % nOfColumns;
+          sources.add(((r - 1 + nOfRows) % nOfRows) * nOfColumns + c);
+          sources.add(((r + 1) % nOfRows) * nOfColumns + c);
+          sources.add(r * nOfColumns + (c - 1 + nOfColumns) % nOfColumns);
+          sources.add(r * nOfColumns + (c + 1) % nOfColumns);
+        }
+        case FULLY_CONNECTED -> IntStream.range(0, n).forEach(sources::add);
+      }
+      sources.remove(i);
+      return List.copyOf(sources);
+    }
+  }
+
+  public record State<
+          T extends POCPopulationState<I, G, S, Q, P>,
+          P extends QualityBasedProblem<S, Q>,
+          I extends Individual<G, S, Q>,
+          G,
+          S,
+          Q>(
+      LocalDateTime startingDateTime,
+      long elapsedMillis,
+      long nOfIterations,
+      P problem,
+      Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+      long nOfBirths,
+      long nOfFitnessEvaluations,
+      PartiallyOrderedCollection<I> pocPopulation,
+      List<T> islandStates)
+      implements POCPopulationState<I, G, S, Q, P>,
+          io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<P, S> {
+    public static <
+            T extends POCPopulationState<I, G, S, Q, P>,
+            P extends QualityBasedProblem<S, Q>,
+            I extends Individual<G, S, Q>,
+            G,
+            S,
+            Q>
+        State<T, P, I, G, S, Q> from(
+            P problem,
+            List<T> islandStates,
+            PartialComparator<? super I> partialComparator,
+            Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition) {
+      return new State<>(
+          LocalDateTime.now(),
+          0,
+          0,
+          problem,
+          stopCondition,
+          islandStates.stream().mapToLong(POCPopulationState::nOfBirths).sum(),
+          islandStates.stream()
+              .mapToLong(POCPopulationState::nOfFitnessEvaluations)
+              .sum(),
+          merge(islandStates.stream().map(s -> s.pocPopulation().all()), partialComparator),
+          islandStates);
+    }
+
+    public static <
+            T extends POCPopulationState<I, G, S, Q, P>,
+            P extends QualityBasedProblem<S, Q>,
+            I extends Individual<G, S, Q>,
+            G,
+            S,
+            Q>
+        State<T, P, I, G, S, Q> from(
+            State<T, P, I, G, S, Q> state,
+            List<T> islandStates,
+            PartialComparator<? super I> partialComparator) {
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations() + 1,
+          state.problem,
+          state.stopCondition,
+          islandStates.stream().mapToLong(POCPopulationState::nOfBirths).sum(),
+          islandStates.stream()
+              .mapToLong(POCPopulationState::nOfFitnessEvaluations)
+              .sum(),
+          merge(islandStates.stream().map(s -> s.pocPopulation().all()), partialComparator),
+          islandStates);
+    }
+
+    private static <I> PartiallyOrderedCollection<I> merge(
+        Stream<Collection<I>> populations, PartialComparator<? super I> partialComparator) {
+      return PartiallyOrderedCollection.from(
+          populations.flatMap(Collection::stream).toList(), partialComparator);
+    }
+  }
+
+  // each island evaluates its individuals in its own thread: the parallelism is at the island level
+  private static class CallerRunsExecutorService extends AbstractExecutorService {
+    private volatile boolean shutdown = false;
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+      return true;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+  }
+
+  private interface IslandTask<T> {
+    T run(int islandIndex, RandomGenerator random) throws SolverException;
+  }
+
+  private List<T> onIslands(IslandTask<T> task, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    List<RandomGenerator> randoms = IntStream.range(0, nOfIslands)
+        .mapToObj(i -> (RandomGenerator) new Random(random.nextLong()))
+        .toList();
+    try {
+      return List.copyOf(getAll(executor.invokeAll(IntStream.range(0, nOfIslands)
+          .mapToObj(i -> (Callable<T>) () -> task.run(i, randoms.get(i)))
+          .toList())));
+    } catch (InterruptedException e) {
+      throw new SolverException(e);
+    }
+  }
+
+  private List<I> emigrants(T islandState, RandomGenerator random) {
+    List<I> emigrants = new ArrayList<>(nOfMigrants);
+    for (Collection<I> front : islandState.pocPopulation().fronts()) {
+      List<I> shuffled = new ArrayList<>(front);
+      Collections.shuffle(shuffled, new Random(random.nextLong()));
+      for (I individual : shuffled) {
+        if (emigrants.size() >= nOfMigrants) {
+          return emigrants;
+        }
+        emigrants.add(individual);
+      }
+    }
+    return emigrants;
+  }
+
+  private List<T> migrate(List<T> islandStates, P problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    List<List<I>> emigrants = islandStates.stream()
+        .map(s -> emigrants(s, random))
+        .toList();
+    List<List<Integer>> sources = topology.sources(nOfIslands);
+    return onIslands(
+        (i, r) -> {
+          List<I> immigrants = sources.get(i).stream()
+              .map(emigrants::get)
+              .flatMap(List::stream)
+              .toList();
+          return solvers.get(i).immigrate(islandStates.get(i), immigrants, problem, r);
+        },
+        random,
+        executor);
+  }
+
+  @Override
+  public State<T, P, I, G, S, Q> init(P problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    return State.from(
+        problem,
+        onIslands((i, r) -> solvers.get(i).init(problem, r, CALLER_RUNS_EXECUTOR), random, executor),
+        partialComparator(problem),
+        stopCondition());
+  }
+
+  @Override
+  public State<T, P, I, G, S, Q> update(
+      P problem, RandomGenerator random, ExecutorService executor, State<T, P, I, G, S, Q> state)
+      throws SolverException {
+    List<T> islandStates = onIslands(
+        (i, r) -> solvers.get(i).update(problem, r, CALLER_RUNS_EXECUTOR, state.islandStates().get(i)),
+        random,
+        executor);
+    if (migrationInterval > 0 && nOfIslands > 1 && (state.nOfIterations() + 1) % migrationInterval == 0) {
+      islandStates = migrate(islandStates, problem, random, executor);
+    }
+    return State.from(state, islandStates, partialComparator(problem));
+  }
+
+  @Override
+  protected I newIndividual(G genotype, State<T, P, I, G, S, Q> state, P problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  protected I updateIndividual(I individual, State<T, P, I, G, S, Q> state, P problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+}
@@ -0,0 +1,324 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// source -> https://arxiv.org/abs/1705.06693 (LM-MA-ES, algorithm 1)
+
+public class LimitedMemoryMAEvolutionaryStrategy<S, Q>
+    extends AbstractPopulationBasedIterativeSolver<
+        ListPopulationState<
+            Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+        TotalOrderQualityBasedProblem<S, Q>,
+        Individual<List<Double>, S, Q>,
+        List<Double>,
+        S,
+        Q> {
+
+  private final int mu;
+  private final double[] weights;
+  private final double muEff;
+  private final double cSigma;
+  private final double[] cd;
+  private final double[] cc;
+  private final int p;
+  private final int nOfDirections;
+  private final int populationSize;
+
+  public LimitedMemoryMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition) {
+    this(
+        solutionMapper,
+        genotypeFactory,
+        stopCondition,
+        genotypeFactory.build(1, new Random(0)).get(0).size());
+  }
+
+  private LimitedMemoryMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition,
+      int p) {
+    super(solutionMapper, genotypeFactory, stopCondition, false);
+    this.p = p;
+    populationSize = 4 + (int) Math.floor(3 * Math.log(p));
+    nOfDirections = 4 + (int) Math.floor(3 * Math.log(p));
+    // selection and recombination
+    mu = (int) Math.floor(populationSize / 2d);
+    double[] unnormalizedWeights = buildArray(mu, i -> Math.log((populationSize + 1) / 2d) - Math.log(i + 1));
+    double sumOfWeights = Arrays.stream(unnormalizedWeights).sum();
+    double sumOfSquaredWeights =
+        Arrays.stream(mult(unnormalizedWeights, unnormalizedWeights)).sum();
+    weights = mult(unnormalizedWeights, 1d / sumOfWeights);
+    muEff = Math.pow(sumOfWeights, 2) / sumOfSquaredWeights;
+    // learning rates are meant for large p: they are capped at 1 for small p
+    cSigma = Math.min(1d, 2d * populationSize / p);
+    cd = buildArray(nOfDirections, j -> Math.min(1d, 1d / (Math.pow(1.5, j) * p)));
+    cc = buildArray(nOfDirections, j -> Math.min(1d, populationSize / (Math.pow(4, j) * p)));
+  }
+
+  private record DecoratedIndividual<S, Q>(
+      List<Double> genotype,
+      S solution,
+      Q quality,
+      long qualityMappingIteration,
+      long genotypeBirthIteration,
+      double[] z,
+      double[] d)
+      implements Individual<List<Double>, S, Q> {}
+
+  private record State<S, Q>(
+      LocalDateTime startingDateTime,
+      long elapsedMillis,
+      long nOfIterations,
+      TotalOrderQualityBasedProblem<S, Q> problem,
+      Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+      long nOfBirths,
+      long nOfFitnessEvaluations,
+      PartiallyOrderedCollection<Individual<List<Double>, S, Q>> pocPopulation,
+      List<Individual<List<Double>, S, Q>> listPopulation,
+      double[] means,
+      double sigma,
+      double[] sEvolutionPath,
+      double[][] directions)
+      implements ListPopulationState<
+              Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+          io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<
+              TotalOrderQualityBasedProblem<S, Q>, S> {
+    public static <S, Q> State<S, Q> empty(
+        TotalOrderQualityBasedProblem<S, Q> problem,
+        double[] means,
+        int nOfDirections,
+        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition) {
+      int n = means.length;
+      return new State<>(
+          LocalDateTime.now(),
+          0,
+          0,
+          problem,
+          stopCondition,
+          0,
+          0,
+          null,
+          null,
+          means,
+          0.5,
+          new double[n],
+          new double[nOfDirections][n]);
+    }
+
+    public static <S, Q> State<S, Q> from(
+        State<S, Q> state, double[] means, double sigma, double[] sEvolutionPath, double[][] directions) {
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths,
+          state.nOfFitnessEvaluations,
+          state.pocPopulation,
+          state.listPopulation,
+          means,
+          sigma,
+          sEvolutionPath,
+          directions);
+    }
+
+    public static <S, Q> State<S, Q> from(
+        State<S, Q> state,
+        Collection<DecoratedIndividual<S, Q>> individuals,
+        Comparator<? super Individual<List<Double>, S, Q>> comparator) {
+      //noinspection unchecked,rawtypes
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations + 1,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths + individuals.size(),
+          state.nOfFitnessEvaluations + individuals.size(),
+          PartiallyOrderedCollection.from((Collection) individuals, comparator),
+          individuals.stream()
+              .map(i -> (Individual<List<Double>, S, Q>) i)
+              .sorted(comparator)
+              .toList(),
+          state.means,
+          state.sigma,
+          state.sEvolutionPath,
+          state.directions);
+    }
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> newIndividual(
+      List<Double> genotype,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> updateIndividual(
+      Individual<List<Double>, S, Q> individual,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      init(TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+          throws SolverException {
+    State<S, Q> state = State.empty(
+        problem, unboxed(genotypeFactory.build(1, random).get(0)), nOfDirections, stopCondition());
+    return State.from(state, sample(state, problem, random, executor), comparator(problem));
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      update(
+          TotalOrderQualityBasedProblem<S, Q> problem,
+          RandomGenerator random,
+          ExecutorService executor,
+          ListPopulationState<
+                  Individual<List<Double>, S, Q>,
+                  List<Double>,
+                  S,
+                  Q,
+                  TotalOrderQualityBasedProblem<S, Q>>
+              state)
+          throws SolverException {
+    State<S, Q> lmState = updateDistribution((State<S, Q>) state, problem);
+    return State.from(lmState, sample(lmState, problem, random, executor), comparator(problem));
+  }
+
+  private Collection<DecoratedIndividual<S, Q>> sample(
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    // noise is drawn here, as the random generator is not meant to be shared among threads
+    List<Callable<DecoratedIndividual<S, Q>>> callables = IntStream.range(0, populationSize)
+        .mapToObj(k -> newIndividualCallable(state, problem, buildArray(p, random::nextGaussian)))
+        .toList();
+    try {
+      return getAll(executor.invokeAll(callables));
+    } catch (InterruptedException e) {
+      throw new SolverException(e);
+    }
+  }
+
+  private Callable<DecoratedIndividual<S, Q>> newIndividualCallable(
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, double[] zK) {
+    return () -> {
+      // d = product of (1 - cd_j) I + cd_j m_j m_j^T applied to z, with O(p) cost per direction
+      double[] dK = Arrays.copyOf(zK, p);
+      int nOfActiveDirections = (int) Math.min(state.nOfIterations, nOfDirections);
+      for (int j = 0; j < nOfActiveDirections; j++) {
+        double[] mj = state.directions[j];
+        double dot = 0;
+        for (int i = 0; i < p; i++) {
+          dot = dot + mj[i] * dK[i];
+        }
+        for (int i = 0; i < p; i++) {
+          dK[i] = (1 - cd[j]) * dK[i] + cd[j] * mj[i] * dot;
+        }
+      }
+      double[] xK = buildArray(p, i -> state.means[i] + state.sigma * dK[i]);
+      List<Double> genotype = boxed(xK);
+      S solution = solutionMapper.apply(genotype);
+      return new DecoratedIndividual<>(
+          genotype,
+          solution,
+          problem.qualityFunction().apply(solution),
+          state.nOfIterations,
+          state.nOfIterations,
+          zK,
+          dK);
+    };
+  }
+
+  private State<S, Q> updateDistribution(State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem) {
+    // best mu ranked points
+    List<DecoratedIndividual<S, Q>> bestMuIndividuals = state.listPopulation.stream()
+        .sorted(comparator(problem))
+        .map(i -> (DecoratedIndividual<S, Q>) i)
+        .limit(mu)
+        .toList();
+    double[][] dMu = new double[mu][];
+    double[][] zMu = new double[mu][];
+    for (int i = 0; i < mu; i++) {
+      dMu[i] = bestMuIndividuals.get(i).d;
+      zMu[i] = bestMuIndividuals.get(i).z;
+    }
+    // selection and recombination
+    double[] dW = weightedMeanArray(dMu, weights);
+    double[] zW = weightedMeanArray(zMu, weights);
+    double[] updatedDistributionMeans = buildArray(p, i -> state.means[i] + state.sigma * dW[i]);
+    // step size control
+    double[] sEvolutionPath = buildArray(
+        p, i -> (1d - cSigma) * state.sEvolutionPath[i] + Math.sqrt(muEff * cSigma * (2d - cSigma)) * zW[i]);
+    double psSquaredNorm = Arrays.stream(sEvolutionPath).map(v -> v * v).sum();
+    double sigma = state.sigma * Math.exp(cSigma / 2d * (psSquaredNorm / p - 1d));
+    // update of the directions, each one with its own learning rate
+    double[][] directions = new double[nOfDirections][];
+    for (int j = 0; j < nOfDirections; j++) {
+      double[] mj = state.directions[j];
+      double a = 1 - cc[j];
+      double b = Math.sqrt(muEff * cc[j] * (2 - cc[j]));
+      directions[j] = buildArray(p, i -> a * mj[i] + b * zW[i]);
+    }
+    return State.from(state, updatedDistributionMeans, sigma, sEvolutionPath, directions);
+  }
+}
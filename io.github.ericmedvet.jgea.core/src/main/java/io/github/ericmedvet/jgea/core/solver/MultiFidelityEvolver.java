@@ -0,0 +1,198 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.operator.GeneticOperator;
+import io.github.ericmedvet.jgea.core.order.DAGPartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.MultiFidelityProblem;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.selector.Selector;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+
+/**
+ * A standard evolver where offspring undergo successive halving: they are first evaluated at the lowest fidelity
+ * and only the best {@code 1/eta} of them are promoted to the next, {@code eta} times higher, fidelity, up to the
+ * full fidelity. Only fully evaluated offspring may enter the population. The number of fitness evaluations in the
+ * state is measured in full-fidelity equivalents. If the problem does not support reduced fidelity, all offspring
+ * are evaluated once at full fidelity.
+ */
+public class MultiFidelityEvolver<G, S, Q> extends StandardEvolver<G, S, Q> {
+
+  private static final Logger L = Logger.getLogger(MultiFidelityEvolver.class.getName());
+  private final double eta;
+  private final int nOfRungs;
+
+  public MultiFidelityEvolver(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      int populationSize,
+      Predicate<? super POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>>>
+          stopCondition,
+      Map<GeneticOperator<G>, Double> operators,
+      Selector<? super Individual<G, S, Q>> parentSelector,
+      Selector<? super Individual<G, S, Q>> unsurvivalSelector,
+      int offspringSize,
+      boolean overlapping,
+      int maxUniquenessAttempts,
+      boolean remap,
+      double eta,
+      int nOfRungs) {
+    super(
+        solutionMapper,
+        genotypeFactory,
+        populationSize,
+        stopCondition,
+        operators,
+        parentSelector,
+        unsurvivalSelector,
+        offspringSize,
+        overlapping,
+        maxUniquenessAttempts,
+        remap);
+    if (eta <= 1d) {
+      throw new IllegalArgumentException("Eta should be greater than 1: %f found".formatted(eta));
+    }
+    if (nOfRungs < 1) {
+      throw new IllegalArgumentException("Number of rungs should be at least 1: %d found".formatted(nOfRungs));
+    }
+    if (!overlapping && Math.ceil(offspringSize / Math.pow(eta, nOfRungs - 1)) < populationSize) {
+      throw new IllegalArgumentException(
+          "Without overlapping, the fully evaluated offspring should be at least as many as the population");
+    }
+    this.eta = eta;
+    this.nOfRungs = nOfRungs;
+  }
+
+  /**
+   * Compares individuals by quality if they have the same fidelity; otherwise, the one with the higher fidelity
+   * comes first if its quality is not worse, and the two are not comparable if it is worse.
+   */
+  public static <I extends Individual<?, ?, Q>, Q> PartialComparator<I> fidelityAwarePartialComparator(
+      PartialComparator<? super Q> qualityComparator) {
+    return (i1, i2) -> {
+      PartialComparator.PartialComparatorOutcome outcome = qualityComparator.compare(i1.quality(), i2.quality());
+      if (i1.fidelity() == i2.fidelity()) {
+        return outcome;
+      }
+      if (i1.fidelity() > i2.fidelity()) {
+        return outcome.equals(PartialComparator.PartialComparatorOutcome.AFTER)
+            ? PartialComparator.PartialComparatorOutcome.NOT_COMPARABLE
+            : PartialComparator.PartialComparatorOutcome.BEFORE;
+      }
+      return outcome.equals(PartialComparator.PartialComparatorOutcome.BEFORE)
+          ? PartialComparator.PartialComparatorOutcome.NOT_COMPARABLE
+          : PartialComparator.PartialComparatorOutcome.AFTER;
+    };
+  }
+
+  private List<Individual<G, S, Q>> best(
+      Collection<Individual<G, S, Q>> individuals, int n, PartialComparator<? super Q> qualityComparator) {
+    DAGPartiallyOrderedCollection<Individual<G, S, Q>> poc =
+        new DAGPartiallyOrderedCollection<>(individuals, fidelityAwarePartialComparator(qualityComparator));
+    List<Individual<G, S, Q>> best = new ArrayList<>(n);
+    while (best.size() < n && poc.size() > 0) {
+      List<Individual<G, S, Q>> firsts = List.copyOf(poc.firsts());
+      firsts.stream().limit(n - best.size()).forEach(best::add);
+      firsts.forEach(poc::remove);
+    }
+    return best;
+  }
+
+  private List<Individual<G, S, Q>> evaluate(
+      List<Callable<Individual<G, S, Q>>> callables, ExecutorService executor) throws SolverException {
+    try {
+      return List.copyOf(getAll(executor.invokeAll(callables)));
+    } catch (InterruptedException e) {
+      throw new SolverException(e);
+    }
+  }
+
+  public double fidelity(int rung) {
+    return Math.pow(eta, rung - nOfRungs + 1);
+  }
+
+  @Override
+  public POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> update(
+      QualityBasedProblem<S, Q> problem,
+      RandomGenerator random,
+      ExecutorService executor,
+      POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> state)
+      throws SolverException {
+    MultiFidelityProblem<S, Q> multiFidelityProblem = MultiFidelityProblem.from(problem);
+    Collection<G> offspringGenotypes = buildOffspringGenotypes(state, random);
+    int nOfNewBirths = offspringGenotypes.size();
+    long iteration = state.nOfIterations();
+    double cost = 0d;
+    List<Individual<G, S, Q>> offspring = List.of();
+    // without fidelity support, halving would cost full evaluations at every rung: use just the last one
+    int firstRung = multiFidelityProblem.supportsFidelity() ? 0 : (nOfRungs - 1);
+    for (int rung = firstRung; rung < nOfRungs; rung = rung + 1) {
+      double fidelity = fidelity(rung);
+      Function<S, Q> qualityFunction = multiFidelityProblem.qualityFunction(fidelity);
+      List<Callable<Individual<G, S, Q>>> callables;
+      if (rung == firstRung) {
+        callables = offspringGenotypes.stream()
+            .map(g -> (Callable<Individual<G, S, Q>>) () -> {
+              S solution = solutionMapper.apply(g);
+              return Individual.of(g, solution, qualityFunction.apply(solution), fidelity, iteration, iteration);
+            })
+            .toList();
+      } else {
+        int n = (int) Math.ceil(nOfNewBirths / Math.pow(eta, rung));
+        callables = best(offspring, n, problem.qualityComparator()).stream()
+            .map(i -> (Callable<Individual<G, S, Q>>) () -> Individual.of(
+                i.genotype(),
+                i.solution(),
+                qualityFunction.apply(i.solution()),
+                fidelity,
+                iteration,
+                iteration))
+            .toList();
+      }
+      offspring = evaluate(callables, executor);
+      cost = cost + offspring.size() * fidelity;
+      L.fine(String.format("Rung %d: %d offspring evaluated at fidelity %.3f", rung, offspring.size(), fidelity));
+    }
+    Collection<Individual<G, S, Q>> newPopulation = new ArrayList<>(offspring);
+    if (overlapping) {
+      newPopulation.addAll(map(List.of(), state.pocPopulation().all(), state, problem, executor));
+      cost = cost + (remap ? state.pocPopulation().size() : 0);
+    }
+    newPopulation = trimPopulation(newPopulation, problem, random);
+    return POCState.from(
+        (POCState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>>) state,
+        nOfNewBirths,
+        Math.round(cost),
+        PartiallyOrderedCollection.from(newPopulation, partialComparator(problem)));
+  }
+}
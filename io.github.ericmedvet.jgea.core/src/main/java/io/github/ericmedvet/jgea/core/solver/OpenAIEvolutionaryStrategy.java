@@ -25,9 +25,12 @@ import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
 import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
-import io.github.ericmedvet.jgea.core.representation.sequence.FixedLengthListFactory;
+import io.github.ericmedvet.jgea.core.util.NoiseTable;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -37,7 +40,6 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 // https://bacrobotics.com/
 // https://github.com/snolfi/evorobotpy2/blob/master/bin/openaies.py
@@ -53,9 +55,13 @@ public class OpenAIEvolutionaryStrategy<S, Q>
         S,
         Q> {
 
-  private final int batchSize;
+  private static final int MIN_NOISE_TABLE_SIZE = 1 << 20;
+  private static final long NOISE_TABLE_SEED = 0;
 
-  private final FixedLengthListFactory<Double> gaussianSamplesFactory;
+  private final int batchSize;
+  private final double sigma;
+  private final int p;
+  private final NoiseTable noiseTable;
 
   public OpenAIEvolutionaryStrategy(
       Function<? super List<Double>, ? extends S> solutionMapper,
@@ -71,10 +77,59 @@ public class OpenAIEvolutionaryStrategy<S, Q>
           stopCondition,
       int batchSize,
       double sigma) {
+    this(solutionMapper, genotypeFactory, stopCondition, batchSize, sigma, 0);
+  }
+
+  public OpenAIEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition,
+      int batchSize,
+      double sigma,
+      int noiseTableSize) {
     super(solutionMapper, genotypeFactory, stopCondition, false);
     this.batchSize = batchSize;
-    int p = genotypeFactory.build(1, new Random(0)).get(0).size();
-    gaussianSamplesFactory = new FixedLengthListFactory<>(p, r -> r.nextGaussian() * sigma);
+    this.sigma = sigma;
+    p = genotypeFactory.build(1, new Random(0)).get(0).size();
+    noiseTable = NoiseTable.shared(
+        noiseTableSize > 0 ? noiseTableSize : Math.max(MIN_NOISE_TABLE_SIZE, 16 * p), NOISE_TABLE_SEED);
+  }
+
+  // genotype of a perturbed point: elements are read on the fly from the center and the shared noise table
+  private static class PerturbedGenotype extends AbstractList<Double> implements Serializable {
+    private final double[] center;
+    private final transient NoiseTable noiseTable;
+    private final int offset;
+    private final double scale;
+
+    private PerturbedGenotype(double[] center, NoiseTable noiseTable, int offset, double scale) {
+      this.center = center;
+      this.noiseTable = noiseTable;
+      this.offset = offset;
+      this.scale = scale;
+    }
+
+    @Override
+    public Double get(int index) {
+      return center[index] + scale * noiseTable.get(offset + index);
+    }
+
+    @Override
+    public int size() {
+      return center.length;
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(this);
+    }
   }
 
   public record State<S, Q>(
@@ -203,25 +258,19 @@ public class OpenAIEvolutionaryStrategy<S, Q>
           throws SolverException {
     // see https://bacrobotics.com/ section 6.2.2
     State<S, Q> esState = (State<S, Q>) state;
-    // produce noise vectors
-    List<List<Double>> samples = IntStream.range(0, batchSize)
-        .mapToObj(i -> gaussianSamplesFactory.build(random))
-        .toList();
+    // pick perturbations as offsets in the noise table
+    int[] offsets = IntStream.range(0, batchSize)
+        .map(i -> noiseTable.randomOffset(random, p))
+        .toArray();
     // evaluates scores (ie., map genotypes to individuals)
-    List<List<Double>> plusGenotypes =
-        samples.stream().map(s -> sum(s, esState.center)).toList();
-    List<List<Double>> minusGenotypes =
-        samples.stream().map(s -> sum(mult(s, -1), esState.center)).toList();
-    List<Individual<List<Double>, S, Q>> newIndividuals = map(
-            Stream.of(plusGenotypes, minusGenotypes)
-                .flatMap(List::stream)
-                .toList(),
-            List.of(),
-            state,
-            problem,
-            executor)
-        .stream()
-        .toList();
+    List<List<Double>> genotypes = new ArrayList<>(2 * batchSize);
+    for (double scale : new double[] {sigma, -sigma}) {
+      for (int offset : offsets) {
+        genotypes.add(new PerturbedGenotype(esState.center, noiseTable, offset, scale));
+      }
+    }
+    List<Individual<List<Double>, S, Q>> newIndividuals =
+        map(genotypes, List.of(), state, problem, executor).stream().toList();
     // compute normalized ranks
     Comparator<Integer> integerComparator =
         partialComparator(problem).comparing(newIndividuals::get).comparator();
@@ -230,10 +279,19 @@ public class OpenAIEvolutionaryStrategy<S, Q>
         .sorted(integerComparator)
         .map(i -> (double) i / (double) (newIndividuals.size() - 1) - 0.5d)
         .toList();
-    // compute estimated gradient
-    double[] g = unboxed(meanList(IntStream.range(0, normalizedRanks.size())
-        .mapToObj(i -> mult(diff(newIndividuals.get(i).genotype(), esState.center), normalizedRanks.get(i)))
-        .toList()));
+    // compute estimated gradient, accumulating it in place from the noise table
+    double[] g = new double[esState.center.length];
+    for (int i = 0; i < newIndividuals.size(); i++) {
+      double weight = normalizedRanks.get(i) / (double) newIndividuals.size();
+      if (newIndividuals.get(i).genotype() instanceof PerturbedGenotype perturbedGenotype) {
+        noiseTable.addTo(g, perturbedGenotype.offset, weight * perturbedGenotype.scale);
+      } else {
+        List<Double> genotype = newIndividuals.get(i).genotype();
+        for (int j = 0; j < g.length; j++) {
+          g[j] = g[j] + weight * (genotype.get(j) - esState.center[j]);
+        }
+      }
+    }
     // optimize with adam (see https://en.wikipedia.org/wiki/Stochastic_gradient_descent#Adam)
     double[] m = sum(mult(esState.m, esState.beta1), mult(g, 1 - esState.beta1));
     double[] v = sum(mult(esState.v, esState.beta2), mult(mult(g, g), 1d - esState.beta2));
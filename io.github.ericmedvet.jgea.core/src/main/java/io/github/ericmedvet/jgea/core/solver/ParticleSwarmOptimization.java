@@ -17,19 +17,22 @@
  * limitations under the License.
  * =========================LICENSE_END==================================
  */
+
 package io.github.ericmedvet.jgea.core.solver;
 
-import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.rowView;
 
 import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
@@ -50,10 +53,13 @@ public class ParticleSwarmOptimization<S, Q>
         S,
         Q> {
 
+  private static final int CHUNKS_PER_PROCESSOR = 4;
+
   private final int populationSize;
   private final double w; // dumping coefficient
   private final double phiParticle;
-  private final double phiGlobal;
+  private final double phiGlobal; // weight of the best known position in the neighborhood
+  private final Topology topology;
 
   public ParticleSwarmOptimization(
       Function<? super List<Double>, ? extends S> solutionMapper,
@@ -70,12 +76,62 @@ public class ParticleSwarmOptimization<S, Q>
       int populationSize,
       double w,
       double phiParticle,
-      double phiGlobal) {
+      double phiGlobal,
+      Topology topology) {
     super(solutionMapper, genotypeFactory, stopCondition, false);
     this.populationSize = populationSize;
     this.w = w;
     this.phiParticle = phiParticle;
     this.phiGlobal = phiGlobal;
+    this.topology = topology;
+  }
+
+  public ParticleSwarmOptimization(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      PSOIndividual<S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition,
+      int populationSize,
+      double w,
+      double phiParticle,
+      double phiGlobal) {
+    this(solutionMapper, genotypeFactory, stopCondition, populationSize, w, phiParticle, phiGlobal, Topology.GLOBAL);
+  }
+
+  public enum Topology {
+    GLOBAL,
+    RING,
+    VON_NEUMANN;
+
+    private int[] neighbors(int i, int n) {
+      return switch (this) {
+        case GLOBAL -> throw new UnsupportedOperationException("The global topology has no explicit neighbors");
+        case RING -> new int[] {(i - 1 + n) % n, i, (i + 1) % n};
+        case VON_NEUMANN -> {
+          // particles on a toroidal grid; cells of the last row beyond n are skipped
+          int nOfColumns = (int) Math.ceil(Math.sqrt(n));
+          int nOfRows = (int) Math.ceil((double) n / (double) nOfColumns);
+          int r = i / nOfColumns;
+          int c = i % nOfColumns;
+          yield Arrays.stream(new int[] {
+                i,
+                ((r - 1 + nOfRows) % nOfRows) * nOfColumns + c,
+                ((r + 1) % nOfRows) * nOfColumns + c,
+                r * nOfColumns + (c - 1 + nOfColumns) % nOfColumns,
+                r * nOfColumns + (c + 1) % nOfColumns
+              })
+              .filter(j -> j < n)
+              .toArray();
+        }
+      };
+    }
   }
 
   public interface PSOIndividual<S, Q> extends Individual<List<Double>, S, Q> {
@@ -130,7 +186,12 @@ public class ParticleSwarmOptimization<S, Q>
       long nOfFitnessEvaluations,
       PartiallyOrderedCollection<PSOIndividual<S, Q>> pocPopulation,
       List<PSOIndividual<S, Q>> listPopulation,
-      PSOIndividual<S, Q> knownBest)
+      PSOIndividual<S, Q> knownBest,
+      int p,
+      double[] positions,
+      double[] velocities,
+      double[] bestKnownPositions,
+      List<Q> bestKnownQualities)
       implements ListPopulationState<
               PSOIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
           io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<
@@ -139,9 +200,13 @@ public class ParticleSwarmOptimization<S, Q>
         State<S, Q> state,
         int nOfBirths,
         int nOfFitnessEvaluations,
-        Collection<PSOIndividual<S, Q>> listPopulation,
+        List<PSOIndividual<S, Q>> listPopulation,
         PSOIndividual<S, Q> knownBest,
-        Comparator<? super PSOIndividual<S, Q>> comparator) {
+        Comparator<? super PSOIndividual<S, Q>> comparator,
+        double[] positions,
+        double[] velocities,
+        double[] bestKnownPositions,
+        List<Q> bestKnownQualities) {
       return new State<>(
           state.startingDateTime,
           ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
@@ -151,17 +216,26 @@ public class ParticleSwarmOptimization<S, Q>
           state.nOfBirths() + nOfBirths,
           state.nOfFitnessEvaluations() + nOfFitnessEvaluations,
           PartiallyOrderedCollection.from(listPopulation, comparator),
-          listPopulation.stream().sorted(comparator).toList(),
-          knownBest);
+          listPopulation,
+          knownBest,
+          state.p,
+          positions,
+          velocities,
+          bestKnownPositions,
+          bestKnownQualities);
     }
 
     public static <S, Q> State<S, Q> from(
         TotalOrderQualityBasedProblem<S, Q> problem,
-        Collection<PSOIndividual<S, Q>> listPopulation,
+        List<PSOIndividual<S, Q>> listPopulation,
+        PSOIndividual<S, Q> knownBest,
         Comparator<? super PSOIndividual<S, Q>> comparator,
-        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition) {
-      List<PSOIndividual<S, Q>> list =
-          listPopulation.stream().sorted(comparator).toList();
+        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+        int p,
+        double[] positions,
+        double[] velocities,
+        double[] bestKnownPositions,
+        List<Q> bestKnownQualities) {
       return new State<>(
           LocalDateTime.now(),
           0,
@@ -171,48 +245,103 @@ public class ParticleSwarmOptimization<S, Q>
           listPopulation.size(),
           listPopulation.size(),
           PartiallyOrderedCollection.from(listPopulation, comparator),
-          listPopulation.stream().sorted(comparator).toList(),
-          list.get(0));
+          listPopulation,
+          knownBest,
+          p,
+          positions,
+          velocities,
+          bestKnownPositions,
+          bestKnownQualities);
+    }
+  }
+
+  private static <T> T best(Collection<T> ts, Comparator<? super T> comparator) {
+    return ts.stream().min(comparator).orElseThrow();
+  }
+
+  private List<int[]> chunks(int n) {
+    int nOfChunks = Math.min(n, CHUNKS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    List<int[]> chunks = new ArrayList<>(nOfChunks);
+    for (int c = 0; c < nOfChunks; c++) {
+      chunks.add(new int[] {c * n / nOfChunks, (c + 1) * n / nOfChunks});
     }
+    return chunks;
+  }
+
+  private int[] neighborhoodBests(List<Q> bestKnownQualities, Comparator<? super Q> comparator) {
+    int n = bestKnownQualities.size();
+    int[] bests = new int[n];
+    if (topology.equals(Topology.GLOBAL)) {
+      int best = 0;
+      for (int i = 1; i < n; i++) {
+        if (comparator.compare(bestKnownQualities.get(i), bestKnownQualities.get(best)) < 0) {
+          best = i;
+        }
+      }
+      Arrays.fill(bests, best);
+      return bests;
+    }
+    for (int i = 0; i < n; i++) {
+      int best = i;
+      for (int j : topology.neighbors(i, n)) {
+        if (comparator.compare(bestKnownQualities.get(j), bestKnownQualities.get(best)) < 0) {
+          best = j;
+        }
+      }
+      bests[i] = best;
+    }
+    return bests;
   }
 
   @Override
   public ListPopulationState<PSOIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>> init(
       TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
       throws SolverException {
-    // init positions
-    List<? extends List<Double>> positions = genotypeFactory.build(populationSize, random);
-    double min = positions.stream()
-        .flatMap(List::stream)
-        .mapToDouble(v -> v)
-        .min()
-        .orElseThrow();
-    double max = positions.stream()
-        .flatMap(List::stream)
-        .mapToDouble(v -> v)
-        .max()
-        .orElseThrow();
+    // init positions and velocities
+    List<? extends List<Double>> genotypes = genotypeFactory.build(populationSize, random);
+    int p = genotypes.get(0).size();
+    double[] positions = new double[populationSize * p];
+    for (int i = 0; i < populationSize; i++) {
+      for (int d = 0; d < p; d++) {
+        positions[i * p + d] = genotypes.get(i).get(d);
+      }
+    }
+    double min = Arrays.stream(positions).min().orElseThrow();
+    double max = Arrays.stream(positions).max().orElseThrow();
+    double[] velocities = new double[populationSize * p];
+    for (int j = 0; j < velocities.length; j++) {
+      velocities[j] = random.nextDouble(-(max - min), max - min);
+    }
+    double[] bestKnownPositions = positions.clone();
+    // evaluate by chunks
     try {
-      Collection<PSOIndividual<S, Q>> individuals = getAll(executor.invokeAll(positions.stream()
-          .map(p -> {
-            RandomGenerator localRandomGenerator = new Random(random.nextLong());
-            localRandomGenerator.nextDouble(); // because the first double is always around 0.7
-            return (Callable<PSOIndividual<S, Q>>) () -> {
-              S s = solutionMapper.apply(p);
+      List<Callable<List<PSOIndividual<S, Q>>>> callables = chunks(populationSize).stream()
+          .map(chunk -> (Callable<List<PSOIndividual<S, Q>>>) () -> {
+            List<PSOIndividual<S, Q>> individuals = new ArrayList<>(chunk[1] - chunk[0]);
+            for (int i = chunk[0]; i < chunk[1]; i++) {
+              List<Double> position = rowView(positions, i * p, p);
+              S s = solutionMapper.apply(position);
               Q q = problem.qualityFunction().apply(s);
-              return PSOIndividual.of(
-                  p,
-                  buildList(p.size(), () -> localRandomGenerator.nextDouble(-(max - min), max - min)),
-                  p,
-                  q,
-                  s,
-                  q,
-                  0,
-                  0);
-            };
+              individuals.add(PSOIndividual.of(
+                  position, rowView(velocities, i * p, p), position, q, s, q, 0, 0));
+            }
+            return individuals;
           })
-          .toList()));
-      return State.from(problem, individuals, comparator(problem), stopCondition());
+          .toList();
+      List<PSOIndividual<S, Q>> individuals = getAll(executor.invokeAll(callables)).stream()
+          .flatMap(List::stream)
+          .toList();
+      return State.from(
+          problem,
+          individuals,
+          best(individuals, comparator(problem)),
+          comparator(problem),
+          stopCondition(),
+          p,
+          positions,
+          velocities,
+          bestKnownPositions,
+          individuals.stream().map(PSOIndividual::quality).toList());
     } catch (InterruptedException e) {
       throw new SolverException(e);
     }
@@ -225,57 +354,79 @@ public class ParticleSwarmOptimization<S, Q>
       ExecutorService executor,
       ListPopulationState<PSOIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>> state)
       throws SolverException {
-    PSOIndividual<S, Q> knownBest = ((State<S, Q>) state).knownBest();
-    List<Double> globalBestPosition = knownBest.position();
+    State<S, Q> psoState = (State<S, Q>) state;
+    int p = psoState.p;
+    int n = psoState.listPopulation.size();
+    // neighborhood bests are computed on the previous personal bests (synchronous update)
+    int[] neighborhoodBests = neighborhoodBests(psoState.bestKnownQualities, problem.totalOrderComparator());
+    double[] oldBestKnownPositions = psoState.bestKnownPositions;
+    double[] positions = psoState.positions.clone();
+    double[] velocities = psoState.velocities.clone();
+    double[] bestKnownPositions = oldBestKnownPositions.clone();
+    List<Q> bestKnownQualities = new ArrayList<>(psoState.bestKnownQualities);
+    // coefficients are drawn upfront, so that the outcome does not depend on how particles are chunked
+    double[] coefficients = new double[2 * n];
+    for (int i = 0; i < n; i++) {
+      coefficients[2 * i] = random.nextDouble() * phiParticle;
+      coefficients[2 * i + 1] = random.nextDouble() * phiGlobal;
+    }
     try {
-      Collection<PSOIndividual<S, Q>> individuals = getAll(executor.invokeAll(((State<S, Q>) state)
-          .listPopulation.stream()
-              .map(i -> {
-                RandomGenerator localRandomGenerator = new Random(random.nextLong());
-                localRandomGenerator.nextDouble(); // because the first double is always around 0.73
-                return (Callable<PSOIndividual<S, Q>>) () -> {
-                  double rParticle = localRandomGenerator.nextDouble();
-                  double rGlobal = localRandomGenerator.nextDouble();
-                  List<Double> vVel = mult(i.velocity(), w);
-                  List<Double> vParticle =
-                      mult(diff(i.bestKnownPosition(), i.position()), rParticle * phiParticle);
-                  List<Double> vGlobal =
-                      mult(diff(globalBestPosition, i.position()), rGlobal * phiGlobal);
-                  List<Double> newVelocity = sum(vVel, vParticle, vGlobal);
-                  List<Double> newPosition = sum(i.position(), newVelocity);
-                  S newSolution = solutionMapper.apply(newPosition);
-                  Q newQuality = problem.qualityFunction().apply(newSolution);
-                  List<Double> newBestKnownPosition = i.bestKnownPosition();
-                  Q newBestKnownQuality = i.bestKnownQuality();
-                  if (problem.totalOrderComparator().compare(newQuality, i.quality()) < 0) {
-                    newBestKnownPosition = newPosition;
-                    newBestKnownQuality = newQuality;
-                  }
-                  return PSOIndividual.of(
-                      newPosition,
-                      newVelocity,
-                      newBestKnownPosition,
-                      newBestKnownQuality,
-                      newSolution,
-                      newQuality,
-                      state.nOfIterations(),
-                      state.nOfIterations());
-                };
-              })
-              .toList()));
-      List<PSOIndividual<S, Q>> sortedIndividuals =
-          individuals.stream().sorted(comparator(problem)).toList();
-
-      if (comparator(problem).compare(sortedIndividuals.get(0), knownBest) < 0) {
-        knownBest = sortedIndividuals.get(0);
+      List<Callable<List<PSOIndividual<S, Q>>>> callables = chunks(n).stream()
+          .map(chunk -> (Callable<List<PSOIndividual<S, Q>>>) () -> {
+            List<PSOIndividual<S, Q>> individuals = new ArrayList<>(chunk[1] - chunk[0]);
+            for (int i = chunk[0]; i < chunk[1]; i++) {
+              double cParticle = coefficients[2 * i];
+              double cGlobal = coefficients[2 * i + 1];
+              int o = i * p;
+              int bo = neighborhoodBests[i] * p;
+              // fused velocity and position update
+              for (int d = 0; d < p; d++) {
+                double x = positions[o + d];
+                double v = w * velocities[o + d]
+                    + cParticle * (oldBestKnownPositions[o + d] - x)
+                    + cGlobal * (oldBestKnownPositions[bo + d] - x);
+                velocities[o + d] = v;
+                positions[o + d] = x + v;
+              }
+              List<Double> position = rowView(positions, o, p);
+              S s = solutionMapper.apply(position);
+              Q q = problem.qualityFunction().apply(s);
+              if (problem.totalOrderComparator().compare(q, bestKnownQualities.get(i)) < 0) {
+                System.arraycopy(positions, o, bestKnownPositions, o, p);
+                bestKnownQualities.set(i, q);
+              }
+              individuals.add(PSOIndividual.of(
+                  position,
+                  rowView(velocities, o, p),
+                  rowView(bestKnownPositions, o, p),
+                  bestKnownQualities.get(i),
+                  s,
+                  q,
+                  state.nOfIterations(),
+                  state.nOfIterations()));
+            }
+            return individuals;
+          })
+          .toList();
+      List<PSOIndividual<S, Q>> individuals = getAll(executor.invokeAll(callables)).stream()
+          .flatMap(List::stream)
+          .toList();
+      PSOIndividual<S, Q> knownBest = psoState.knownBest;
+      PSOIndividual<S, Q> iterationBest = best(individuals, comparator(problem));
+      if (comparator(problem).compare(iterationBest, knownBest) < 0) {
+        knownBest = iterationBest;
       }
       return State.from(
-          (State<S, Q>) state,
-          populationSize,
-          populationSize,
-          sortedIndividuals,
+          psoState,
+          n,
+          n,
+          individuals,
           knownBest,
-          comparator(problem));
+          comparator(problem),
+          positions,
+          velocities,
+          bestKnownPositions,
+          Collections.unmodifiableList(bestKnownQualities));
     } catch (InterruptedException e) {
       throw new SolverException(e);
     }
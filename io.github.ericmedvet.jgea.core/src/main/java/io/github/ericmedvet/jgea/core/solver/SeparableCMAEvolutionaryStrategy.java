@@ -0,0 +1,349 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// source -> https://hal.inria.fr/inria-00287367/document (sep-CMA-ES, diagonal covariance matrix)
+
+public class SeparableCMAEvolutionaryStrategy<S, Q>
+    extends AbstractPopulationBasedIterativeSolver<
+        ListPopulationState<
+            Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+        TotalOrderQualityBasedProblem<S, Q>,
+        Individual<List<Double>, S, Q>,
+        List<Double>,
+        S,
+        Q> {
+
+  private static final Logger L = Logger.getLogger(SeparableCMAEvolutionaryStrategy.class.getName());
+  private final int mu;
+  private final double[] weights;
+  private final double cSigma;
+  private final double dSigma;
+  private final double cc;
+  private final double c1;
+  private final double cMu;
+  private final double muEff;
+  private final int p;
+  private final double chiN;
+  private final int populationSize;
+
+  public SeparableCMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition) {
+    this(
+        solutionMapper,
+        genotypeFactory,
+        stopCondition,
+        genotypeFactory.build(1, new Random(0)).get(0).size());
+  }
+
+  private SeparableCMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition,
+      int p) {
+    super(solutionMapper, genotypeFactory, stopCondition, false);
+    populationSize = 4 + (int) Math.floor(3 * Math.log(p));
+    this.p = p;
+    chiN = Math.sqrt(p) * (1d - 1d / (4d * (double) p) + 1d / (21d * Math.pow(p, 2)));
+    // selection and recombination
+    mu = (int) Math.floor(populationSize / 2d);
+    double[] unnormalizedWeights = buildArray(mu, i -> Math.log((populationSize + 1) / 2d) - Math.log(i + 1));
+    double sumOfWeights = Arrays.stream(unnormalizedWeights).sum();
+    double sumOfSquaredWeights =
+        Arrays.stream(mult(unnormalizedWeights, unnormalizedWeights)).sum();
+    weights = mult(unnormalizedWeights, 1d / sumOfWeights);
+    muEff = Math.pow(sumOfWeights, 2) / sumOfSquaredWeights;
+    // step size control
+    cSigma = (muEff + 2) / (p + muEff + 5);
+    dSigma = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (p + 1d)) - 1) + cSigma;
+    // covariance matrix adaptation, with learning rates increased by (p+2)/3 as the matrix is diagonal
+    cc = (4d + muEff / p) / (p + 4d + 2 * muEff / p);
+    double sepFactor = (p + 2d) / 3d;
+    c1 = Math.min(1, sepFactor * 2 / (Math.pow((p + 1.3), 2) + muEff));
+    cMu = Math.min(
+        1 - c1, sepFactor * 2 * (muEff - 2 + 1 / muEff) / (Math.pow((p + 2), 2) + 2 * muEff / 2d));
+  }
+
+  private record DecoratedIndividual<S, Q>(
+      List<Double> genotype,
+      S solution,
+      Q quality,
+      long qualityMappingIteration,
+      long genotypeBirthIteration,
+      double[] z,
+      double[] y)
+      implements Individual<List<Double>, S, Q> {}
+
+  private record State<S, Q>(
+      LocalDateTime startingDateTime,
+      long elapsedMillis,
+      long nOfIterations,
+      TotalOrderQualityBasedProblem<S, Q> problem,
+      Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+      long nOfBirths,
+      long nOfFitnessEvaluations,
+      PartiallyOrderedCollection<Individual<List<Double>, S, Q>> pocPopulation,
+      List<Individual<List<Double>, S, Q>> listPopulation,
+      double[] means,
+      double[] c,
+      double sigma,
+      double[] sEvolutionPath,
+      double[] cEvolutionPath)
+      implements ListPopulationState<
+              Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+          io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<
+              TotalOrderQualityBasedProblem<S, Q>, S> {
+    public static <S, Q> State<S, Q> empty(
+        TotalOrderQualityBasedProblem<S, Q> problem,
+        double[] means,
+        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition) {
+      int n = means.length;
+      double[] c = new double[n];
+      Arrays.fill(c, 1d);
+      return new State<>(
+          LocalDateTime.now(),
+          0,
+          0,
+          problem,
+          stopCondition,
+          0,
+          0,
+          null,
+          null,
+          means,
+          c,
+          0.5,
+          new double[n],
+          new double[n]);
+    }
+
+    public static <S, Q> State<S, Q> from(
+        State<S, Q> state,
+        double[] means,
+        double[] c,
+        double sigma,
+        double[] sEvolutionPath,
+        double[] cEvolutionPath) {
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths,
+          state.nOfFitnessEvaluations,
+          state.pocPopulation,
+          state.listPopulation,
+          means,
+          c,
+          sigma,
+          sEvolutionPath,
+          cEvolutionPath);
+    }
+
+    public static <S, Q> State<S, Q> from(
+        State<S, Q> state,
+        Collection<DecoratedIndividual<S, Q>> individuals,
+        Comparator<? super Individual<List<Double>, S, Q>> comparator) {
+      //noinspection unchecked,rawtypes
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations + 1,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths + individuals.size(),
+          state.nOfFitnessEvaluations + individuals.size(),
+          PartiallyOrderedCollection.from((Collection) individuals, comparator),
+          individuals.stream()
+              .map(i -> (Individual<List<Double>, S, Q>) i)
+              .sorted(comparator)
+              .toList(),
+          state.means,
+          state.c,
+          state.sigma,
+          state.sEvolutionPath,
+          state.cEvolutionPath);
+    }
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> newIndividual(
+      List<Double> genotype,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> updateIndividual(
+      Individual<List<Double>, S, Q> individual,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      init(TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+          throws SolverException {
+    State<S, Q> state =
+        State.empty(problem, unboxed(genotypeFactory.build(1, random).get(0)), stopCondition());
+    return State.from(state, sample(state, problem, random, executor), comparator(problem));
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      update(
+          TotalOrderQualityBasedProblem<S, Q> problem,
+          RandomGenerator random,
+          ExecutorService executor,
+          ListPopulationState<
+                  Individual<List<Double>, S, Q>,
+                  List<Double>,
+                  S,
+                  Q,
+                  TotalOrderQualityBasedProblem<S, Q>>
+              state)
+          throws SolverException {
+    State<S, Q> sepState = updateDistribution((State<S, Q>) state, problem);
+    return State.from(sepState, sample(sepState, problem, random, executor), comparator(problem));
+  }
+
+  private Collection<DecoratedIndividual<S, Q>> sample(
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    double[] sqrtC = sqrt(state.c);
+    // noise is drawn here, as the random generator is not meant to be shared among threads
+    List<Callable<DecoratedIndividual<S, Q>>> callables = IntStream.range(0, populationSize)
+        .mapToObj(k -> newIndividualCallable(state, problem, sqrtC, buildArray(p, random::nextGaussian)))
+        .toList();
+    try {
+      return getAll(executor.invokeAll(callables));
+    } catch (InterruptedException e) {
+      throw new SolverException(e);
+    }
+  }
+
+  private Callable<DecoratedIndividual<S, Q>> newIndividualCallable(
+      State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem, double[] sqrtC, double[] zK) {
+    return () -> {
+      double[] yK = new double[p];
+      double[] xK = new double[p];
+      for (int i = 0; i < p; i++) {
+        yK[i] = sqrtC[i] * zK[i];
+        xK[i] = state.means[i] + state.sigma * yK[i];
+      }
+      List<Double> genotype = boxed(xK);
+      S solution = solutionMapper.apply(genotype);
+      return new DecoratedIndividual<>(
+          genotype,
+          solution,
+          problem.qualityFunction().apply(solution),
+          state.nOfIterations,
+          state.nOfIterations,
+          zK,
+          yK);
+    };
+  }
+
+  private State<S, Q> updateDistribution(State<S, Q> state, TotalOrderQualityBasedProblem<S, Q> problem) {
+    // best mu ranked points
+    List<DecoratedIndividual<S, Q>> bestMuIndividuals = state.listPopulation.stream()
+        .sorted(comparator(problem))
+        .map(i -> (DecoratedIndividual<S, Q>) i)
+        .limit(mu)
+        .toList();
+    double[][] yMu = new double[mu][];
+    double[][] zMu = new double[mu][];
+    for (int i = 0; i < mu; i++) {
+      yMu[i] = bestMuIndividuals.get(i).y;
+      zMu[i] = bestMuIndividuals.get(i).z;
+    }
+    // selection and recombination
+    double[] yW = weightedMeanArray(yMu, weights);
+    double[] updatedDistributionMeans = buildArray(p, i -> state.means[i] + state.sigma * yW[i]);
+    // step size control (with a diagonal covariance, B is the identity)
+    double[] zM = weightedMeanArray(zMu, weights);
+    double[] sEvolutionPath = buildArray(
+        p, i -> (1d - cSigma) * state.sEvolutionPath[i] + (Math.sqrt(cSigma * (2d - cSigma) * muEff)) * zM[i]);
+    double psNorm = norm(sEvolutionPath, 2d);
+    double sigma = state.sigma * Math.exp((cSigma / dSigma) * ((psNorm / chiN) - 1));
+    // check flat fitness
+    if (state.pocPopulation().firsts().size() >= Math.ceil(0.7 * populationSize)) {
+      sigma *= Math.exp(0.2 + cSigma / dSigma);
+      L.warning("Flat fitness, consider reformulating the objective");
+    }
+    // covariance matrix adaptation, on the diagonal only
+    int hSigma =
+        psNorm / Math.sqrt(1 - Math.pow((1d - cSigma), 2 * state.nOfIterations())) / chiN < (1.4 + 2d / (p + 1))
+            ? 1
+            : 0;
+    double[] cEvolutionPath = buildArray(
+        p, i -> (1 - cc) * state.cEvolutionPath[i] + hSigma * Math.sqrt(cc * (2 - cc) * muEff) * yW[i]);
+    double deltaH = (1 - hSigma) * cc * (2 - cc);
+    double[] c = new double[p];
+    for (int i = 0; i < p; i++) {
+      double rankMu = 0;
+      for (int k = 0; k < mu; k++) {
+        rankMu = rankMu + weights[k] * yMu[k][i] * yMu[k][i];
+      }
+      c[i] = (1 + c1 * deltaH - c1 - cMu) * state.c[i] + c1 * cEvolutionPath[i] * cEvolutionPath[i] + cMu * rankMu;
+    }
+    return State.from(state, updatedDistributionMeans, c, sigma, sEvolutionPath, cEvolutionPath);
+  }
+}
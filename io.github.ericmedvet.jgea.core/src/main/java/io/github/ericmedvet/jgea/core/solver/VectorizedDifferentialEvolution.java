@@ -0,0 +1,397 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.rowView;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// https://doi.org/10.1109/TEVC.2009.2014613 (JADE)
+// https://doi.org/10.1109/CEC.2013.6557555 (SHADE)
+
+/**
+ * Differential evolution with one-to-one selection working on the population as a flat matrix of doubles. Trial
+ * vectors are built with binomial crossover and one of the {@link Strategy} mutations and are evaluated as a single
+ * batch. When {@code adaptive} is true, the differential weight and the crossover probability are sampled for each
+ * trial from a success-history memory as in SHADE, the given values being the initial memory values.
+ */
+public class VectorizedDifferentialEvolution<S, Q>
+    extends AbstractPopulationBasedIterativeSolver<
+        ListPopulationState<
+            Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+        TotalOrderQualityBasedProblem<S, Q>,
+        Individual<List<Double>, S, Q>,
+        List<Double>,
+        S,
+        Q> {
+
+  private static final double PARAMS_SCALE = 0.1d;
+
+  private final int populationSize;
+  private final Strategy strategy;
+  private final double differentialWeight;
+  private final double crossoverProb;
+  private final boolean adaptive;
+  private final int memorySize;
+  private final double pBestRate;
+
+  public VectorizedDifferentialEvolution(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      int populationSize,
+      Predicate<
+              ? super
+                  ListPopulationState<
+                      Individual<List<Double>, S, Q>,
+                      List<Double>,
+                      S,
+                      Q,
+                      TotalOrderQualityBasedProblem<S, Q>>>
+          stopCondition,
+      Strategy strategy,
+      double differentialWeight,
+      double crossoverProb,
+      boolean adaptive,
+      int memorySize,
+      double pBestRate) {
+    super(solutionMapper, genotypeFactory, stopCondition, false);
+    if (populationSize < 4) {
+      throw new IllegalArgumentException("Population size must be at least 4: %d found".formatted(populationSize));
+    }
+    if (adaptive && memorySize <= 0) {
+      throw new IllegalArgumentException("Memory size must be positive: %d found".formatted(memorySize));
+    }
+    this.populationSize = populationSize;
+    this.strategy = strategy;
+    this.differentialWeight = differentialWeight;
+    this.crossoverProb = crossoverProb;
+    this.adaptive = adaptive;
+    this.memorySize = memorySize;
+    this.pBestRate = pBestRate;
+  }
+
+  public enum Strategy {
+    RAND_1,
+    BEST_1,
+    CURRENT_TO_PBEST_1
+  }
+
+  public record State<S, Q>(
+      LocalDateTime startingDateTime,
+      long elapsedMillis,
+      long nOfIterations,
+      TotalOrderQualityBasedProblem<S, Q> problem,
+      Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+      long nOfBirths,
+      long nOfFitnessEvaluations,
+      PartiallyOrderedCollection<Individual<List<Double>, S, Q>> pocPopulation,
+      List<Individual<List<Double>, S, Q>> listPopulation,
+      int p,
+      double[] genotypes,
+      double[] memoryF,
+      double[] memoryCR,
+      int memoryIndex,
+      List<double[]> archive)
+      implements ListPopulationState<
+              Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>,
+          io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<
+              TotalOrderQualityBasedProblem<S, Q>, S> {
+    public static <S, Q> State<S, Q> from(
+        TotalOrderQualityBasedProblem<S, Q> problem,
+        List<Individual<List<Double>, S, Q>> individuals,
+        Comparator<? super Individual<List<Double>, S, Q>> comparator,
+        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+        int p,
+        double[] genotypes,
+        double[] memoryF,
+        double[] memoryCR) {
+      return new State<>(
+          LocalDateTime.now(),
+          0,
+          0,
+          problem,
+          stopCondition,
+          individuals.size(),
+          individuals.size(),
+          PartiallyOrderedCollection.from(individuals, comparator),
+          individuals,
+          p,
+          genotypes,
+          memoryF,
+          memoryCR,
+          0,
+          List.of());
+    }
+
+    public static <S, Q> State<S, Q> from(
+        State<S, Q> state,
+        int nOfNewBirths,
+        List<Individual<List<Double>, S, Q>> individuals,
+        Comparator<? super Individual<List<Double>, S, Q>> comparator,
+        double[] genotypes,
+        double[] memoryF,
+        double[] memoryCR,
+        int memoryIndex,
+        List<double[]> archive) {
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations() + 1,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths + nOfNewBirths,
+          state.nOfFitnessEvaluations + nOfNewBirths,
+          PartiallyOrderedCollection.from(individuals, comparator),
+          individuals,
+          state.p,
+          genotypes,
+          memoryF,
+          memoryCR,
+          memoryIndex,
+          archive);
+    }
+  }
+
+  private static int randomIndex(RandomGenerator random, int bound, int excluded1, int excluded2, int excluded3) {
+    while (true) {
+      int index = random.nextInt(bound);
+      if (index != excluded1 && index != excluded2 && index != excluded3) {
+        return index;
+      }
+    }
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> newIndividual(
+      List<Double> genotype,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    S solution = solutionMapper.apply(genotype);
+    return Individual.of(
+        genotype,
+        solution,
+        problem.qualityFunction().apply(solution),
+        state == null ? 0 : state.nOfIterations(),
+        state == null ? 0 : state.nOfIterations());
+  }
+
+  @Override
+  protected Individual<List<Double>, S, Q> updateIndividual(
+      Individual<List<Double>, S, Q> individual,
+      ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          state,
+      TotalOrderQualityBasedProblem<S, Q> problem) {
+    throw new UnsupportedOperationException("This method should not be called");
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      init(TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+          throws SolverException {
+    List<? extends List<Double>> initialGenotypes = genotypeFactory.build(populationSize, random);
+    int p = initialGenotypes.get(0).size();
+    // individuals own their rows, the matrix is only used for building trials
+    double[][] rows = new double[populationSize][p];
+    double[] genotypes = new double[populationSize * p];
+    for (int i = 0; i < populationSize; i++) {
+      for (int j = 0; j < p; j++) {
+        rows[i][j] = initialGenotypes.get(i).get(j);
+      }
+      System.arraycopy(rows[i], 0, genotypes, i * p, p);
+    }
+    List<Individual<List<Double>, S, Q>> individuals = map(
+            Arrays.stream(rows).map(row -> rowView(row, 0, p)).toList(),
+            List.of(),
+            null,
+            problem,
+            executor)
+        .stream()
+        .toList();
+    double[] memoryF = new double[memorySize];
+    double[] memoryCR = new double[memorySize];
+    Arrays.fill(memoryF, differentialWeight);
+    Arrays.fill(memoryCR, crossoverProb);
+    return State.from(problem, individuals, comparator(problem), stopCondition(), p, genotypes, memoryF, memoryCR);
+  }
+
+  @Override
+  public ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      update(
+          TotalOrderQualityBasedProblem<S, Q> problem,
+          RandomGenerator random,
+          ExecutorService executor,
+          ListPopulationState<
+                  Individual<List<Double>, S, Q>,
+                  List<Double>,
+                  S,
+                  Q,
+                  TotalOrderQualityBasedProblem<S, Q>>
+              state)
+          throws SolverException {
+    State<S, Q> deState = (State<S, Q>) state;
+    List<Individual<List<Double>, S, Q>> population = deState.listPopulation;
+    Comparator<Q> qComparator = problem.totalOrderComparator();
+    int n = population.size();
+    int p = deState.p;
+    double[] xs = deState.genotypes;
+    int[] ranking = IntStream.range(0, n)
+        .boxed()
+        .sorted(Comparator.comparing(i -> population.get(i).quality(), qComparator))
+        .mapToInt(i -> i)
+        .toArray();
+    int nOfPBests = Math.max(1, (int) Math.round(pBestRate * n));
+    // build each trial in its own row, so that surviving trials do not keep the other ones alive
+    double[][] trials = new double[n][p];
+    double[] fs = new double[n];
+    double[] crs = new double[n];
+    for (int i = 0; i < n; i++) {
+      double f = differentialWeight;
+      double cr = crossoverProb;
+      if (adaptive) {
+        int r = random.nextInt(memorySize);
+        cr = Math.min(1d, Math.max(0d, deState.memoryCR[r] + PARAMS_SCALE * random.nextGaussian()));
+        do {
+          // sample from a Cauchy distribution
+          f = deState.memoryF[r] + PARAMS_SCALE * Math.tan(Math.PI * (random.nextDouble() - 0.5d));
+        } while (f <= 0d);
+        f = Math.min(f, 1d);
+      }
+      fs[i] = f;
+      crs[i] = cr;
+      int o = i * p;
+      int r0 = -1;
+      int r1;
+      double[] r2Values = xs;
+      int r2Offset;
+      switch (strategy) {
+        case RAND_1 -> {
+          r0 = randomIndex(random, n, i, -1, -1);
+          r1 = randomIndex(random, n, i, r0, -1);
+          r2Offset = randomIndex(random, n, i, r0, r1) * p;
+        }
+        case BEST_1 -> {
+          r0 = ranking[0];
+          r1 = randomIndex(random, n, i, r0, -1);
+          r2Offset = randomIndex(random, n, i, r0, r1) * p;
+        }
+        default -> {
+          r0 = ranking[random.nextInt(nOfPBests)];
+          r1 = randomIndex(random, n, i, -1, -1);
+          int r2 = randomIndex(random, n + deState.archive.size(), i, r1, -1);
+          if (r2 < n) {
+            r2Offset = r2 * p;
+          } else {
+            r2Values = deState.archive.get(r2 - n);
+            r2Offset = 0;
+          }
+        }
+      }
+      int bo = r0 * p;
+      int o1 = r1 * p;
+      int jRand = random.nextInt(p);
+      for (int j = 0; j < p; j++) {
+        if (j == jRand || random.nextDouble() < cr) {
+          double difference = xs[o1 + j] - r2Values[r2Offset + j];
+          trials[i][j] = strategy.equals(Strategy.CURRENT_TO_PBEST_1)
+              ? xs[o + j] + f * (xs[bo + j] - xs[o + j]) + f * difference
+              : xs[bo + j] + f * difference;
+        } else {
+          trials[i][j] = xs[o + j];
+        }
+      }
+    }
+    // evaluate all trials as one batch
+    List<Individual<List<Double>, S, Q>> trialIndividuals = map(
+            Arrays.stream(trials).map(trial -> rowView(trial, 0, p)).toList(),
+            List.of(),
+            state,
+            problem,
+            executor)
+        .stream()
+        .toList();
+    // one-to-one selection
+    double[] newXs = xs.clone();
+    List<Individual<List<Double>, S, Q>> newPopulation = new ArrayList<>(population);
+    List<double[]> newArchive = new ArrayList<>(deState.archive);
+    List<double[]> successes = new ArrayList<>(); // f, cr, weight
+    for (int i = 0; i < n; i++) {
+      Individual<List<Double>, S, Q> trial = trialIndividuals.get(i);
+      Individual<List<Double>, S, Q> target = population.get(i);
+      int outcome = qComparator.compare(trial.quality(), target.quality());
+      if (outcome <= 0) {
+        if (outcome < 0) {
+          double weight = (trial.quality() instanceof Number trialQ && target.quality() instanceof Number targetQ)
+              ? Math.abs(targetQ.doubleValue() - trialQ.doubleValue())
+              : 1d;
+          successes.add(new double[] {fs[i], crs[i], Double.isFinite(weight) ? weight : 1d});
+          if (strategy.equals(Strategy.CURRENT_TO_PBEST_1)) {
+            newArchive.add(Arrays.copyOfRange(xs, i * p, (i + 1) * p));
+          }
+        }
+        System.arraycopy(trials[i], 0, newXs, i * p, p);
+        newPopulation.set(i, trial);
+      }
+    }
+    while (newArchive.size() > n) {
+      newArchive.remove(random.nextInt(newArchive.size()));
+    }
+    // update memory
+    double[] memoryF = deState.memoryF;
+    double[] memoryCR = deState.memoryCR;
+    int memoryIndex = deState.memoryIndex;
+    double weightsSum = successes.stream().mapToDouble(s -> s[2]).sum();
+    if (adaptive && weightsSum > 0d) {
+      memoryF = memoryF.clone();
+      memoryCR = memoryCR.clone();
+      // weighted Lehmer mean for f, weighted arithmetic mean for cr
+      memoryF[memoryIndex] = successes.stream().mapToDouble(s -> s[2] * s[0] * s[0]).sum()
+          / successes.stream().mapToDouble(s -> s[2] * s[0]).sum();
+      memoryCR[memoryIndex] =
+          successes.stream().mapToDouble(s -> s[2] * s[1]).sum() / weightsSum;
+      memoryIndex = (memoryIndex + 1) % memorySize;
+    }
+    return State.from(
+        deState,
+        n,
+        newPopulation,
+        comparator(problem),
+        newXs,
+        memoryF,
+        memoryCR,
+        memoryIndex,
+        newArchive);
+  }
+}
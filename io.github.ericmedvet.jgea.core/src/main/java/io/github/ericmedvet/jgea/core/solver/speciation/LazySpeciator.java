@@ -41,27 +41,22 @@ public class LazySpeciator<G, S, F> implements SpeciatedEvolver.Speciator<Indivi
       PartiallyOrderedCollection<Individual<G, S, F>> population) {
     List<List<Individual<G, S, F>>> clusters = new ArrayList<>();
     for (Individual<G, S, F> individual : population.all()) {
-      List<Double> distances = clusters.stream()
-          .map(c -> distance.apply(individual, c.get(0)))
-          .toList();
-      if (distances.isEmpty()) {
+      // distances are bounded by the closest one found so far, so that costly distances can exit early
+      int closestIndex = -1;
+      double closestDistance = distanceThreshold;
+      for (int i = 0; i < clusters.size(); i++) {
+        double d = distance.boundedApply(individual, clusters.get(i).get(0), closestDistance);
+        if (d < closestDistance) {
+          closestIndex = i;
+          closestDistance = d;
+        }
+      }
+      if (closestIndex >= 0) {
+        clusters.get(closestIndex).add(individual);
+      } else {
         List<Individual<G, S, F>> cluster = new ArrayList<>();
         cluster.add(individual);
         clusters.add(cluster);
-      } else {
-        int closestIndex = 0;
-        for (int i = 1; i < distances.size(); i++) {
-          if (distances.get(i) < distances.get(closestIndex)) {
-            closestIndex = i;
-          }
-        }
-        if (distances.get(closestIndex) < distanceThreshold) {
-          clusters.get(closestIndex).add(individual);
-        } else {
-          List<Individual<G, S, F>> cluster = new ArrayList<>();
-          cluster.add(individual);
-          clusters.add(cluster);
-        }
       }
     }
     return clusters.stream()
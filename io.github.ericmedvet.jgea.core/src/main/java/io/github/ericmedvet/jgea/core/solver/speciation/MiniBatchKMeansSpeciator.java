@@ -0,0 +1,288 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver.speciation;
+
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import java.util.*;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * A k-means speciator meant for large populations. Points are min-max normalized and clustered with mini-batch
+ * k-means (Euclidean distance), warm-started from the centroids found at the previous call. When {@code k} is
+ * {@code -1}, the number of clusters is chosen in {@code [1, maxK]} with the simplified silhouette (based on the
+ * distances to centroids) computed on a sample of the points. Per-centroid counts, which set the learning rates,
+ * are carried over across calls too, decayed by {@link #COUNTS_DECAY}, so that a warm-started centroid is not
+ * immediately overwritten by the first points of the new batch.
+ */
+public class MiniBatchKMeansSpeciator<G, S, F> implements SpeciatedEvolver.Speciator<Individual<G, S, F>> {
+
+  private static final double COUNTS_DECAY = 0.5d;
+
+  private final int k;
+  private final int maxK;
+  private final int batchSize;
+  private final int nOfIterations;
+  private final int silhouetteSampleSize;
+  private final boolean parallel;
+  private final Function<Individual<G, S, F>, double[]> converter;
+  private final RandomGenerator random;
+  // last centroids for each k, in the original (not normalized) space
+  private final Map<Integer, double[][]> lastCentroids;
+  // last per-centroid counts for each k, aligned with lastCentroids
+  private final Map<Integer, double[]> lastCounts;
+
+  public MiniBatchKMeansSpeciator(
+      int k,
+      int maxK,
+      int batchSize,
+      int nOfIterations,
+      int silhouetteSampleSize,
+      boolean parallel,
+      Function<Individual<G, S, F>, double[]> converter,
+      RandomGenerator random) {
+    this.k = k;
+    this.maxK = maxK;
+    this.batchSize = batchSize;
+    this.nOfIterations = nOfIterations;
+    this.silhouetteSampleSize = silhouetteSampleSize;
+    this.parallel = parallel;
+    this.converter = converter;
+    this.random = random;
+    lastCentroids = new HashMap<>();
+    lastCounts = new HashMap<>();
+  }
+
+  public MiniBatchKMeansSpeciator(int k, Function<Individual<G, S, F>, double[]> converter) {
+    this(k, 12, 256, 50, 500, true, converter, new Random(1));
+  }
+
+  private record Clustering(double[][] centroids, double[] counts, int[] assignments) {}
+
+  private static double squaredDistance(double[] p1, double[] p2) {
+    double d = 0d;
+    for (int i = 0; i < p1.length; i++) {
+      double delta = p1[i] - p2[i];
+      d = d + delta * delta;
+    }
+    return d;
+  }
+
+  private static int nearest(double[] point, double[][] centroids) {
+    int best = 0;
+    double bestD = Double.POSITIVE_INFINITY;
+    for (int c = 0; c < centroids.length; c++) {
+      double d = squaredDistance(point, centroids[c]);
+      if (d < bestD) {
+        bestD = d;
+        best = c;
+      }
+    }
+    return best;
+  }
+
+  private int[] assign(double[][] points, double[][] centroids) {
+    IntStream indexes = IntStream.range(0, points.length);
+    if (parallel) {
+      indexes = indexes.parallel();
+    }
+    return indexes.map(i -> nearest(points[i], centroids)).toArray();
+  }
+
+  private Clustering cluster(double[][] points, double[][] initialCentroids, double[] initialCounts) {
+    double[][] centroids = Arrays.stream(initialCentroids).map(double[]::clone).toArray(double[][]::new);
+    double[] counts = initialCounts.clone();
+    int size = Math.min(batchSize, points.length);
+    for (int iteration = 0; iteration < nOfIterations; iteration++) {
+      int[] batch = random.ints(size, 0, points.length).toArray();
+      int[] batchAssignments = new int[size];
+      for (int j = 0; j < size; j++) {
+        batchAssignments[j] = nearest(points[batch[j]], centroids);
+      }
+      // per-center learning rate as in Sculley, "Web-scale k-means clustering", 2010
+      for (int j = 0; j < size; j++) {
+        int c = batchAssignments[j];
+        counts[c] = counts[c] + 1;
+        double rate = 1d / counts[c];
+        double[] point = points[batch[j]];
+        for (int d = 0; d < point.length; d++) {
+          centroids[c][d] = centroids[c][d] + rate * (point[d] - centroids[c][d]);
+        }
+      }
+    }
+    return new Clustering(centroids, counts, assign(points, centroids));
+  }
+
+  private double[] initialCounts(int nOfClusters) {
+    double[] last = lastCounts.get(nOfClusters);
+    if (last == null) {
+      return new double[nOfClusters];
+    }
+    return Arrays.stream(last).map(c -> c * COUNTS_DECAY).toArray();
+  }
+
+  private double[][] initialCentroids(double[][] points, int nOfClusters, double[] mins, double[] ranges) {
+    List<double[]> centroids = new ArrayList<>(nOfClusters);
+    double[][] last = lastCentroids.get(nOfClusters);
+    if (last != null) {
+      for (double[] centroid : last) {
+        centroids.add(normalize(centroid, mins, ranges));
+      }
+    } else if (nOfClusters > 0) {
+      // k-means++ seeding
+      centroids.add(points[random.nextInt(points.length)]);
+      double[] ds = new double[points.length];
+      while (centroids.size() < nOfClusters) {
+        double[] newest = centroids.get(centroids.size() - 1);
+        double sum = 0d;
+        for (int i = 0; i < points.length; i++) {
+          double d = squaredDistance(points[i], newest);
+          ds[i] = centroids.size() == 1 ? d : Math.min(ds[i], d);
+          sum = sum + ds[i];
+        }
+        if (sum == 0d) {
+          centroids.add(points[random.nextInt(points.length)]);
+          continue;
+        }
+        double r = random.nextDouble() * sum;
+        int chosen = 0;
+        while (chosen < points.length - 1 && r >= ds[chosen]) {
+          r = r - ds[chosen];
+          chosen = chosen + 1;
+        }
+        centroids.add(points[chosen]);
+      }
+    }
+    return centroids.toArray(double[][]::new);
+  }
+
+  private static double[] normalize(double[] point, double[] mins, double[] ranges) {
+    double[] normalized = new double[point.length];
+    for (int i = 0; i < point.length; i++) {
+      normalized[i] = ranges[i] == 0d ? 1d : (point[i] - mins[i]) / ranges[i];
+    }
+    return normalized;
+  }
+
+  private static double[] denormalize(double[] point, double[] mins, double[] ranges) {
+    double[] denormalized = new double[point.length];
+    for (int i = 0; i < point.length; i++) {
+      denormalized[i] = ranges[i] == 0d ? mins[i] : mins[i] + point[i] * ranges[i];
+    }
+    return denormalized;
+  }
+
+  private double simplifiedSilhouette(double[][] points, Clustering clustering) {
+    if (clustering.centroids.length < 2) {
+      return 0d;
+    }
+    int[] sample = points.length <= silhouetteSampleSize
+        ? IntStream.range(0, points.length).toArray()
+        : random.ints(silhouetteSampleSize, 0, points.length).toArray();
+    double sum = 0d;
+    for (int i : sample) {
+      double a = Math.sqrt(squaredDistance(points[i], clustering.centroids[clustering.assignments[i]]));
+      double b = Double.POSITIVE_INFINITY;
+      for (int c = 0; c < clustering.centroids.length; c++) {
+        if (c != clustering.assignments[i]) {
+          b = Math.min(b, Math.sqrt(squaredDistance(points[i], clustering.centroids[c])));
+        }
+      }
+      double max = Math.max(a, b);
+      sum = sum + (max == 0d ? 0d : (b - a) / max);
+    }
+    return sum / sample.length;
+  }
+
+  @Override
+  public synchronized Collection<SpeciatedEvolver.Species<Individual<G, S, F>>> speciate(
+      PartiallyOrderedCollection<Individual<G, S, F>> population) {
+    List<Individual<G, S, F>> individuals = List.copyOf(population.all());
+    if (individuals.isEmpty()) {
+      return List.of();
+    }
+    double[][] rawPoints = individuals.stream().map(converter).toArray(double[][]::new);
+    if (Arrays.stream(rawPoints).mapToInt(p -> p.length).distinct().count() > 1) {
+      throw new IllegalArgumentException("All points to be clustered must have the same length");
+    }
+    int dimension = rawPoints.length == 0 ? 0 : rawPoints[0].length;
+    double[] mins = new double[dimension];
+    double[] ranges = new double[dimension];
+    for (int d = 0; d < dimension; d++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (double[] point : rawPoints) {
+        min = Math.min(min, point[d]);
+        max = Math.max(max, point[d]);
+      }
+      mins[d] = min;
+      ranges[d] = max - min;
+    }
+    double[][] points =
+        Arrays.stream(rawPoints).map(p -> normalize(p, mins, ranges)).toArray(double[][]::new);
+    List<Integer> ks = k != -1
+        ? List.of(Math.min(k, points.length))
+        : IntStream.rangeClosed(1, Math.min(maxK, points.length)).boxed().toList();
+    Clustering best = null;
+    double bestSilhouette = Double.NEGATIVE_INFINITY;
+    for (int nOfClusters : ks) {
+      Clustering clustering = cluster(
+          points, initialCentroids(points, nOfClusters, mins, ranges), initialCounts(nOfClusters));
+      lastCentroids.put(
+          nOfClusters,
+          Arrays.stream(clustering.centroids)
+              .map(c -> denormalize(c, mins, ranges))
+              .toArray(double[][]::new));
+      lastCounts.put(nOfClusters, clustering.counts);
+      double silhouette = ks.size() == 1 ? 0d : simplifiedSilhouette(points, clustering);
+      if (best == null || silhouette > bestSilhouette) {
+        best = clustering;
+        bestSilhouette = silhouette;
+      }
+    }
+    if (best == null) {
+      return List.of();
+    }
+    // build species, skipping empty clusters, with the individual closest to the centroid as representative
+    List<SpeciatedEvolver.Species<Individual<G, S, F>>> allSpecies = new ArrayList<>();
+    for (int c = 0; c < best.centroids.length; c++) {
+      List<Individual<G, S, F>> elements = new ArrayList<>();
+      Individual<G, S, F> representative = null;
+      double closestD = Double.POSITIVE_INFINITY;
+      for (int i = 0; i < points.length; i++) {
+        if (best.assignments[i] == c) {
+          elements.add(individuals.get(i));
+          double d = squaredDistance(points[i], best.centroids[c]);
+          if (d < closestD) {
+            closestD = d;
+            representative = individuals.get(i);
+          }
+        }
+      }
+      if (!elements.isEmpty()) {
+        allSpecies.add(new SpeciatedEvolver.Species<>(elements, representative));
+      }
+    }
+    return allSpecies;
+  }
+}
@@ -0,0 +1,141 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver.surrogate;
+
+import io.github.ericmedvet.jgea.core.distance.Distance;
+import io.github.ericmedvet.jgea.core.order.DAGPartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Surrogate} based on the k nearest neighbors, according to a {@link Distance} on genotypes, among the
+ * most recently evaluated individuals. The score of a genotype is the inverse-distance weighted average of the
+ * normalized front indexes of its neighbors, fronts being computed with the quality comparator of the problem.
+ */
+public class KNNSurrogate<G, Q> implements Surrogate<G, Q> {
+
+  private final Distance<G> distance;
+  private final int k;
+  private final int archiveSize;
+  private final Deque<Entry<G, Q>> archive;
+  private List<G> genotypes;
+  private double[] ranks;
+
+  public KNNSurrogate(Distance<G> distance, int k, int archiveSize) {
+    this.distance = distance;
+    this.k = k;
+    this.archiveSize = archiveSize;
+    archive = new ArrayDeque<>(archiveSize);
+    genotypes = List.of();
+    ranks = new double[0];
+  }
+
+  private record Entry<G, Q>(G genotype, Q quality) {}
+
+  @Override
+  public synchronized boolean isReady() {
+    return genotypes.size() >= k;
+  }
+
+  @Override
+  public double predict(G genotype) {
+    List<G> localGenotypes;
+    double[] localRanks;
+    synchronized (this) {
+      localGenotypes = genotypes;
+      localRanks = ranks;
+    }
+    if (localGenotypes.isEmpty()) {
+      return Double.NaN;
+    }
+    int n = Math.min(k, localGenotypes.size());
+    double[] distances = new double[n];
+    double[] neighborRanks = new double[n];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    for (int i = 0; i < localGenotypes.size(); i++) {
+      double d = distance.boundedApply(genotype, localGenotypes.get(i), distances[n - 1]);
+      if (d < distances[n - 1]) {
+        // insertion in the sorted neighbors
+        int j = n - 1;
+        while (j > 0 && distances[j - 1] > d) {
+          distances[j] = distances[j - 1];
+          neighborRanks[j] = neighborRanks[j - 1];
+          j = j - 1;
+        }
+        distances[j] = d;
+        neighborRanks[j] = localRanks[i];
+      }
+    }
+    if (distances[0] == 0d) {
+      double sum = 0d;
+      int count = 0;
+      for (int j = 0; j < n && distances[j] == 0d; j++) {
+        sum = sum + neighborRanks[j];
+        count = count + 1;
+      }
+      return sum / count;
+    }
+    double weightedSum = 0d;
+    double weightSum = 0d;
+    for (int j = 0; j < n; j++) {
+      if (Double.isFinite(distances[j])) {
+        weightedSum = weightedSum + neighborRanks[j] / distances[j];
+        weightSum = weightSum + 1d / distances[j];
+      }
+    }
+    return weightSum == 0d ? Double.NaN : weightedSum / weightSum;
+  }
+
+  @Override
+  public synchronized void update(
+      Collection<? extends Individual<G, ?, Q>> individuals, PartialComparator<? super Q> qualityComparator) {
+    for (Individual<G, ?, Q> individual : individuals) {
+      if (archive.size() == archiveSize) {
+        archive.removeFirst();
+      }
+      archive.addLast(new Entry<>(individual.genotype(), individual.quality()));
+    }
+    List<Entry<G, Q>> entries = List.copyOf(archive);
+    DAGPartiallyOrderedCollection<Entry<G, Q>> poc = new DAGPartiallyOrderedCollection<>(
+        entries, (e1, e2) -> qualityComparator.compare(e1.quality(), e2.quality()));
+    List<Collection<Entry<G, Q>>> fronts = new ArrayList<>();
+    while (poc.size() > 0) {
+      Collection<Entry<G, Q>> firsts = List.copyOf(poc.firsts());
+      fronts.add(firsts);
+      firsts.forEach(poc::remove);
+    }
+    Map<Entry<G, Q>, Double> entryRanks = new IdentityHashMap<>();
+    for (int i = 0; i < fronts.size(); i++) {
+      double rank = fronts.size() == 1 ? 0d : (double) i / (double) (fronts.size() - 1);
+      fronts.get(i).forEach(e -> entryRanks.put(e, rank));
+    }
+    genotypes = entries.stream().map(Entry::genotype).toList();
+    ranks = entries.stream().mapToDouble(entryRanks::get).toArray();
+  }
+}
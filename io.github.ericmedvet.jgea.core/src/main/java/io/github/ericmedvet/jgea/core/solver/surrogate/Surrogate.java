@@ -0,0 +1,37 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver.surrogate;
+
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import java.util.Collection;
+
+/**
+ * A cheap model of the quality of genotypes, learned from already evaluated individuals. Predictions are scores
+ * where lower means more promising: they are meant to rank genotypes, not to estimate their actual quality.
+ */
+public interface Surrogate<G, Q> {
+  boolean isReady();
+
+  double predict(G genotype);
+
+  void update(Collection<? extends Individual<G, ?, Q>> individuals, PartialComparator<? super Q> qualityComparator);
+}
@@ -0,0 +1,283 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.solver.surrogate;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.operator.GeneticOperator;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.selector.Selector;
+import io.github.ericmedvet.jgea.core.solver.AbstractStandardEvolver;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import io.github.ericmedvet.jgea.core.solver.SolverException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * A standard evolver that, once its surrogate is ready, builds an offspring pool larger than the offspring size,
+ * ranks it with the surrogate, and actually evaluates only the most promising genotypes. Each state owns its
+ * surrogate, which is updated with all the newly evaluated individuals.
+ */
+public class SurrogateAssistedEvolver<G, S, Q>
+    extends AbstractStandardEvolver<
+        SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>>,
+        QualityBasedProblem<S, Q>,
+        Individual<G, S, Q>,
+        G,
+        S,
+        Q> {
+
+  private static final Logger L = Logger.getLogger(SurrogateAssistedEvolver.class.getName());
+  private final Supplier<? extends Surrogate<G, Q>> surrogateFactory;
+  private final int poolSize;
+
+  public SurrogateAssistedEvolver(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      int populationSize,
+      Predicate<? super SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>>> stopCondition,
+      Map<GeneticOperator<G>, Double> operators,
+      Selector<? super Individual<G, S, Q>> parentSelector,
+      Selector<? super Individual<G, S, Q>> unsurvivalSelector,
+      int offspringSize,
+      boolean overlapping,
+      int maxUniquenessAttempts,
+      boolean remap,
+      Supplier<? extends Surrogate<G, Q>> surrogateFactory,
+      int poolSize) {
+    super(
+        solutionMapper,
+        genotypeFactory,
+        populationSize,
+        stopCondition,
+        operators,
+        parentSelector,
+        unsurvivalSelector,
+        offspringSize,
+        overlapping,
+        maxUniquenessAttempts,
+        remap);
+    if (poolSize < offspringSize) {
+      throw new IllegalArgumentException(
+          "Pool size should not be lower than offspring size: %d < %d".formatted(poolSize, offspringSize));
+    }
+    this.surrogateFactory = surrogateFactory;
+    this.poolSize = poolSize;
+  }
+
+  private record State<G, S, Q>(
+      LocalDateTime startingDateTime,
+      long elapsedMillis,
+      long nOfIterations,
+      QualityBasedProblem<S, Q> problem,
+      Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+      long nOfBirths,
+      long nOfFitnessEvaluations,
+      PartiallyOrderedCollection<Individual<G, S, Q>> pocPopulation,
+      Surrogate<G, Q> surrogate,
+      long nOfScreenedGenotypes,
+      long nOfDiscardedGenotypes,
+      long nOfRankedPairs,
+      long nOfConcordantPairs)
+      implements SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>>,
+          io.github.ericmedvet.jgea.core.solver.State.WithComputedProgress<QualityBasedProblem<S, Q>, S> {
+    public static <G, S, Q> State<G, S, Q> from(
+        State<G, S, Q> state,
+        long nOfBirths,
+        long nOfFitnessEvaluations,
+        PartiallyOrderedCollection<Individual<G, S, Q>> population,
+        long nOfScreenedGenotypes,
+        long nOfDiscardedGenotypes,
+        long nOfRankedPairs,
+        long nOfConcordantPairs) {
+      return new State<>(
+          state.startingDateTime,
+          ChronoUnit.MILLIS.between(state.startingDateTime, LocalDateTime.now()),
+          state.nOfIterations() + 1,
+          state.problem,
+          state.stopCondition,
+          state.nOfBirths() + nOfBirths,
+          state.nOfFitnessEvaluations() + nOfFitnessEvaluations,
+          population,
+          state.surrogate,
+          state.nOfScreenedGenotypes + nOfScreenedGenotypes,
+          state.nOfDiscardedGenotypes + nOfDiscardedGenotypes,
+          state.nOfRankedPairs + nOfRankedPairs,
+          state.nOfConcordantPairs + nOfConcordantPairs);
+    }
+
+    public static <G, S, Q> State<G, S, Q> from(
+        QualityBasedProblem<S, Q> problem,
+        PartiallyOrderedCollection<Individual<G, S, Q>> population,
+        Predicate<io.github.ericmedvet.jgea.core.solver.State<?, ?>> stopCondition,
+        Surrogate<G, Q> surrogate) {
+      return new State<>(
+          LocalDateTime.now(),
+          0,
+          0,
+          problem,
+          stopCondition,
+          population.size(),
+          population.size(),
+          population,
+          surrogate,
+          0,
+          0,
+          0,
+          0);
+    }
+  }
+
+  @Override
+  protected SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> init(
+      QualityBasedProblem<S, Q> problem, Collection<Individual<G, S, Q>> individuals) {
+    Surrogate<G, Q> surrogate = surrogateFactory.get();
+    surrogate.update(individuals, problem.qualityComparator());
+    return State.from(
+        problem,
+        PartiallyOrderedCollection.from(individuals, partialComparator(problem)),
+        stopCondition(),
+        surrogate);
+  }
+
+  @Override
+  protected Individual<G, S, Q> newIndividual(
+      G genotype,
+      SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> state,
+      QualityBasedProblem<S, Q> problem) {
+    S solution = solutionMapper.apply(genotype);
+    return Individual.of(
+        genotype,
+        solution,
+        problem.qualityFunction().apply(solution),
+        state == null ? 0 : state.nOfIterations(),
+        state == null ? 0 : state.nOfIterations());
+  }
+
+  @Override
+  public SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> update(
+      QualityBasedProblem<S, Q> problem,
+      RandomGenerator random,
+      ExecutorService executor,
+      SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> state)
+      throws SolverException {
+    Surrogate<G, Q> surrogate = state.surrogate();
+    boolean screening = poolSize > offspringSize && surrogate.isReady();
+    List<G> offspringGenotypes;
+    long nOfScreenedGenotypes = 0;
+    if (screening) {
+      List<G> pool = new ArrayList<>(buildOffspringGenotypes(state, random, poolSize));
+      double[] scores = pool.stream().mapToDouble(surrogate::predict).toArray();
+      offspringGenotypes = IntStream.range(0, pool.size())
+          .boxed()
+          .sorted(Comparator.comparingDouble(i -> Double.isNaN(scores[i]) ? Double.POSITIVE_INFINITY : scores[i]))
+          .limit(offspringSize)
+          .map(pool::get)
+          .toList();
+      nOfScreenedGenotypes = pool.size();
+      L.fine(String.format(
+          "Offspring pool screened: %d out of %d genotypes kept", offspringGenotypes.size(), pool.size()));
+    } else {
+      offspringGenotypes = new ArrayList<>(buildOffspringGenotypes(state, random));
+    }
+    int nOfNewBirths = offspringGenotypes.size();
+    Collection<Individual<G, S, Q>> parents = overlapping ? state.pocPopulation().all() : List.of();
+    Collection<Individual<G, S, Q>> newPopulation = map(offspringGenotypes, parents, state, problem, executor);
+    Set<Individual<G, S, Q>> oldIndividuals = Collections.newSetFromMap(new IdentityHashMap<>());
+    oldIndividuals.addAll(parents);
+    List<Individual<G, S, Q>> evaluated =
+        newPopulation.stream().filter(i -> !oldIndividuals.contains(i)).toList();
+    // surrogate accuracy on the actually evaluated offspring, before learning from them
+    long nOfRankedPairs = 0;
+    long nOfConcordantPairs = 0;
+    if (screening) {
+      List<Individual<G, S, Q>> offspring = evaluated.stream()
+          .filter(i -> i.genotypeBirthIteration() == state.nOfIterations())
+          .toList();
+      double[] scores =
+          offspring.stream().mapToDouble(i -> surrogate.predict(i.genotype())).toArray();
+      for (int i = 0; i < offspring.size(); i++) {
+        for (int j = i + 1; j < offspring.size(); j++) {
+          PartialComparator.PartialComparatorOutcome outcome = problem.qualityComparator()
+              .compare(offspring.get(i).quality(), offspring.get(j).quality());
+          if (outcome.equals(PartialComparator.PartialComparatorOutcome.BEFORE)) {
+            nOfRankedPairs = nOfRankedPairs + 1;
+            nOfConcordantPairs = nOfConcordantPairs + (scores[i] < scores[j] ? 1 : 0);
+          } else if (outcome.equals(PartialComparator.PartialComparatorOutcome.AFTER)) {
+            nOfRankedPairs = nOfRankedPairs + 1;
+            nOfConcordantPairs = nOfConcordantPairs + (scores[i] > scores[j] ? 1 : 0);
+          }
+        }
+      }
+    }
+    surrogate.update(evaluated, problem.qualityComparator());
+    newPopulation = trimPopulation(newPopulation, problem, random);
+    return State.from(
+        (State<G, S, Q>) state,
+        nOfNewBirths,
+        nOfNewBirths + (remap ? state.pocPopulation().size() : 0),
+        PartiallyOrderedCollection.from(newPopulation, partialComparator(problem)),
+        nOfScreenedGenotypes,
+        screening ? nOfScreenedGenotypes - nOfNewBirths : 0,
+        nOfRankedPairs,
+        nOfConcordantPairs);
+  }
+
+  @Override
+  protected SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> update(
+      SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> state,
+      QualityBasedProblem<S, Q> problem,
+      Collection<Individual<G, S, Q>> individuals,
+      long nOfBirths,
+      long nOfFitnessEvaluations) {
+    return State.from(
+        (State<G, S, Q>) state,
+        nOfBirths,
+        nOfFitnessEvaluations,
+        PartiallyOrderedCollection.from(individuals, partialComparator(problem)),
+        0,
+        0,
+        0,
+        0);
+  }
+
+  @Override
+  protected Individual<G, S, Q> updateIndividual(
+      Individual<G, S, Q> individual,
+      SurrogateAssistedPOCPopulationState<G, S, Q, QualityBasedProblem<S, Q>> state,
+      QualityBasedProblem<S, Q> problem) {
+    return Individual.of(
+        individual.genotype(),
+        individual.solution(),
+        problem.qualityFunction().apply(individual.solution()),
+        individual.genotypeBirthIteration(),
+        state == null ? individual.qualityMappingIteration() : state.nOfIterations());
+  }
+}
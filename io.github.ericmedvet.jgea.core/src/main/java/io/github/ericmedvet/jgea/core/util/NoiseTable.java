@@ -0,0 +1,75 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.util;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+public class NoiseTable {
+
+  private static final Map<Key, NoiseTable> SHARED = new ConcurrentHashMap<>();
+
+  private final long seed;
+  private final float[] values;
+
+  public NoiseTable(int size, long seed) {
+    this.seed = seed;
+    values = new float[size];
+    Random random = new Random(seed);
+    for (int i = 0; i < size; i++) {
+      values[i] = (float) random.nextGaussian();
+    }
+  }
+
+  private record Key(int size, long seed) {}
+
+  public static NoiseTable shared(int size, long seed) {
+    return SHARED.computeIfAbsent(new Key(size, seed), k -> new NoiseTable(k.size, k.seed));
+  }
+
+  public void addTo(double[] target, int offset, double weight) {
+    for (int j = 0; j < target.length; j++) {
+      target[j] = target[j] + weight * values[offset + j];
+    }
+  }
+
+  public double get(int index) {
+    return values[index];
+  }
+
+  public int randomOffset(RandomGenerator random, int length) {
+    if (length > values.length) {
+      throw new IllegalArgumentException(
+          String.format("Noise table too small: %d values for length %d", values.length, length));
+    }
+    return random.nextInt(values.length - length + 1);
+  }
+
+  public long seed() {
+    return seed;
+  }
+
+  public int size() {
+    return values.length;
+  }
+}
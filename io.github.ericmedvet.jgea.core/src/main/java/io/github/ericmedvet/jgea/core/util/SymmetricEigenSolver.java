@@ -0,0 +1,221 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.util;
+
+// Householder tridiagonalization followed by the implicit QL method, as in JAMA (public domain), on primitive
+// arrays and with work buffers reused across decompositions of matrices of the same size
+
+public class SymmetricEigenSolver {
+
+  private final int n;
+  private final double[] e;
+
+  public SymmetricEigenSolver(int n) {
+    this.n = n;
+    e = new double[n];
+  }
+
+  // on return, columns of vectors are the eigenvectors and values the corresponding eigenvalues
+  public synchronized void decompose(double[][] matrix, double[][] vectors, double[] values) {
+    for (int i = 0; i < n; i++) {
+      System.arraycopy(matrix[i], 0, vectors[i], 0, n);
+    }
+    tridiagonalize(vectors, values);
+    // QL rotations act on pairs of columns: working on the transpose keeps them contiguous in memory
+    transpose(vectors);
+    diagonalize(vectors, values);
+    transpose(vectors);
+  }
+
+  private void transpose(double[][] m) {
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        double t = m[i][j];
+        m[i][j] = m[j][i];
+        m[j][i] = t;
+      }
+    }
+  }
+
+  private void diagonalize(double[][] vt, double[] d) {
+    for (int i = 1; i < n; i++) {
+      e[i - 1] = e[i];
+    }
+    e[n - 1] = 0d;
+    double f = 0d;
+    double tst1 = 0d;
+    double eps = Math.ulp(1d);
+    for (int l = 0; l < n; l++) {
+      tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+      int m = l;
+      while (m < n - 1 && Math.abs(e[m]) > eps * tst1) {
+        m = m + 1;
+      }
+      if (m > l) {
+        do {
+          double g = d[l];
+          double p = (d[l + 1] - g) / (2d * e[l]);
+          double r = Math.hypot(p, 1d);
+          if (p < 0) {
+            r = -r;
+          }
+          d[l] = e[l] / (p + r);
+          d[l + 1] = e[l] * (p + r);
+          double dl1 = d[l + 1];
+          double h = g - d[l];
+          for (int i = l + 2; i < n; i++) {
+            d[i] = d[i] - h;
+          }
+          f = f + h;
+          p = d[m];
+          double c = 1d;
+          double c2 = c;
+          double c3 = c;
+          double el1 = e[l + 1];
+          double s = 0d;
+          double s2 = 0d;
+          for (int i = m - 1; i >= l; i--) {
+            c3 = c2;
+            c2 = c;
+            s2 = s;
+            g = c * e[i];
+            h = c * p;
+            r = Math.hypot(p, e[i]);
+            e[i + 1] = s * r;
+            s = e[i] / r;
+            c = p / r;
+            p = c * d[i] - s * g;
+            d[i + 1] = h + s * (c * g + s * d[i]);
+            double[] vi = vt[i];
+            double[] vi1 = vt[i + 1];
+            for (int k = 0; k < n; k++) {
+              h = vi1[k];
+              vi1[k] = s * vi[k] + c * h;
+              vi[k] = c * vi[k] - s * h;
+            }
+          }
+          p = -s * s2 * c3 * el1 * e[l] / dl1;
+          e[l] = s * p;
+          d[l] = c * p;
+        } while (Math.abs(e[l]) > eps * tst1);
+      }
+      d[l] = d[l] + f;
+      e[l] = 0d;
+    }
+  }
+
+  private void tridiagonalize(double[][] v, double[] d) {
+    System.arraycopy(v[n - 1], 0, d, 0, n);
+    for (int i = n - 1; i > 0; i--) {
+      double scale = 0d;
+      double h = 0d;
+      for (int k = 0; k < i; k++) {
+        scale = scale + Math.abs(d[k]);
+      }
+      if (scale == 0d) {
+        e[i] = d[i - 1];
+        for (int j = 0; j < i; j++) {
+          d[j] = v[i - 1][j];
+          v[i][j] = 0d;
+          v[j][i] = 0d;
+        }
+      } else {
+        for (int k = 0; k < i; k++) {
+          d[k] = d[k] / scale;
+          h = h + d[k] * d[k];
+        }
+        double f = d[i - 1];
+        double g = Math.sqrt(h);
+        if (f > 0) {
+          g = -g;
+        }
+        e[i] = scale * g;
+        h = h - f * g;
+        d[i - 1] = f - g;
+        for (int j = 0; j < i; j++) {
+          e[j] = 0d;
+        }
+        for (int j = 0; j < i; j++) {
+          f = d[j];
+          v[j][i] = f;
+          g = e[j] + v[j][j] * f;
+          for (int k = j + 1; k <= i - 1; k++) {
+            g = g + v[k][j] * d[k];
+            e[k] = e[k] + v[k][j] * f;
+          }
+          e[j] = g;
+        }
+        f = 0d;
+        for (int j = 0; j < i; j++) {
+          e[j] = e[j] / h;
+          f = f + e[j] * d[j];
+        }
+        double hh = f / (h + h);
+        for (int j = 0; j < i; j++) {
+          e[j] = e[j] - hh * d[j];
+        }
+        for (int j = 0; j < i; j++) {
+          f = d[j];
+          g = e[j];
+          for (int k = j; k <= i - 1; k++) {
+            v[k][j] = v[k][j] - (f * e[k] + g * d[k]);
+          }
+          d[j] = v[i - 1][j];
+          v[i][j] = 0d;
+        }
+      }
+      d[i] = h;
+    }
+    // accumulate transformations
+    for (int i = 0; i < n - 1; i++) {
+      v[n - 1][i] = v[i][i];
+      v[i][i] = 1d;
+      double h = d[i + 1];
+      if (h != 0d) {
+        for (int k = 0; k <= i; k++) {
+          d[k] = v[k][i + 1] / h;
+        }
+        for (int j = 0; j <= i; j++) {
+          double g = 0d;
+          for (int k = 0; k <= i; k++) {
+            g = g + v[k][i + 1] * v[k][j];
+          }
+          for (int k = 0; k <= i; k++) {
+            v[k][j] = v[k][j] - g * d[k];
+          }
+        }
+      }
+      for (int k = 0; k <= i; k++) {
+        v[k][i + 1] = 0d;
+      }
+    }
+    for (int j = 0; j < n; j++) {
+      d[j] = v[n - 1][j];
+      v[n - 1][j] = 0d;
+    }
+    v[n - 1][n - 1] = 1d;
+    e[0] = 0d;
+  }
+
+  public int size() {
+    return n;
+  }
+}
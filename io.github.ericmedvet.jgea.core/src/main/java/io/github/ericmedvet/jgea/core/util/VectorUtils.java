@@ -19,6 +19,9 @@
  */
 package io.github.ericmedvet.jgea.core.util;
 
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -34,6 +37,36 @@ public class VectorUtils {
 
   private VectorUtils() {}
 
+  // read-only view of a row of a flat matrix: the array must not be modified while the view is in use
+  private static class RowView extends AbstractList<Double> implements Serializable {
+    private final double[] values;
+    private final int offset;
+    private final int length;
+
+    private RowView(double[] values, int offset, int length) {
+      this.values = values;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public Double get(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return values[offset + index];
+    }
+
+    @Override
+    public int size() {
+      return length;
+    }
+
+    private Object writeReplace() {
+      return new ArrayList<>(this);
+    }
+  }
+
   public static List<Double> boxed(double[] v) {
     return Arrays.stream(v).boxed().toList();
   }
@@ -219,6 +252,14 @@ public class VectorUtils {
     return Math.pow(Arrays.stream(v).map(d -> Math.abs(Math.pow(d, n))).sum(), 1d / n);
   }
 
+  public static List<Double> rowView(double[] values, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > values.length) {
+      throw new IllegalArgumentException(
+          "Wrong row bounds: offset=%d and length=%d for %d values".formatted(offset, length, values.length));
+    }
+    return new RowView(values, offset, length);
+  }
+
   public static double[] sqrt(double[] v) {
     double[] outV = new double[v.length];
     for (int i = 0; i < outV.length; i++) {
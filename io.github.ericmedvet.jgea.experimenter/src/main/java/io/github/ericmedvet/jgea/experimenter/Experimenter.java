@@ -23,6 +23,7 @@ package io.github.ericmedvet.jgea.experimenter;
 import io.github.ericmedvet.jgea.core.listener.ListenerFactory;
 import io.github.ericmedvet.jgea.core.listener.ProgressMonitor;
 import io.github.ericmedvet.jgea.core.solver.POCPopulationState;
+import io.github.ericmedvet.jgea.core.solver.SolverException;
 import io.github.ericmedvet.jgea.experimenter.listener.ScreenProgressMonitor;
 import io.github.ericmedvet.jnb.core.MapNamedParamMap;
 import io.github.ericmedvet.jnb.core.NamedBuilder;
@@ -36,6 +37,7 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -47,6 +49,8 @@ public class Experimenter {
   private final ExecutorService experimentExecutorService;
   private final ExecutorService runExecutorService;
   private final ExecutorService listenerExecutorService;
+  private final int nOfEvaluationThreads;
+  private final File historyFile;
   private final boolean closeListeners;
 
   private Experimenter(
@@ -54,11 +58,15 @@ public class Experimenter {
       ExecutorService experimentExecutorService,
       ExecutorService runExecutorService,
       ExecutorService listenerExecutorService,
+      int nOfEvaluationThreads,
+      File historyFile,
       boolean closeListeners) {
     this.namedBuilder = namedBuilder;
     this.experimentExecutorService = experimentExecutorService;
     this.runExecutorService = runExecutorService;
     this.listenerExecutorService = listenerExecutorService;
+    this.nOfEvaluationThreads = nOfEvaluationThreads;
+    this.historyFile = historyFile;
     this.closeListeners = closeListeners;
   }
 
@@ -68,16 +76,36 @@ public class Experimenter {
       ExecutorService experimentExecutorService,
       ExecutorService runExecutorService,
       ExecutorService listenerExecutorService) {
-    this(namedBuilder, experimentExecutorService, runExecutorService, listenerExecutorService, false);
+    this(
+        namedBuilder,
+        experimentExecutorService,
+        runExecutorService,
+        listenerExecutorService,
+        Integer.MAX_VALUE,
+        null,
+        false);
   }
 
   @SuppressWarnings("unused")
   public Experimenter(NamedBuilder<?> namedBuilder, int nOfConcurrentRuns, int nOfThreads) {
+    this(namedBuilder, nOfConcurrentRuns, nOfThreads, false, null);
+  }
+
+  public Experimenter(
+      NamedBuilder<?> namedBuilder, int nOfConcurrentRuns, int nOfThreads, boolean elastic, File historyFile) {
     this(
         namedBuilder,
         Executors.newFixedThreadPool(nOfConcurrentRuns),
-        Executors.newFixedThreadPool(nOfThreads),
-        Executors.newFixedThreadPool(nOfConcurrentRuns),
+        elastic
+            ? new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null,
+                true)
+            : Executors.newFixedThreadPool(nOfThreads),
+        elastic ? Executors.newCachedThreadPool() : Executors.newFixedThreadPool(nOfConcurrentRuns),
+        elastic ? Runtime.getRuntime().availableProcessors() : nOfThreads,
+        historyFile,
         true);
   }
 
@@ -114,37 +142,65 @@ public class Experimenter {
     ProgressMonitor progressMonitor = progressMonitors.isEmpty()
         ? new ScreenProgressMonitor(System.out)
         : ProgressMonitor.all(progressMonitors);
-    // start experiments
-    record RunOutcome(Run<?, ?, ?, ?> run, Future<Collection<?>> future) {}
-    List<RunOutcome> runOutcomes = experiment.runs().stream()
-        .map(run -> new RunOutcome(run, experimentExecutorService.submit(() -> {
+    // start experiments, longest first
+    RunScheduler scheduler = new RunScheduler(experiment.runs(), historyFile);
+    RunExecutorService.Slots slots = new RunExecutorService.Slots(nOfEvaluationThreads);
+    DoubleAdder totalCpuT = new DoubleAdder();
+    Instant experimentStartingT = Instant.now();
+    List<Future<?>> futures = experiment.runs().stream()
+        .map(r -> experimentExecutorService.submit(() -> {
+          Run<?, ?, ?, ?> run = scheduler.next();
           progressMonitor.notify(
               run.index(),
               experiment.runs().size(),
               "Starting:%n%s".formatted(MapNamedParamMap.prettyToString(run.map(), 40)));
           Instant startingT = Instant.now();
-          Collection<?> solutions = run.run(runExecutorService, factory.build(run));
-          double elapsedT = Duration.between(startingT, Instant.now()).toMillis() / 1000d;
-          String msg = String.format(
-              "Run %d of %d done in %.2fs, found %d solutions",
-              run.index() + 1, experiment.runs().size(), elapsedT, solutions.size());
-          L.fine(msg);
-          progressMonitor.notify(run.index() + 1, experiment.runs().size(), msg);
-          return solutions;
-        })))
-        .toList();
+          long startingCpuNanos = RunExecutorService.currentThreadCpuNanos();
+          RunExecutorService executorService = new RunExecutorService(runExecutorService, slots);
+          try {
+            Collection<?> solutions = run.run(executorService, factory.build(run));
+            double elapsedT = Duration.between(startingT, Instant.now()).toMillis() / 1000d;
+            double cpuT = executorService.cpuSeconds()
+                + (RunExecutorService.currentThreadCpuNanos() - startingCpuNanos) / 1e9;
+            totalCpuT.add(cpuT);
+            scheduler.record(run, elapsedT);
+            String msg = String.format(
+                "Run %d of %d done in %.2fs (%.2fs of CPU, %.1f cores), found %d solutions",
+                run.index() + 1,
+                experiment.runs().size(),
+                elapsedT,
+                cpuT,
+                cpuT / elapsedT,
+                solutions.size());
+            L.fine(msg);
+            progressMonitor.notify(run.index() + 1, experiment.runs().size(), msg);
+          } catch (SolverException | RuntimeException e) {
+            L.warning(String.format("Cannot solve %s: %s", run.map(), e));
+            if (verbose) {
+              //noinspection CallToPrintStackTrace
+              e.printStackTrace();
+            }
+          } finally {
+            executorService.shutdown();
+          }
+        }))
+        .collect(Collectors.toList());
     // wait for results
-    runOutcomes.forEach(runOutcome -> {
+    futures.forEach(future -> {
       try {
-        runOutcome.future().get();
+        future.get();
       } catch (InterruptedException | ExecutionException e) {
-        L.warning(String.format("Cannot solve %s: %s", runOutcome.run().map(), e));
-        if (verbose) {
-          //noinspection CallToPrintStackTrace
-          e.printStackTrace();
-        }
+        L.warning(String.format("Cannot complete run: %s", e));
       }
     });
+    scheduler.save();
+    double makespan = Duration.between(experimentStartingT, Instant.now()).toMillis() / 1000d;
+    L.info(String.format(
+        "Experiment done in %.2fs with %.2fs of CPU: %.1f%% utilization of %d cores",
+        makespan,
+        totalCpuT.sum(),
+        100d * totalCpuT.sum() / makespan / Runtime.getRuntime().availableProcessors(),
+        Runtime.getRuntime().availableProcessors()));
     if (closeListeners) {
       L.info("Closing");
       experimentExecutorService.shutdown();
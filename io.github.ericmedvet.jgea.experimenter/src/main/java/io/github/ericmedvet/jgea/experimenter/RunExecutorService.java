@@ -0,0 +1,174 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-experimenter
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.experimenter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// a per-run view of a shared executor: it bounds the number of tasks a run can have in flight, so that concurrent
+// runs get a fair share of the shared threads, and it accounts the CPU time spent on the tasks of the run; the share
+// is recomputed by the shared slots whenever a run starts or is shut down
+class RunExecutorService extends AbstractExecutorService {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private final ExecutorService executorService;
+  private final Slots slots;
+  private final AtomicLong cpuNanos;
+  private int nOfSlots;
+  private int nOfBusySlots;
+  private boolean shutdown;
+
+  RunExecutorService(ExecutorService executorService, Slots slots) {
+    this.executorService = executorService;
+    this.slots = slots;
+    nOfSlots = slots.nOfSlots;
+    cpuNanos = new AtomicLong();
+    slots.register(this);
+  }
+
+  // the evaluation slots shared, in equal parts, among the runs which are active at the same time
+  static class Slots {
+    private final int nOfSlots;
+    private final List<RunExecutorService> executorServices;
+
+    Slots(int nOfSlots) {
+      this.nOfSlots = nOfSlots;
+      executorServices = new ArrayList<>();
+    }
+
+    private synchronized void rebalance() {
+      if (nOfSlots == Integer.MAX_VALUE || executorServices.isEmpty()) {
+        return;
+      }
+      int share = (int) Math.ceil((double) nOfSlots / (double) executorServices.size());
+      executorServices.forEach(es -> es.setNOfSlots(share));
+    }
+
+    private synchronized void register(RunExecutorService executorService) {
+      executorServices.add(executorService);
+      rebalance();
+    }
+
+    private synchronized void unregister(RunExecutorService executorService) {
+      if (executorServices.remove(executorService)) {
+        rebalance();
+      }
+    }
+  }
+
+  private synchronized void acquire() throws InterruptedException {
+    while (!shutdown && nOfBusySlots >= nOfSlots) {
+      wait();
+    }
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor is shut down");
+    }
+    nOfBusySlots = nOfBusySlots + 1;
+  }
+
+  private synchronized void release() {
+    nOfBusySlots = nOfBusySlots - 1;
+    notifyAll();
+  }
+
+  private synchronized void setNOfSlots(int nOfSlots) {
+    this.nOfSlots = nOfSlots;
+    notifyAll();
+  }
+
+  static long currentThreadCpuNanos() {
+    return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+  }
+
+  @Override
+  public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+    while (!isTerminated()) {
+      long remainingNanos = deadlineNanos - System.nanoTime();
+      if (remainingNanos <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+    }
+    return true;
+  }
+
+  double cpuSeconds() {
+    return (double) cpuNanos.get() / 1e9;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    try {
+      acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException(e);
+    }
+    try {
+      executorService.execute(() -> {
+        long startingCpuNanos = currentThreadCpuNanos();
+        try {
+          command.run();
+        } finally {
+          cpuNanos.addAndGet(currentThreadCpuNanos() - startingCpuNanos);
+          release();
+        }
+      });
+    } catch (RuntimeException e) {
+      release();
+      throw e;
+    }
+  }
+
+  @Override
+  public synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public synchronized boolean isTerminated() {
+    return shutdown && nOfBusySlots == 0;
+  }
+
+  @Override
+  public void shutdown() {
+    synchronized (this) {
+      shutdown = true;
+      notifyAll();
+    }
+    slots.unregister(this);
+  }
+
+  // tasks are never queued here, hence there are no pending tasks to return; running tasks are not interrupted
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    return List.of();
+  }
+}
@@ -0,0 +1,155 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-experimenter
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.experimenter;
+
+import io.github.ericmedvet.jnb.core.MapNamedParamMap;
+import io.github.ericmedvet.jnb.core.NamedParamMap;
+import io.github.ericmedvet.jnb.core.ParamMap;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+public class RunScheduler {
+
+  private static final Logger L = Logger.getLogger(RunScheduler.class.getName());
+  private static final String RANDOM_GENERATOR_PARAM_NAME = "randomGenerator";
+  private static final String SOLVER_PARAM_NAME = "solver";
+  private static final String N_OF_EVALUATIONS_PARAM_NAME = "nEval";
+
+  private final File historyFile;
+  private final Map<String, Cost> costs;
+  private final List<Run<?, ?, ?, ?>> pendingRuns;
+  private double secondsPerUnit;
+  private int nOfObservations;
+
+  public RunScheduler(List<? extends Run<?, ?, ?, ?>> runs, File historyFile) {
+    this.historyFile = historyFile;
+    costs = new HashMap<>();
+    pendingRuns = new ArrayList<>(runs);
+    if (historyFile != null && historyFile.exists()) {
+      load();
+      seedSecondsPerUnit();
+    }
+  }
+
+  private record Cost(double seconds, int n) {
+    private Cost add(double seconds) {
+      return new Cost(this.seconds + seconds, n + 1);
+    }
+
+    private double mean() {
+      return seconds / (double) n;
+    }
+  }
+
+  // runs differing only in the random generator are assumed to have the same cost
+  public static String key(Run<?, ?, ?, ?> run) {
+    if (run.map() instanceof MapNamedParamMap mnpm) {
+      SortedMap<MapNamedParamMap.TypedKey, Object> values = new TreeMap<>(mnpm.getValues());
+      values.keySet().removeIf(k -> k.name().equals(RANDOM_GENERATOR_PARAM_NAME));
+      return new MapNamedParamMap(mnpm.getName(), values).toString().replaceAll("\\s+", " ");
+    }
+    return run.map().toString().replaceAll("\\s+", " ");
+  }
+
+  private static double units(Run<?, ?, ?, ?> run) {
+    if (run.map().value(SOLVER_PARAM_NAME, ParamMap.Type.NAMED_PARAM_MAP) instanceof NamedParamMap solverMap
+        && solverMap.value(N_OF_EVALUATIONS_PARAM_NAME, ParamMap.Type.INT) instanceof Integer nOfEvaluations) {
+      return nOfEvaluations;
+    }
+    return 1d;
+  }
+
+  public synchronized double estimate(Run<?, ?, ?, ?> run) {
+    Cost cost = costs.get(key(run));
+    if (cost != null) {
+      return cost.mean();
+    }
+    return units(run) * (nOfObservations > 0 ? secondsPerUnit : 1d);
+  }
+
+  private void load() {
+    try (BufferedReader br = new BufferedReader(new FileReader(historyFile))) {
+      br.lines().map(l -> l.split("\t", 3)).filter(ps -> ps.length == 3).forEach(ps -> {
+        try {
+          costs.put(ps[2], new Cost(Double.parseDouble(ps[0]), Integer.parseInt(ps[1])));
+        } catch (NumberFormatException e) {
+          L.warning("Cannot parse history line: %s".formatted(e));
+        }
+      });
+      L.config("Loaded %d run costs from %s".formatted(costs.size(), historyFile));
+    } catch (IOException e) {
+      L.warning("Cannot read history file %s: %s".formatted(historyFile, e));
+    }
+  }
+
+  // the history does not store units: they are taken from the pending runs which have a known cost
+  private void seedSecondsPerUnit() {
+    Map<String, Double> units = new HashMap<>();
+    pendingRuns.forEach(run -> units.putIfAbsent(key(run), units(run)));
+    units.forEach((key, u) -> {
+      Cost cost = costs.get(key);
+      if (cost != null) {
+        secondsPerUnit = (secondsPerUnit * nOfObservations + cost.mean() / u) / (nOfObservations + 1);
+        nOfObservations = nOfObservations + 1;
+      }
+    });
+  }
+
+  public synchronized Run<?, ?, ?, ?> next() {
+    if (pendingRuns.isEmpty()) {
+      return null;
+    }
+    Run<?, ?, ?, ?> run = pendingRuns.stream()
+        .max(Comparator.comparingDouble(this::estimate))
+        .orElseThrow();
+    pendingRuns.remove(run);
+    return run;
+  }
+
+  public synchronized void record(Run<?, ?, ?, ?> run, double seconds) {
+    costs.merge(key(run), new Cost(seconds, 1), (c1, c2) -> c1.add(seconds));
+    secondsPerUnit = (secondsPerUnit * nOfObservations + seconds / units(run)) / (nOfObservations + 1);
+    nOfObservations = nOfObservations + 1;
+  }
+
+  public synchronized void save() {
+    if (historyFile == null) {
+      return;
+    }
+    try (PrintWriter pw = new PrintWriter(new FileWriter(historyFile))) {
+      costs.forEach((k, c) -> pw.printf(Locale.ROOT, "%f\t%d\t%s%n", c.seconds(), c.n(), k));
+    } catch (IOException e) {
+      L.warning("Cannot write history file %s: %s".formatted(historyFile, e));
+    }
+  }
+}
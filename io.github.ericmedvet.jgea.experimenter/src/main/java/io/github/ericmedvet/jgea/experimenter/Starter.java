@@ -66,6 +66,18 @@ public class Starter {
         description = "Number of concurrent runs.")
     public int nOfConcurrentRuns = 1;
 
+    @Parameter(
+        names = {"--elastic", "-el"},
+        description =
+            "Compute fitness on a shared work-stealing pool sized on the number of cores, fairly split among"
+                + " concurrent runs, and deliver to listeners on elastic threads (--nOfThreads is ignored).")
+    public boolean elastic = false;
+
+    @Parameter(
+        names = {"--historyFile", "-hf"},
+        description = "Path of the file where run durations are stored and read to start longest runs first.")
+    public String historyFilePath = "";
+
     @Parameter(
         names = {"--showExpFileHelp", "-d"},
         description = "Show a description of available constructs for the experiment file.")
@@ -166,7 +178,12 @@ public class Starter {
     }
     // prepare and run experimenter
     try {
-      Experimenter experimenter = new Experimenter(nb, configuration.nOfConcurrentRuns, configuration.nOfThreads);
+      Experimenter experimenter = new Experimenter(
+          nb,
+          configuration.nOfConcurrentRuns,
+          configuration.nOfThreads,
+          configuration.elastic,
+          configuration.historyFilePath.isEmpty() ? null : new File(configuration.historyFilePath));
       experimenter.run(expDescription, configuration.verbose);
     } catch (BuilderException e) {
       L.severe("Cannot run experiment: %s%n".formatted(e));
@@ -44,6 +44,8 @@ public class ControlProblems {
               @Param(value = "dT", dD = 0.1) double dT,
               @Param(value = "initialT", dD = 0) double initialT,
               @Param(value = "finalT", dD = 100) double finalT,
+              @Param(value = "behaviorDT", dD = 0) double behaviorDT,
+              @Param(value = "reuseEnvironments", dB = false) boolean reuseEnvironments,
               @Param("environment") Environment<double[], double[], S> environment,
               @Param("f")
                   Function<SortedMap<Double, SingleAgentTask.Step<double[], double[], S>>, Q>
@@ -59,6 +61,8 @@ public class ControlProblems {
         NumericalStatelessSystem.from(nOfInputs, nOfOutputs, (t, in) -> new double[nOfOutputs]),
         behaviorQualityFunction,
         new DoubleRange(initialT, finalT),
-        dT);
+        dT,
+        behaviorDT,
+        reuseEnvironments);
   }
 }
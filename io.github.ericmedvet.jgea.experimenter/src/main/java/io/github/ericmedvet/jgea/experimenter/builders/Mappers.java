@@ -27,15 +27,18 @@ import io.github.ericmedvet.jgea.core.representation.grammar.Developer;
 import io.github.ericmedvet.jgea.core.representation.grammar.grid.*;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
+import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.Extractor;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.functiongraph.FunctionGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.operatorgraph.OperatorGraph;
 import io.github.ericmedvet.jgea.core.representation.sequence.bit.BitString;
 import io.github.ericmedvet.jgea.core.representation.sequence.integer.IntString;
+import io.github.ericmedvet.jgea.core.representation.tree.ImmutableTree;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jgea.core.representation.tree.numeric.Element;
 import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedMultivariateRealFunction;
 import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedUnivariateRealFunction;
 import io.github.ericmedvet.jgea.experimenter.InvertibleMapper;
+import io.github.ericmedvet.jgea.problem.extraction.string.RegexBasedExtractor;
 import io.github.ericmedvet.jnb.core.Discoverable;
 import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
@@ -138,6 +141,11 @@ public class Mappers {
     return InvertibleMapper.identity();
   }
 
+  @SuppressWarnings("unused")
+  public static <T> InvertibleMapper<ImmutableTree<T>, Tree<T>> immutableTreeToTree() {
+    return InvertibleMapper.from((eTree, t) -> t.toTree(), ImmutableTree::from);
+  }
+
   @SuppressWarnings("unused")
   public static <T> InvertibleMapper<IntString, Grid<T>> intStringToGrammarGrid(
       @Param("grammar") GridGrammar<T> grammar,
@@ -260,6 +268,12 @@ public class Mappers {
         nmrf -> OperatorGraph.sampleFor(nmrf.xVarNames(), nmrf.yVarNames()));
   }
 
+  @SuppressWarnings("unused")
+  public static InvertibleMapper<String, Extractor<Character>> regexToExtractor(
+      @Param(value = "dfa", dB = false) boolean dfa) {
+    return InvertibleMapper.from((e, s) -> new RegexBasedExtractor(s, dfa), e -> "");
+  }
+
   @SuppressWarnings("unused")
   public static InvertibleMapper<Tree<Element>, NamedUnivariateRealFunction> srTreeToUrf(
       @Param(value = "postOperator", dS = "identity") MultiLayerPerceptron.ActivationFunction postOperator) {
@@ -30,15 +30,18 @@ import java.util.function.Supplier;
 
 @Discoverable(prefixTemplate = "ea.problem|p.multivariateRegression|mr")
 public class MultivariateRegressionProblems {
+  private static final long MB = 1024L * 1024L;
+
   private MultivariateRegressionProblems() {}
 
   @SuppressWarnings("unused")
   public static MultivariateRegressionProblem<MultivariateRegressionFitness> fromData(
       @Param("trainingDataset") Supplier<NumericalDataset> trainingDataset,
       @Param(value = "testDataset", dNPM = "ea.d.num.empty()") Supplier<NumericalDataset> testDataset,
-      @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric) {
+      @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
+      @Param(value = "cacheMB", dI = 0) int cacheMB) {
     return new MultivariateRegressionProblem<>(
-        new MultivariateRegressionFitness(trainingDataset.get(), metric),
+        new MultivariateRegressionFitness(trainingDataset.get(), metric, cacheMB * MB),
         new MultivariateRegressionFitness(testDataset.get(), metric));
   }
 }
@@ -24,16 +24,25 @@ import io.github.ericmedvet.jgea.core.listener.NamedFunction;
 import io.github.ericmedvet.jgea.core.problem.MultiTargetProblem;
 import io.github.ericmedvet.jgea.core.problem.ProblemWithValidation;
 import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction;
 import io.github.ericmedvet.jgea.core.representation.sequence.bit.BitString;
 import io.github.ericmedvet.jgea.core.representation.sequence.integer.IntString;
 import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.POCPopulationState;
 import io.github.ericmedvet.jgea.core.solver.State;
+import io.github.ericmedvet.jgea.core.solver.surrogate.SurrogateAssistedPOCPopulationState;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import io.github.ericmedvet.jgea.core.util.TextPlotter;
 import io.github.ericmedvet.jgea.experimenter.Run;
 import io.github.ericmedvet.jgea.experimenter.Utils;
+import io.github.ericmedvet.jgea.problem.KFoldQuality;
 import io.github.ericmedvet.jgea.problem.control.SingleAgentControlProblem;
+import io.github.ericmedvet.jgea.problem.extraction.ExtractionFitness;
+import io.github.ericmedvet.jgea.problem.extraction.string.RegexCache;
+import io.github.ericmedvet.jgea.problem.regression.LocalOptimizer;
+import io.github.ericmedvet.jgea.problem.regression.SubtreeSemanticsCache;
+import io.github.ericmedvet.jgea.problem.regression.multivariate.MultivariateRegressionFitness;
+import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import io.github.ericmedvet.jnb.core.Discoverable;
 import io.github.ericmedvet.jnb.core.NamedParamMap;
 import io.github.ericmedvet.jnb.core.Param;
@@ -215,6 +224,27 @@ public class NamedFunctions {
         });
   }
 
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> extractionCacheHitRate() {
+    return NamedFunction.build("extraction.cache.hit.rate", "%4.2f", s -> extractionStats(s)
+        .map(ExtractionFitness.Stats::cacheHitRate)
+        .orElse(Double.NaN));
+  }
+
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> extractionSymbolsRate() {
+    return NamedFunction.build("extraction.symbols.rate", "%8.1e", s -> extractionStats(s)
+        .map(ExtractionFitness.Stats::symbolsPerSecond)
+        .orElse(Double.NaN));
+  }
+
+  private static Optional<ExtractionFitness.Stats> extractionStats(POCPopulationState<?, ?, ?, ?, ?> state) {
+    if (state.problem().qualityFunction() instanceof ExtractionFitness<?> fitness) {
+      return Optional.of(fitness.stats());
+    }
+    return Optional.empty();
+  }
+
   @SuppressWarnings("unused")
   public static <X, T, R> NamedFunction<X, R> f(
       @Param("outerF") Function<T, R> outerFunction,
@@ -355,6 +385,49 @@ public class NamedFunctions {
     return io.github.ericmedvet.jgea.core.listener.NamedFunctions.lasts();
   }
 
+  @SuppressWarnings("unused")
+  public static <X> NamedFunction<X, List<Double>> kFoldLearningQuality(
+      @Param(value = "individual", dNPM = "ea.nf.identity()")
+          NamedFunction<X, Individual<?, ?, KFoldQuality>> individualF,
+      @Param(value = "s", dS = "%s") String s) {
+    return NamedFunction.build(
+        c("kFold.learning.quality", individualF.getName()),
+        s,
+        x -> individualF.apply(x).quality().learningQuality());
+  }
+
+  @SuppressWarnings("unused")
+  public static <X> NamedFunction<X, List<Double>> kFoldValidationQuality(
+      @Param(value = "individual", dNPM = "ea.nf.identity()")
+          NamedFunction<X, Individual<?, ?, KFoldQuality>> individualF,
+      @Param(value = "s", dS = "%s") String s) {
+    return NamedFunction.build(
+        c("kFold.validation.quality", individualF.getName()),
+        s,
+        x -> individualF.apply(x).quality().validationQuality());
+  }
+
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> localOptimizationEvals() {
+    return NamedFunction.build("lo.evals", "%5.1f", s -> localOptimizerStats(s)
+        .map(LocalOptimizer.Stats::evaluationsPerOptimization)
+        .orElse(Double.NaN));
+  }
+
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> localOptimizationTime() {
+    return NamedFunction.build("lo.time", "%6.1f", s -> localOptimizerStats(s)
+        .map(LocalOptimizer.Stats::seconds)
+        .orElse(Double.NaN));
+  }
+
+  private static Optional<LocalOptimizer.Stats> localOptimizerStats(POCPopulationState<?, ?, ?, ?, ?> state) {
+    if (state.problem().qualityFunction() instanceof UnivariateRegressionFitness fitness) {
+      return Optional.ofNullable(fitness.getLocalOptimizer()).map(LocalOptimizer::stats);
+    }
+    return Optional.empty();
+  }
+
   @SuppressWarnings("unused")
   public static <X, T extends Comparable<T>> NamedFunction<X, T> max(
       @Param(value = "collection", dNPM = "ea.nf.identity()") NamedFunction<X, Collection<T>> collectionF,
@@ -414,6 +487,21 @@ public class NamedFunctions {
     });
   }
 
+  @SuppressWarnings({"unused", "unchecked"})
+  public static <S> NamedFunction<POCPopulationState<?, ?, S, ?, ?>, S> optimizedSolution(
+      @Param(value = "individual", dNPM = "ea.nf.best()")
+          NamedFunction<POCPopulationState<?, ?, S, ?, ?>, Individual<?, S, ?>> individualF,
+      @Param(value = "s", dS = "%s") String s) {
+    return NamedFunction.build(c("optimized", "solution", individualF.getName()), s, state -> {
+      S solution = individualF.apply(state).solution();
+      if (state.problem().qualityFunction() instanceof UnivariateRegressionFitness fitness
+          && solution instanceof NamedUnivariateRealFunction f) {
+        return (S) fitness.optimized(f);
+      }
+      return solution;
+    });
+  }
+
   @SuppressWarnings("unused")
   public static <I extends Individual<G, S, Double>, G, S, P extends MultiTargetProblem<S>>
       NamedFunction<POCPopulationState<I, G, S, Double, P>, Double> overallTargetDistance() {
@@ -446,11 +534,42 @@ public class NamedFunctions {
         .reformat(s);
   }
 
+  @SuppressWarnings("unused")
+  public static <X> NamedFunction<X, Double> regexCacheHitRate() {
+    return NamedFunction.build(
+        "regex.cache.hit.rate", "%4.2f", x -> RegexCache.shared().stats().hitRate());
+  }
+
   @SuppressWarnings("unused")
   public static NamedFunction<Run<?, ?, ?, ?>, ?> runKey(@Param("runKey") Map.Entry<String, String> entry) {
     return NamedFunction.build(entry.getKey(), "%s", r -> Utils.interpolate(entry.getValue(), r));
   }
 
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> semanticsCacheHitRate() {
+    return NamedFunction.build("sem.cache.hit.rate", "%4.2f", s -> semanticsCacheStats(s)
+        .map(SubtreeSemanticsCache.Stats::hitRate)
+        .orElse(Double.NaN));
+  }
+
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> semanticsCacheMB() {
+    return NamedFunction.build("sem.cache.mb", "%6.1f", s -> semanticsCacheStats(s)
+        .map(stats -> stats.bytes() / 1024d / 1024d)
+        .orElse(Double.NaN));
+  }
+
+  private static Optional<SubtreeSemanticsCache.Stats> semanticsCacheStats(POCPopulationState<?, ?, ?, ?, ?> state) {
+    Object qualityFunction = state.problem().qualityFunction();
+    SubtreeSemanticsCache cache = null;
+    if (qualityFunction instanceof UnivariateRegressionFitness fitness) {
+      cache = fitness.getCache();
+    } else if (qualityFunction instanceof MultivariateRegressionFitness fitness) {
+      cache = fitness.getCache();
+    }
+    return Optional.ofNullable(cache).map(SubtreeSemanticsCache::stats);
+  }
+
   @SuppressWarnings("unused")
   public static <X> NamedFunction<X, Integer> size(
       @Param(value = "f", dNPM = "ea.nf.identity()") NamedFunction<X, ?> f,
@@ -481,6 +600,26 @@ public class NamedFunctions {
     });
   }
 
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Double> surrogateAccuracy() {
+    return NamedFunction.build(
+        "surrogate.accuracy",
+        "%4.2f",
+        s -> s instanceof SurrogateAssistedPOCPopulationState<?, ?, ?, ?> sState
+            ? sState.surrogateAccuracy()
+            : Double.NaN);
+  }
+
+  @SuppressWarnings("unused")
+  public static NamedFunction<POCPopulationState<?, ?, ?, ?, ?>, Long> surrogateSavedEvals() {
+    return NamedFunction.build(
+        "surrogate.saved.evals",
+        "%6d",
+        s -> s instanceof SurrogateAssistedPOCPopulationState<?, ?, ?, ?> sState
+            ? sState.nOfDiscardedGenotypes()
+            : 0L);
+  }
+
   @SuppressWarnings("unused")
   public static <X, S> NamedFunction<X, List<Double>> targetDistances(
       @Param(value = "individual", dNPM = "ea.nf.identity()") NamedFunction<X, Individual<?, S, ?>> individualF,
@@ -82,6 +82,50 @@ public class Representations {
         new IntStringUniformCrossover().andThen(new IntStringFlipMutation(pMutRate / (double) g.size())));
   }
 
+  @SuppressWarnings("unused")
+  public static Function<ImmutableTree<Element>, Representation<ImmutableTree<Element>>> immutableSrTree(
+      @Param(
+              value = "constants",
+              dDs = {0.1, 1, 10})
+          List<Double> constants,
+      @Param(
+              value = "operators",
+              dSs = {"addition", "subtraction", "multiplication", "prot_division", "prot_log"})
+          List<Element.Operator> operators,
+      @Param(value = "minTreeH", dI = 4) int minTreeH,
+      @Param(value = "maxTreeH", dI = 10) int maxTreeH,
+      @Param(value = "crossoverP", dD = 0.8d) double crossoverP,
+      @Param(value = "interned", dB = true) boolean interned) {
+    return g -> {
+      List<Element.Variable> variables = g.visitDepth().stream()
+          .filter(e -> e instanceof Element.Variable)
+          .map(e -> ((Element.Variable) e).name())
+          .distinct()
+          .map(Element.Variable::new)
+          .toList();
+      List<Element.Constant> constantElements =
+          constants.stream().map(Element.Constant::new).toList();
+      IndependentFactory<Element> terminalFactory = IndependentFactory.oneOf(
+          IndependentFactory.picker(variables), IndependentFactory.picker(constantElements));
+      IndependentFactory<Element> nonTerminalFactory = IndependentFactory.picker(operators);
+      // single tree factory
+      TreeBuilder<Element> treeBuilder = new GrowTreeBuilder<>(x -> 2, nonTerminalFactory, terminalFactory);
+      Mutation<ImmutableTree<Element>> subtreeMutation = new ImmutableSubtreeMutation<>(maxTreeH, treeBuilder);
+      Crossover<ImmutableTree<Element>> subtreeCrossover = new ImmutableSubtreeCrossover<>(maxTreeH);
+      // subtrees shared with the parents are already interned: only the new nodes are actually added to the pool
+      Mutation<ImmutableTree<Element>> mutation =
+          interned ? (t, rnd) -> subtreeMutation.mutate(t, rnd).intern() : subtreeMutation;
+      Crossover<ImmutableTree<Element>> crossover = interned
+          ? (t1, t2, rnd) -> subtreeCrossover.recombine(t1, t2, rnd).intern()
+          : subtreeCrossover;
+      return new Representation<>(
+          new RampedHalfAndHalf<>(minTreeH, maxTreeH, x -> 2, nonTerminalFactory, terminalFactory)
+              .then(t -> interned ? ImmutableTree.interned(t) : ImmutableTree.from(t)),
+          mutation,
+          crossover);
+    };
+  }
+
   @SuppressWarnings("unused")
   public static Function<List<Tree<Element>>, Representation<List<Tree<Element>>>> multiSRTree(
       @Param(
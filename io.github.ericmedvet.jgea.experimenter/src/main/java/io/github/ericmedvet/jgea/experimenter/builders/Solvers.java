@@ -21,8 +21,10 @@
 package io.github.ericmedvet.jgea.experimenter.builders;
 
 import io.github.ericmedvet.jgea.core.distance.Jaccard;
+import io.github.ericmedvet.jgea.core.distance.LNorm;
 import io.github.ericmedvet.jgea.core.operator.GeneticOperator;
 import io.github.ericmedvet.jgea.core.operator.Mutation;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
 import io.github.ericmedvet.jgea.core.representation.graph.*;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
@@ -39,6 +41,8 @@ import io.github.ericmedvet.jgea.core.solver.cabea.SubstrateFiller;
 import io.github.ericmedvet.jgea.core.solver.mapelites.MapElites;
 import io.github.ericmedvet.jgea.core.solver.speciation.LazySpeciator;
 import io.github.ericmedvet.jgea.core.solver.speciation.SpeciatedEvolver;
+import io.github.ericmedvet.jgea.core.solver.surrogate.KNNSurrogate;
+import io.github.ericmedvet.jgea.core.solver.surrogate.SurrogateAssistedEvolver;
 import io.github.ericmedvet.jgea.experimenter.InvertibleMapper;
 import io.github.ericmedvet.jgea.experimenter.Representation;
 import io.github.ericmedvet.jnb.core.Discoverable;
@@ -48,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 @Discoverable(prefixTemplate = "ea.solver|s")
 public class Solvers {
@@ -148,6 +153,47 @@ public class Solvers {
     };
   }
 
+  @SuppressWarnings("unused")
+  public static <
+          T extends POCPopulationState<I, G, S, Q, P>,
+          P extends QualityBasedProblem<S, Q>,
+          I extends Individual<G, S, Q>,
+          G,
+          S,
+          Q>
+      Function<S, IslandSolver<T, P, I, G, S, Q>> islands(
+          @Param(value = "name", dS = "islands") String name,
+          @Param("solver") Function<S, ? extends AbstractPopulationBasedIterativeSolver<T, P, I, G, S, Q>> solver,
+          @Param(value = "nOfIslands", dI = 4) int nOfIslands,
+          @Param(value = "migrationInterval", dI = 10) int migrationInterval,
+          @Param(value = "nOfMigrants", dI = 1) int nOfMigrants,
+          @Param(value = "topology", dS = "ring") IslandSolver.Topology topology,
+          @Param(value = "nEval", dI = 1000) int nEval) {
+    return exampleS -> new IslandSolver<>(
+        IntStream.range(0, nOfIslands)
+            .mapToObj(i -> solver.apply(exampleS))
+            .toList(),
+        StopConditions.nOfFitnessEvaluations(nEval),
+        migrationInterval,
+        nOfMigrants,
+        topology);
+  }
+
+  @SuppressWarnings("unused")
+  public static <S, Q> Function<S, LimitedMemoryMAEvolutionaryStrategy<S, Q>> lmMaEs(
+      @Param(value = "name", dS = "lmMaEs") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "nEval", dI = 1000) int nEval) {
+    return exampleS -> new LimitedMemoryMAEvolutionaryStrategy<>(
+        mapper.mapperFor(exampleS),
+        Representations.doubleString(initialMinV, initialMaxV, 0, 0)
+            .apply(mapper.exampleFor(exampleS))
+            .factory(),
+        StopConditions.nOfFitnessEvaluations(nEval));
+  }
+
   @SuppressWarnings("unused")
   public static <G, S, Q> Function<S, MapElites<G, S, Q>> mapElites(
       @Param(value = "name", dS = "me") String name,
@@ -168,6 +214,39 @@ public class Solvers {
     };
   }
 
+  @SuppressWarnings("unused")
+  public static <G, S, Q> Function<S, MultiFidelityEvolver<G, S, Q>> multiFidelityGa(
+      @Param(value = "name", dS = "mfGa") String name,
+      @Param("representation") Function<G, Representation<G>> representation,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<G, S> mapper,
+      @Param(value = "crossoverP", dD = 0.8d) double crossoverP,
+      @Param(value = "tournamentRate", dD = 0.05d) double tournamentRate,
+      @Param(value = "minNTournament", dI = 3) int minNTournament,
+      @Param(value = "nPop", dI = 100) int nPop,
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "maxUniquenessAttempts", dI = 100) int maxUniquenessAttempts,
+      @Param(value = "remap") boolean remap,
+      @Param(value = "eta", dD = 3d) double eta,
+      @Param(value = "nOfRungs", dI = 3) int nOfRungs) {
+    return exampleS -> {
+      Representation<G> r = representation.apply(mapper.exampleFor(exampleS));
+      return new MultiFidelityEvolver<>(
+          mapper.mapperFor(exampleS),
+          r.factory(),
+          nPop,
+          StopConditions.nOfFitnessEvaluations(nEval),
+          r.geneticOperators(crossoverP),
+          new Tournament(Math.max(minNTournament, (int) Math.ceil((double) nPop * tournamentRate))),
+          new Last(),
+          nPop,
+          true,
+          maxUniquenessAttempts,
+          remap,
+          eta,
+          nOfRungs);
+    };
+  }
+
   @SuppressWarnings("unused")
   public static <G, S> Function<S, NsgaII<G, S>> nsga2(
       @Param(value = "name", dS = "nsga2") String name,
@@ -269,6 +348,7 @@ public class Solvers {
       @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
       @Param(value = "sigma", dD = 0.02d) double sigma,
       @Param(value = "batchSize", dI = 30) int batchSize,
+      @Param(value = "noiseTableSize", dI = 0) int noiseTableSize,
       @Param(value = "nEval", dI = 1000) int nEval) {
     return exampleS -> new OpenAIEvolutionaryStrategy<>(
         mapper.mapperFor(exampleS),
@@ -277,7 +357,8 @@ public class Solvers {
             .factory(),
         StopConditions.nOfFitnessEvaluations(nEval),
         batchSize,
-        sigma);
+        sigma,
+        noiseTableSize);
   }
 
   @SuppressWarnings("unused")
@@ -290,7 +371,8 @@ public class Solvers {
       @Param(value = "nPop", dI = 100) int nPop,
       @Param(value = "w", dD = 0.8d) double w,
       @Param(value = "phiParticle", dD = 1.5d) double phiParticle,
-      @Param(value = "phiGlobal", dD = 1.5d) double phiGlobal) {
+      @Param(value = "phiGlobal", dD = 1.5d) double phiGlobal,
+      @Param(value = "topology", dS = "global") ParticleSwarmOptimization.Topology topology) {
     return exampleS -> new ParticleSwarmOptimization<>(
         mapper.mapperFor(exampleS),
         Representations.doubleString(initialMinV, initialMaxV, 0, 0)
@@ -300,7 +382,8 @@ public class Solvers {
         nPop,
         w,
         phiParticle,
-        phiGlobal);
+        phiGlobal,
+        topology);
   }
 
   @SuppressWarnings("unused")
@@ -332,6 +415,21 @@ public class Solvers {
     };
   }
 
+  @SuppressWarnings("unused")
+  public static <S, Q> Function<S, SeparableCMAEvolutionaryStrategy<S, Q>> sepCmaEs(
+      @Param(value = "name", dS = "sepCmaEs") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "nEval", dI = 1000) int nEval) {
+    return exampleS -> new SeparableCMAEvolutionaryStrategy<>(
+        mapper.mapperFor(exampleS),
+        Representations.doubleString(initialMinV, initialMaxV, 0, 0)
+            .apply(mapper.exampleFor(exampleS))
+            .factory(),
+        StopConditions.nOfFitnessEvaluations(nEval));
+  }
+
   @SuppressWarnings("unused")
   public static <S, Q> Function<S, SimpleEvolutionaryStrategy<S, Q>> simpleEs(
       @Param(value = "name", dS = "es") String name,
@@ -356,4 +454,70 @@ public class Solvers {
         sigma,
         remap);
   }
+
+  @SuppressWarnings("unused")
+  public static <S, Q> Function<S, SurrogateAssistedEvolver<List<Double>, S, Q>> surrogateGa(
+      @Param(value = "name", dS = "surrogateGa") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "crossoverP", dD = 0.8d) double crossoverP,
+      @Param(value = "sigmaMut", dD = 0.35d) double sigmaMut,
+      @Param(value = "tournamentRate", dD = 0.05d) double tournamentRate,
+      @Param(value = "minNTournament", dI = 3) int minNTournament,
+      @Param(value = "nPop", dI = 100) int nPop,
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "maxUniquenessAttempts", dI = 100) int maxUniquenessAttempts,
+      @Param(value = "remap") boolean remap,
+      @Param(value = "poolRate", dD = 3d) double poolRate,
+      @Param(value = "k", dI = 5) int k,
+      @Param(value = "archiveSize", dI = 500) int archiveSize) {
+    return exampleS -> {
+      Representation<List<Double>> r = Representations.doubleString(initialMinV, initialMaxV, crossoverP, sigmaMut)
+          .apply(mapper.exampleFor(exampleS));
+      return new SurrogateAssistedEvolver<>(
+          mapper.mapperFor(exampleS),
+          r.factory(),
+          nPop,
+          StopConditions.nOfFitnessEvaluations(nEval),
+          r.geneticOperators(crossoverP),
+          new Tournament(Math.max(minNTournament, (int) Math.ceil((double) nPop * tournamentRate))),
+          new Last(),
+          nPop,
+          true,
+          maxUniquenessAttempts,
+          remap,
+          () -> new KNNSurrogate<>(new LNorm(2), k, archiveSize),
+          (int) Math.ceil(nPop * poolRate));
+    };
+  }
+
+  @SuppressWarnings("unused")
+  public static <S, Q> Function<S, VectorizedDifferentialEvolution<S, Q>> vectorizedDe(
+      @Param(value = "name", dS = "vde") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "populationSize", dI = 100) int populationSize,
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "strategy", dS = "current_to_pbest_1") VectorizedDifferentialEvolution.Strategy strategy,
+      @Param(value = "differentialWeight", dD = 0.5) double differentialWeight,
+      @Param(value = "crossoverP", dD = 0.5) double crossoverP,
+      @Param(value = "adaptive", dB = true) boolean adaptive,
+      @Param(value = "memorySize", dI = 10) int memorySize,
+      @Param(value = "pBestRate", dD = 0.1) double pBestRate) {
+    return exampleS -> new VectorizedDifferentialEvolution<>(
+        mapper.mapperFor(exampleS),
+        Representations.doubleString(initialMinV, initialMaxV, 0, 0)
+            .apply(mapper.exampleFor(exampleS))
+            .factory(),
+        populationSize,
+        StopConditions.nOfFitnessEvaluations(nEval),
+        strategy,
+        differentialWeight,
+        crossoverP,
+        adaptive,
+        memorySize,
+        pBestRate);
+  }
 }
@@ -20,6 +20,9 @@
 
 package io.github.ericmedvet.jgea.experimenter.builders;
 
+import io.github.ericmedvet.jgea.problem.extraction.ExtractionFitness;
+import io.github.ericmedvet.jgea.problem.extraction.KFoldExtractionProblem;
+import io.github.ericmedvet.jgea.problem.extraction.string.RegexExtractionProblem;
 import io.github.ericmedvet.jgea.problem.grid.CharShapeApproximation;
 import io.github.ericmedvet.jgea.problem.synthetic.IntOneMax;
 import io.github.ericmedvet.jgea.problem.synthetic.MultiModalIntOneMax;
@@ -160,12 +163,43 @@ public class SyntheticProblems {
     return new Rastrigin(p);
   }
 
+  @SuppressWarnings("unused")
+  public static RegexExtractionProblem regexExtraction(
+      @Param(value = "name", iS = "regexExtraction-{symbols}") String name,
+      @Param(value = "symbols", dI = 2) int symbols,
+      @Param(value = "size", dI = 1000) int size,
+      @Param(value = "seed", dI = 1) int seed,
+      @Param(value = "metric", dS = "symbol_weighted_error") ExtractionFitness.Metric metric) {
+    return RegexExtractionProblem.varAlphabet(symbols, size, seed, metric);
+  }
+
+  @SuppressWarnings("unused")
+  public static KFoldExtractionProblem<Character> regexExtractionKFold(
+      @Param(value = "name", iS = "regexExtractionKFold-{symbols}-{folds}") String name,
+      @Param(value = "symbols", dI = 2) int symbols,
+      @Param(value = "size", dI = 1000) int size,
+      @Param(value = "seed", dI = 1) int seed,
+      @Param(value = "metric", dS = "symbol_weighted_error") ExtractionFitness.Metric metric,
+      @Param(value = "folds", dI = 5) int folds) {
+    return RegexExtractionProblem.varAlphabet(symbols, size, seed, metric).kFold(folds);
+  }
+
   @SuppressWarnings("unused")
   public static Rosenbrock rosenbrock(
       @Param(value = "name", iS = "rosenbrock-{p}") String name, @Param(value = "p", dI = 100) int p) {
     return new Rosenbrock(p);
   }
 
+  @SuppressWarnings("unused")
+  public static ShiftedRotatedProblem shiftedRotated(
+      @Param(value = "name", iS = "sr({problem.name})") String name,
+      @Param("problem") AbstractNumericalProblem problem,
+      @Param(value = "shiftRange", dD = 0.8d) double shiftRange,
+      @Param(value = "rotated", dB = true) boolean rotated,
+      @Param(value = "seed", dI = 1) int seed) {
+    return new ShiftedRotatedProblem(problem, shiftRange, rotated, seed);
+  }
+
   @SuppressWarnings("unused")
   public static Sphere sphere(
       @Param(value = "name", iS = "sphere-{p}") String name, @Param(value = "p", dI = 100) int p) {
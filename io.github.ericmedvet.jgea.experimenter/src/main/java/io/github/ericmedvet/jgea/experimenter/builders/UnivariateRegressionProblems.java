@@ -21,6 +21,7 @@
 package io.github.ericmedvet.jgea.experimenter.builders;
 
 import io.github.ericmedvet.jgea.problem.regression.ListNumericalDataset;
+import io.github.ericmedvet.jgea.problem.regression.LocalOptimizer;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionProblem;
@@ -33,14 +34,23 @@ import java.util.function.Supplier;
 
 @Discoverable(prefixTemplate = "ea.problem|p.univariateRegression|ur")
 public class UnivariateRegressionProblems {
+  private static final long MB = 1024L * 1024L;
+
   private UnivariateRegressionProblems() {}
 
+  private static LocalOptimizer localOptimizer(boolean linearScaling, int constantEvals) {
+    return (linearScaling || constantEvals > 0) ? new LocalOptimizer(linearScaling, constantEvals) : null;
+  }
+
   @SuppressWarnings("unused")
   public static UnivariateRegressionProblem<UnivariateRegressionFitness> bundled(
       @Param("name") String name,
       @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
       @Param(value = "xScaling", dS = "none") NumericalDataset.Scaling xScaling,
-      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling) {
+      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling,
+      @Param(value = "cacheMB", dI = 0) int cacheMB,
+      @Param(value = "linearScaling", dB = false) boolean linearScaling,
+      @Param(value = "constantEvals", dI = 0) int constantEvals) {
     NumericalDataset dataset;
     try {
       dataset = switch (name) {
@@ -57,10 +67,16 @@ public class UnivariateRegressionProblems {
     dataset = dataset.xScaled(xScaling).yScaled(yScaling);
     return switch (name) {
       case "concrete", "energy-efficiency", "wine" -> new UnivariateRegressionProblem<>(
-          new UnivariateRegressionFitness(dataset.folds(List.of(0, 1, 2, 3), 5), metric),
+          new UnivariateRegressionFitness(
+              dataset.folds(List.of(0, 1, 2, 3), 5),
+              metric,
+              cacheMB * MB,
+              localOptimizer(linearScaling, constantEvals)),
           new UnivariateRegressionFitness(dataset.folds(List.of(4), 5), metric));
       case "xor" -> new UnivariateRegressionProblem<>(
-          new UnivariateRegressionFitness(dataset, metric), new UnivariateRegressionFitness(dataset, metric));
+          new UnivariateRegressionFitness(
+              dataset, metric, cacheMB * MB, localOptimizer(linearScaling, constantEvals)),
+          new UnivariateRegressionFitness(dataset, metric));
       default -> throw new IllegalArgumentException("Unknown bundled dataset: %s".formatted(name));
     };
   }
@@ -72,10 +88,16 @@ public class UnivariateRegressionProblems {
       @Param(value = "testDataset", dNPM = "ea.d.num.empty()") Supplier<NumericalDataset> testDataset,
       @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
       @Param(value = "xScaling", dS = "none") NumericalDataset.Scaling xScaling,
-      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling) {
+      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling,
+      @Param(value = "cacheMB", dI = 0) int cacheMB,
+      @Param(value = "linearScaling", dB = false) boolean linearScaling,
+      @Param(value = "constantEvals", dI = 0) int constantEvals) {
     return new UnivariateRegressionProblem<>(
         new UnivariateRegressionFitness(
-            trainingDataset.get().xScaled(xScaling).yScaled(yScaling), metric),
+            trainingDataset.get().xScaled(xScaling).yScaled(yScaling),
+            metric,
+            cacheMB * MB,
+            localOptimizer(linearScaling, constantEvals)),
         testDataset != null ? new UnivariateRegressionFitness(testDataset.get(), metric) : null);
   }
 
@@ -83,8 +105,10 @@ public class UnivariateRegressionProblems {
   public static SyntheticUnivariateRegressionProblem synthetic(
       @Param("name") String name,
       @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
-      @Param(value = "seed", dI = 1) int seed) {
-    return switch (name) {
+      @Param(value = "seed", dI = 1) int seed,
+      @Param(value = "linearScaling", dB = false) boolean linearScaling,
+      @Param(value = "constantEvals", dI = 0) int constantEvals) {
+    SyntheticUnivariateRegressionProblem problem = switch (name) {
       case "keijzer6" -> new Keijzer6(metric);
       case "nguyen7" -> new Nguyen7(metric, seed);
       case "pagie1" -> new Pagie1(metric);
@@ -94,5 +118,7 @@ public class UnivariateRegressionProblems {
       case "xor" -> new Xor(metric);
       default -> throw new IllegalArgumentException("Unknown synthetic function: %s".formatted(name));
     };
+    LocalOptimizer localOptimizer = localOptimizer(linearScaling, constantEvals);
+    return localOptimizer == null ? problem : problem.withLocalOptimizer(localOptimizer);
   }
 }
@@ -0,0 +1,423 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-experimenter
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.experimenter.distributed;
+
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.experimenter.listener.net.NetUtils;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.random.RandomGenerator;
+
+public class EvaluationCoordinator implements AutoCloseable {
+
+  private static final Logger L = Logger.getLogger(EvaluationCoordinator.class.getName());
+  private static final int SERVER_SOCKET_TIMEOUT_MILLIS = 1000;
+  private static final int POLL_TIMEOUT_MILLIS = 100;
+
+  private final int serverPort;
+  private final String serverKey;
+  private final int heartbeatTimeoutMillis;
+  private final int stealAfterMillis;
+  private final int maxAttempts;
+  private final BlockingDeque<PendingTask> queue;
+  private final Map<Long, PendingTask> pendingTasks;
+  private final List<WorkerHandler> workerHandlers;
+  private final AtomicLong taskCounter;
+  private final ExecutorService executorService;
+  private volatile boolean isRunning;
+
+  public EvaluationCoordinator(
+      int serverPort, String serverKey, double heartbeatTimeout, double stealAfter, int maxAttempts) {
+    this.serverPort = serverPort;
+    this.serverKey = serverKey;
+    this.heartbeatTimeoutMillis = (int) (heartbeatTimeout * 1000d);
+    this.stealAfterMillis = (int) (stealAfter * 1000d);
+    this.maxAttempts = maxAttempts;
+    queue = new LinkedBlockingDeque<>();
+    pendingTasks = new ConcurrentHashMap<>();
+    workerHandlers = new CopyOnWriteArrayList<>();
+    taskCounter = new AtomicLong();
+    executorService = Executors.newCachedThreadPool();
+    // start server
+    isRunning = true;
+    executorService.submit(this::listen);
+  }
+
+  public record WorkerStats(
+      String name,
+      int nOfSlots,
+      boolean alive,
+      long nOfCompleted,
+      long nOfFailed,
+      long nOfLost,
+      double busySeconds,
+      double elapsedSeconds) {
+    public double throughput() {
+      return elapsedSeconds > 0 ? (double) nOfCompleted / elapsedSeconds : 0d;
+    }
+
+    public double utilization() {
+      return elapsedSeconds > 0 ? busySeconds / elapsedSeconds / (double) nOfSlots : 0d;
+    }
+  }
+
+  private static class PendingTask {
+    private final Message.Task task;
+    private final CompletableFuture<Object> future;
+    private final AtomicInteger nOfAttempts;
+    private final AtomicInteger nOfAssignments;
+    private volatile long lastAssignmentMillis;
+
+    private PendingTask(Message.Task task) {
+      this.task = task;
+      future = new CompletableFuture<>();
+      nOfAttempts = new AtomicInteger();
+      nOfAssignments = new AtomicInteger();
+    }
+  }
+
+  private class WorkerHandler {
+    private final Socket socket;
+    private final ObjectInputStream ois;
+    private final ObjectOutputStream oos;
+    private final String name;
+    private final int nOfSlots;
+    private final Semaphore freeSlots;
+    private final Map<Long, Long> inFlightTasks;
+    private final long startingMillis;
+    private final AtomicLong nOfCompleted;
+    private final AtomicLong nOfFailed;
+    private final AtomicLong nOfLost;
+    private final AtomicLong busyMillis;
+    private volatile long lastSeenMillis;
+    private volatile boolean alive;
+
+    private WorkerHandler(Socket socket, ObjectInputStream ois, ObjectOutputStream oos, Message.Hello hello) {
+      this.socket = socket;
+      this.ois = ois;
+      this.oos = oos;
+      name = hello.name();
+      nOfSlots = hello.nOfSlots();
+      freeSlots = new Semaphore(nOfSlots);
+      inFlightTasks = new ConcurrentHashMap<>();
+      startingMillis = System.currentTimeMillis();
+      nOfCompleted = new AtomicLong();
+      nOfFailed = new AtomicLong();
+      nOfLost = new AtomicLong();
+      busyMillis = new AtomicLong();
+      lastSeenMillis = startingMillis;
+      alive = true;
+    }
+
+    private PendingTask next() throws InterruptedException {
+      PendingTask pendingTask = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      while (pendingTask != null && pendingTask.future.isDone()) {
+        pendingTask = queue.poll();
+      }
+      if (pendingTask != null || stealAfterMillis <= 0) {
+        return pendingTask;
+      }
+      // steal a straggling task from another worker, the first outcome wins
+      long now = System.currentTimeMillis();
+      return pendingTasks.values().stream()
+          .filter(pt -> !pt.future.isDone()
+              && pt.nOfAssignments.get() == 1
+              && now - pt.lastAssignmentMillis > stealAfterMillis
+              && !inFlightTasks.containsKey(pt.task.id()))
+          .min(Comparator.comparingLong(pt -> pt.lastAssignmentMillis))
+          .orElse(null);
+    }
+
+    private void read() {
+      try {
+        while (isRunning && alive) {
+          Message message = (Message) ois.readObject();
+          lastSeenMillis = System.currentTimeMillis();
+          if (message instanceof Message.Outcome outcome) {
+            Long sentMillis = inFlightTasks.remove(outcome.id());
+            if (sentMillis == null) {
+              continue;
+            }
+            busyMillis.addAndGet(lastSeenMillis - sentMillis);
+            freeSlots.release();
+            PendingTask pendingTask = pendingTasks.get(outcome.id());
+            if (pendingTask == null) {
+              continue;
+            }
+            pendingTask.nOfAssignments.decrementAndGet();
+            String error = outcome.error();
+            if (error == null) {
+              try {
+                pendingTask.future.complete(Message.deserialize(outcome.quality()));
+                nOfCompleted.incrementAndGet();
+                continue;
+              } catch (IOException | ClassNotFoundException e) {
+                error = "cannot deserialize quality: %s".formatted(e);
+              }
+            }
+            nOfFailed.incrementAndGet();
+            pendingTask.future.completeExceptionally(
+                new RuntimeException("Cannot evaluate on %s: %s".formatted(name, error)));
+          }
+        }
+      } catch (SocketTimeoutException e) {
+        L.warning("Worker %s missed heartbeats, considering it lost".formatted(name));
+      } catch (IOException | ClassNotFoundException e) {
+        if (isRunning && alive) {
+          L.warning("Cannot read from worker %s due to: %s".formatted(name, e));
+        }
+      } finally {
+        terminate();
+      }
+    }
+
+    private void run() {
+      executorService.submit(this::read);
+      try {
+        while (isRunning && alive) {
+          if (!freeSlots.tryAcquire(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            continue;
+          }
+          PendingTask pendingTask = next();
+          if (pendingTask == null) {
+            freeSlots.release();
+            continue;
+          }
+          // registration is atomic with respect to terminate(), so that a polled task is either requeued by it
+          // or put back here
+          synchronized (this) {
+            if (!alive) {
+              if (pendingTask.nOfAssignments.get() == 0) {
+                queue.addFirst(pendingTask);
+              }
+              break;
+            }
+            pendingTask.nOfAssignments.incrementAndGet();
+            pendingTask.lastAssignmentMillis = System.currentTimeMillis();
+            inFlightTasks.put(pendingTask.task.id(), pendingTask.lastAssignmentMillis);
+          }
+          oos.writeObject(pendingTask.task);
+          oos.reset();
+          oos.flush();
+        }
+      } catch (IOException e) {
+        L.warning("Cannot send task to worker %s due to: %s".formatted(name, e));
+      } catch (InterruptedException e) {
+        // ignore
+      } finally {
+        terminate();
+      }
+    }
+
+    private synchronized void terminate() {
+      if (!alive) {
+        return;
+      }
+      alive = false;
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // ignore
+      }
+      // reschedule tasks which are not being evaluated elsewhere
+      for (long id : inFlightTasks.keySet()) {
+        inFlightTasks.remove(id);
+        nOfLost.incrementAndGet();
+        PendingTask pendingTask = pendingTasks.get(id);
+        if (pendingTask == null
+            || pendingTask.future.isDone()
+            || pendingTask.nOfAssignments.decrementAndGet() > 0) {
+          continue;
+        }
+        if (pendingTask.nOfAttempts.incrementAndGet() >= maxAttempts) {
+          pendingTask.future.completeExceptionally(
+              new IOException("Task lost %d times".formatted(pendingTask.nOfAttempts.get())));
+        } else {
+          queue.addFirst(pendingTask);
+        }
+      }
+      L.info("Worker %s disconnected".formatted(name));
+    }
+
+    private WorkerStats stats() {
+      return new WorkerStats(
+          name,
+          nOfSlots,
+          alive,
+          nOfCompleted.get(),
+          nOfFailed.get(),
+          nOfLost.get(),
+          (double) busyMillis.get() / 1000d,
+          (double) (System.currentTimeMillis() - startingMillis) / 1000d);
+    }
+  }
+
+  @Override
+  public void close() {
+    L.info("Closing");
+    isRunning = false;
+    workerHandlers.forEach(WorkerHandler::terminate);
+    pendingTasks.values().forEach(pt -> pt.future.completeExceptionally(new IOException("Coordinator closed")));
+    executorService.shutdownNow();
+  }
+
+  public <S, Q> QualityBasedProblem<S, Q> distributed(String problemId, QualityBasedProblem<S, Q> problem) {
+    return QualityBasedProblem.create(s -> evaluate(problemId, s), problem.qualityComparator());
+  }
+
+  public <S, Q> TotalOrderQualityBasedProblem<S, Q> distributed(
+      String problemId, TotalOrderQualityBasedProblem<S, Q> problem) {
+    return new TotalOrderQualityBasedProblem<>() {
+      @Override
+      public Comparator<Q> totalOrderComparator() {
+        return problem.totalOrderComparator();
+      }
+
+      @Override
+      public PartialComparator<Q> qualityComparator() {
+        return problem.qualityComparator();
+      }
+
+      @Override
+      public Function<S, Q> qualityFunction() {
+        return s -> evaluate(problemId, s);
+      }
+    };
+  }
+
+  private boolean doHandshake(ObjectInputStream ois, ObjectOutputStream oos) throws IOException {
+    RandomGenerator rg = new Random();
+    int n = rg.nextInt();
+    try {
+      oos.writeObject(NetUtils.encrypt(Integer.toString(n), serverKey));
+      int m = Integer.parseInt(NetUtils.decrypt((String) ois.readObject(), serverKey));
+      return (m == n + 1);
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  public <Q> Q evaluate(String problemId, Object solution) {
+    try {
+      return this.<Q>submit(problemId, solution).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  private void handleWorker(Socket socket) {
+    try {
+      socket.setSoTimeout(heartbeatTimeoutMillis);
+      socket.setTcpNoDelay(true);
+      ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream());
+      oos.flush();
+      ObjectInputStream ois = new ObjectInputStream(socket.getInputStream());
+      if (!doHandshake(ois, oos)) {
+        L.info("Bad attempt from %s: wrong handshake".formatted(socket.getInetAddress()));
+        socket.close();
+        return;
+      }
+      Message.Hello hello = (Message.Hello) ois.readObject();
+      WorkerHandler workerHandler = new WorkerHandler(socket, ois, oos, hello);
+      workerHandlers.add(workerHandler);
+      L.info("Worker %s connected with %d slots".formatted(hello.name(), hello.nOfSlots()));
+      workerHandler.run();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      L.warning("Cannot handle worker at %s due to: %s".formatted(socket.getInetAddress(), e));
+      try {
+        socket.close();
+      } catch (IOException ex) {
+        // ignore
+      }
+    }
+  }
+
+  private void listen() {
+    try (ServerSocket serverSocket = new ServerSocket(serverPort)) {
+      serverSocket.setSoTimeout(SERVER_SOCKET_TIMEOUT_MILLIS);
+      L.info("Coordinator started on port %d".formatted(serverPort));
+      while (isRunning) {
+        try {
+          Socket socket = serverSocket.accept();
+          executorService.submit(() -> handleWorker(socket));
+        } catch (SocketTimeoutException e) {
+          // ignore
+        } catch (IOException e) {
+          L.warning("Cannot accept connection due to: %s".formatted(e));
+        }
+      }
+    } catch (IOException e) {
+      L.severe("Cannot start coordinator due to: %s".formatted(e));
+    }
+  }
+
+  public int nOfPendingTasks() {
+    return pendingTasks.size();
+  }
+
+  public List<WorkerStats> stats() {
+    return workerHandlers.stream().map(WorkerHandler::stats).toList();
+  }
+
+  public <Q> Future<Q> submit(String problemId, Object solution) {
+    // serialized here, so that a non serializable solution fails its task instead of the workers
+    byte[] bytes;
+    try {
+      bytes = Message.serialize(solution);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(
+          new IOException("Cannot serialize solution for %s: %s".formatted(problemId, e)));
+    }
+    PendingTask pendingTask = new PendingTask(new Message.Task(taskCounter.getAndIncrement(), problemId, bytes));
+    pendingTasks.put(pendingTask.task.id(), pendingTask);
+    pendingTask.future.whenComplete((o, t) -> pendingTasks.remove(pendingTask.task.id()));
+    queue.addLast(pendingTask);
+    //noinspection unchecked
+    return (Future<Q>) pendingTask.future;
+  }
+}
@@ -0,0 +1,244 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-experimenter
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.experimenter.distributed;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.experimenter.listener.net.NetUtils;
+import io.github.ericmedvet.jnb.core.NamedBuilder;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import javax.crypto.BadPaddingException;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+
+public class EvaluationWorker implements Runnable {
+
+  private static final int DEFAULT_PORT = 10980;
+  private static final int RECONNECTION_INTERVAL_MILLIS = 1000;
+  private static final Logger L = Logger.getLogger(EvaluationWorker.class.getName());
+
+  private final String serverAddress;
+  private final int serverPort;
+  private final String serverKey;
+  private final int nOfThreads;
+  private final int heartbeatIntervalMillis;
+  private final Function<String, ? extends QualityBasedProblem<?, ?>> problemProvider;
+  private final Map<String, QualityBasedProblem<?, ?>> problems;
+  private volatile boolean isRunning;
+
+  public EvaluationWorker(
+      String serverAddress,
+      int serverPort,
+      String serverKey,
+      int nOfThreads,
+      double heartbeatInterval,
+      Function<String, ? extends QualityBasedProblem<?, ?>> problemProvider) {
+    this.serverAddress = serverAddress;
+    this.serverPort = serverPort;
+    this.serverKey = serverKey;
+    this.nOfThreads = nOfThreads;
+    this.heartbeatIntervalMillis = (int) (heartbeatInterval * 1000d);
+    this.problemProvider = problemProvider;
+    problems = new ConcurrentHashMap<>();
+    isRunning = true;
+  }
+
+  private static class CommandLineConfiguration {
+    @Parameter(
+        names = {"--address", "-a"},
+        description = "Coordinator address.")
+    public String address = "localhost";
+
+    @Parameter(
+        names = {"--port", "-p"},
+        description = "Coordinator port.")
+    public int port = DEFAULT_PORT;
+
+    @Parameter(
+        names = {"--key", "-k"},
+        description = "Handshake key.",
+        required = true)
+    public String key;
+
+    @Parameter(
+        names = {"--nOfThreads", "-nt"},
+        description = "Number of evaluation threads.")
+    public int nOfThreads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(
+        names = {"--heartbeatInterval", "-hi"},
+        description = "Interval in seconds between heartbeats.")
+    public double heartbeatInterval = 1;
+
+    @Parameter(
+        names = {"--help", "-h"},
+        description = "Show this help.",
+        help = true)
+    public boolean help;
+  }
+
+  public static void main(String[] args) {
+    CommandLineConfiguration cmdConfiguration = new CommandLineConfiguration();
+    JCommander jc = JCommander.newBuilder().addObject(cmdConfiguration).build();
+    jc.setProgramName(EvaluationWorker.class.getName());
+    try {
+      jc.parse(args);
+    } catch (ParameterException e) {
+      e.usage();
+      L.severe(String.format("Cannot read command line options: %s", e));
+      System.exit(-1);
+    } catch (Throwable e) {
+      L.severe(e.getClass().getSimpleName() + ": " + e.getMessage());
+      System.exit(-1);
+    }
+    // check help
+    if (cmdConfiguration.help) {
+      jc.usage();
+      System.exit(0);
+    }
+    // start worker
+    NamedBuilder<Object> nb = NamedBuilder.fromDiscovery();
+    new EvaluationWorker(
+            cmdConfiguration.address,
+            cmdConfiguration.port,
+            cmdConfiguration.key,
+            cmdConfiguration.nOfThreads,
+            cmdConfiguration.heartbeatInterval,
+            problemId -> (QualityBasedProblem<?, ?>) nb.build(problemId))
+        .run();
+  }
+
+  private void doHandshake(ObjectInputStream ois, ObjectOutputStream oos) throws IOException {
+    String challenge;
+    try {
+      challenge = (String) ois.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Cannot perform handshake due to %s".formatted(e.toString()));
+    }
+    String response;
+    try {
+      int n = Integer.parseInt(NetUtils.decrypt(challenge, serverKey));
+      response = NetUtils.encrypt(Integer.toString(n + 1), serverKey);
+    } catch (NoSuchAlgorithmException
+        | InvalidKeyException
+        | IllegalBlockSizeException
+        | NoSuchPaddingException
+        | InvalidAlgorithmParameterException
+        | InvalidKeySpecException e) {
+      throw new IOException("Cannot perform handshake due to %s".formatted(e.toString()));
+    } catch (BadPaddingException e) {
+      throw new IOException("Handshake failed, likely due to wrong key");
+    }
+    oos.writeObject(response);
+  }
+
+  private Message.Outcome evaluate(Message.Task task) {
+    try {
+      //noinspection unchecked
+      QualityBasedProblem<Object, Object> problem = (QualityBasedProblem<Object, Object>)
+          problems.computeIfAbsent(task.problemId(), problemProvider);
+      Object quality = problem.qualityFunction().apply(Message.deserialize(task.solution()));
+      return new Message.Outcome(task.id(), Message.serialize(quality), null);
+    } catch (Throwable e) {
+      L.warning("Cannot evaluate task %d due to: %s".formatted(task.id(), e));
+      return new Message.Outcome(task.id(), null, e.toString());
+    }
+  }
+
+  @Override
+  public void run() {
+    while (isRunning) {
+      try {
+        serve();
+      } catch (IOException e) {
+        L.warning("Connection to %s:%d lost due to: %s".formatted(serverAddress, serverPort, e));
+      }
+      try {
+        Thread.sleep(RECONNECTION_INTERVAL_MILLIS);
+      } catch (InterruptedException e) {
+        isRunning = false;
+      }
+    }
+  }
+
+  private void send(ObjectOutputStream oos, Message message) {
+    synchronized (oos) {
+      try {
+        oos.writeObject(message);
+        oos.reset();
+        oos.flush();
+      } catch (IOException e) {
+        L.warning("Cannot send message due to: %s".formatted(e));
+      }
+    }
+  }
+
+  private void serve() throws IOException {
+    ExecutorService executorService = Executors.newFixedThreadPool(nOfThreads);
+    ScheduledExecutorService heartbeatService = Executors.newSingleThreadScheduledExecutor();
+    try (Socket socket = new Socket(serverAddress, serverPort)) {
+      socket.setTcpNoDelay(true);
+      ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream());
+      oos.flush();
+      ObjectInputStream ois = new ObjectInputStream(socket.getInputStream());
+      doHandshake(ois, oos);
+      send(oos, new Message.Hello("%s@%s".formatted(NetUtils.getProcessName(), NetUtils.getMachineName()), nOfThreads));
+      L.info("Connected to %s:%d".formatted(serverAddress, serverPort));
+      heartbeatService.scheduleAtFixedRate(
+          () -> send(oos, new Message.Heartbeat(System.currentTimeMillis())),
+          0,
+          heartbeatIntervalMillis,
+          TimeUnit.MILLISECONDS);
+      while (isRunning) {
+        Message.Task task;
+        try {
+          task = (Message.Task) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+          throw new IOException("Cannot read task due to: %s".formatted(e));
+        }
+        executorService.submit(() -> send(oos, evaluate(task)));
+      }
+    } finally {
+      heartbeatService.shutdownNow();
+      executorService.shutdownNow();
+    }
+  }
+
+  public void stop() {
+    isRunning = false;
+  }
+}
@@ -22,32 +22,96 @@ package io.github.ericmedvet.jgea.experimenter.listener.decoupled;
 import io.github.ericmedvet.jgea.core.util.Pair;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author "Eric Medvet" on 2023/11/03 for jgea
  */
 public abstract class AbstractAutoPurgingSource<K, V> implements Source<K, V> {
 
-  protected final Map<Pair<LocalDateTime, K>, V> map;
-  private LocalDateTime lastPullLocalDateTime = LocalDateTime.MIN;
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final int capacity;
+  private final Map<K, Ring<V>> rings;
+  private LocalDateTime lastPullT = LocalDateTime.MIN;
 
   public AbstractAutoPurgingSource() {
-    this.map = new LinkedHashMap<>();
+    this(DEFAULT_CAPACITY);
+  }
+
+  public AbstractAutoPurgingSource(int capacity) {
+    this.capacity = capacity;
+    rings = new ConcurrentHashMap<>();
+  }
+
+  private record Entry<V>(long sequence, LocalDateTime t, V v) {}
+
+  // an append-only ring buffer with a single consumer: the watermark is the sequence number of the next entry to be
+  // pulled; entries which are overwritten before being pulled are lost, i.e., they are purged
+  private static class Ring<V> {
+    private final AtomicReferenceArray<Entry<V>> entries;
+    private final AtomicLong head;
+    private long watermark;
+    private volatile LocalDateTime lastT;
+
+    private Ring(int capacity) {
+      entries = new AtomicReferenceArray<>(capacity);
+      head = new AtomicLong();
+    }
+
+    private void append(LocalDateTime t, V v) {
+      long sequence = head.getAndIncrement();
+      entries.set(index(sequence), new Entry<>(sequence, t, v));
+      lastT = t;
+    }
+
+    private boolean isStale(LocalDateTime t) {
+      return watermark >= head.get() && lastT.isBefore(t);
+    }
+
+    private int index(long sequence) {
+      return (int) (sequence % entries.length());
+    }
+
+    private <K> void pull(K k, Map<Pair<LocalDateTime, K>, V> outMap) {
+      long sequence = Math.max(watermark, head.get() - entries.length());
+      for (; sequence < head.get(); sequence = sequence + 1) {
+        Entry<V> entry = entries.get(index(sequence));
+        if (entry == null || entry.sequence() < sequence) {
+          break; // not yet written
+        }
+        if (entry.sequence() == sequence) {
+          outMap.put(new Pair<>(entry.t(), k), entry.v());
+          entries.compareAndSet(index(sequence), entry, null);
+        }
+      }
+      watermark = sequence;
+    }
+  }
+
+  protected void add(LocalDateTime t, K k, V v) {
+    // appending inside compute() makes it atomic with respect to the removal of stale rings
+    rings.compute(k, (key, ring) -> {
+      Ring<V> r = ring == null ? new Ring<>(capacity) : ring;
+      r.append(t, v);
+      return r;
+    });
   }
 
   @Override
   public Map<Pair<LocalDateTime, K>, V> pull(LocalDateTime t) {
-    Map<Pair<LocalDateTime, K>, V> outMap;
-    synchronized (map) {
-      List<Pair<LocalDateTime, K>> toRemovePs = map.keySet().stream()
-          .filter(p -> p.first().isBefore(lastPullLocalDateTime))
-          .toList();
-      toRemovePs.forEach(map::remove);
-      outMap = new LinkedHashMap<>(map);
+    Map<Pair<LocalDateTime, K>, V> outMap = new LinkedHashMap<>();
+    synchronized (rings) {
+      rings.forEach((k, ring) -> ring.pull(k, outMap));
+      // rings of keys with nothing new since the previous pull are purged
+      for (K k : rings.keySet()) {
+        rings.computeIfPresent(k, (key, ring) -> ring.isStale(lastPullT) ? null : ring);
+      }
+      lastPullT = t;
     }
-    lastPullLocalDateTime = t;
     return outMap;
   }
 }
@@ -19,7 +19,6 @@
  */
 package io.github.ericmedvet.jgea.experimenter.listener.decoupled;
 
-import io.github.ericmedvet.jgea.core.util.Pair;
 import java.time.LocalDateTime;
 
 /**
@@ -34,8 +33,6 @@ public class DirectSinkSource<K, V> extends AbstractAutoPurgingSource<K, V> impl
 
   @Override
   public void push(LocalDateTime t, K k, V v) {
-    synchronized (map) {
-      map.put(new Pair<>(t, k), v);
-    }
+    add(t, k, v);
   }
 }
@@ -51,6 +51,7 @@ public class TuiMonitor implements Runnable {
   private static final String DATETIME_FORMAT = "%1$tm-%1$td %1$tH:%1$tM:%1$tS";
 
   private static final String VALUE_NAME = "VALUE";
+  private static final int N_OF_LAST_ITEMS = 3;
 
   private final Configuration configuration;
   private final ScheduledExecutorService uiExecutorService;
@@ -68,6 +69,12 @@ public class TuiMonitor implements Runnable {
   private final Table<Pair<LocalDateTime, ExperimentKey>, String, ExperimentInfo> experimentTable;
   private final Table<Pair<LocalDateTime, RunKey>, String, RunInfo> runTable;
   private final Table<Pair<LocalDateTime, DataItemKey>, String, DataItemInfo> dataItemTable;
+  private final Map<MachineKey, LocalDateTime> machineLastTimes;
+  private final Map<ProcessKey, Pair<LocalDateTime, ProcessInfo>> lastProcessInfos;
+  private final Map<ExperimentKey, Pair<LocalDateTime, ExperimentInfo>> lastExperimentInfos;
+  private final Map<RunKey, Pair<LocalDateTime, RunInfo>> lastRunInfos;
+  private final Map<RunKey, Deque<Pair<LocalDateTime, RunKey>>> runRows;
+  private final Map<DataItemKey, Deque<Pair<LocalDateTime, DataItemKey>>> dataItemRows;
   private final LogCapturer logCapturer;
   private LocalDateTime lastRefreshLocalDateTime = LocalDateTime.MIN;
   private final Supplier<String> title;
@@ -115,6 +122,12 @@ public class TuiMonitor implements Runnable {
     experimentTable = new HashMapTable<>();
     runTable = new HashMapTable<>();
     dataItemTable = new HashMapTable<>();
+    machineLastTimes = new LinkedHashMap<>();
+    lastProcessInfos = new LinkedHashMap<>();
+    lastExperimentInfos = new LinkedHashMap<>();
+    lastRunInfos = new LinkedHashMap<>();
+    runRows = new HashMap<>();
+    dataItemRows = new HashMap<>();
     logCapturer = new LogCapturer(
         lr -> logTable.set(
             new Pair<>(LocalDateTime.now(), ProcessKey.local()),
@@ -164,79 +177,98 @@ public class TuiMonitor implements Runnable {
         .compareTo(es2.get(0).getValue().startLocalDateTime());
   }
 
+  private static <K, V> void updateLast(Map<K, Pair<LocalDateTime, V>> map, Pair<LocalDateTime, K> p, V v) {
+    map.merge(p.second(), new Pair<>(p.first(), v), (o, n) -> n.first().isBefore(o.first()) ? o : n);
+  }
+
+  private static <K, V> void keepLast(
+      Table<Pair<LocalDateTime, K>, String, V> table,
+      Map<K, Deque<Pair<LocalDateTime, K>>> rows,
+      Pair<LocalDateTime, K> p) {
+    Deque<Pair<LocalDateTime, K>> deque = rows.computeIfAbsent(p.second(), k -> new ArrayDeque<>());
+    if (!p.equals(deque.peekLast())) {
+      deque.addLast(p);
+    }
+    while (deque.size() > N_OF_LAST_ITEMS) {
+      table.removeRow(deque.removeFirst());
+    }
+  }
+
+  private static <K, V> Map<K, V> values(Map<K, Pair<LocalDateTime, V>> map) {
+    Map<K, V> values = new LinkedHashMap<>();
+    map.forEach((k, p) -> values.put(k, p.second()));
+    return values;
+  }
+
   private void refreshTables() {
-    machineSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> machineTable.set(p, VALUE_NAME, v));
-    processSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> processTable.set(p, VALUE_NAME, v));
+    // sources return only the items pushed since the last pull: aggregates are updated item by item
+    machineSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> {
+      machineTable.set(p, VALUE_NAME, v);
+      machineLastTimes.merge(p.second(), p.first(), (t1, t2) -> t1.isAfter(t2) ? t1 : t2);
+    });
+    processSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> {
+      processTable.set(p, VALUE_NAME, v);
+      updateLast(lastProcessInfos, p, v);
+    });
     logSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> logTable.set(p, VALUE_NAME, v));
-    experimentSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> experimentTable.set(p, VALUE_NAME, v));
-    runSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> runTable.set(p, VALUE_NAME, v));
-    dataItemSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> dataItemTable.set(p, VALUE_NAME, v));
+    experimentSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> {
+      experimentTable.set(p, VALUE_NAME, v);
+      updateLast(lastExperimentInfos, p, v);
+    });
+    runSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> {
+      runTable.set(p, VALUE_NAME, v);
+      updateLast(lastRunInfos, p, v);
+      keepLast(runTable, runRows, p);
+    });
+    dataItemSource.pull(lastRefreshLocalDateTime).forEach((p, v) -> {
+      dataItemTable.set(p, VALUE_NAME, v);
+      keepLast(dataItemTable, dataItemRows, p);
+    });
     lastRefreshLocalDateTime = LocalDateTime.now();
     // TODO align remote and local times
     LocalDateTime now = LocalDateTime.now();
-    // prune shallowly
-    List<Pair<LocalDateTime, RunKey>> toRemoveRKs = runTable
-        .aggregateByIndexSingle(Pair::second, Comparator.comparing(Pair::first), es -> es.stream()
-            .map(Map.Entry::getKey)
-            .sorted((p1, p2) -> p2.first().compareTo(p1.first()))
-            .skip(3)
-            .toList())
-        .columnValues(VALUE_NAME)
-        .stream()
-        .flatMap(List::stream)
-        .toList();
-    toRemoveRKs.forEach(runTable::removeRow);
-    List<Pair<LocalDateTime, DataItemKey>> toRemoveDIKs = dataItemTable
-        .aggregateByIndexSingle(Pair::second, Comparator.comparing(Pair::first), es -> es.stream()
-            .map(Map.Entry::getKey)
-            .sorted((p1, p2) -> p2.first().compareTo(p1.first()))
-            .skip(3)
-            .toList())
-        .columnValues(VALUE_NAME)
-        .stream()
-        .flatMap(List::stream)
-        .toList();
-    toRemoveDIKs.forEach(dataItemTable::removeRow);
     // prune deeply
-    List<Pair<LocalDateTime, MachineKey>> toRemoveMKs = machineTable
-        .aggregateByIndexSingle(Pair::second, (p1, p2) -> p2.first().compareTo(p1.first()), vs -> "")
-        .rowIndexes()
-        .stream()
-        .filter(p -> p.first().until(now, ChronoUnit.SECONDS) > configuration.purgeThreshold)
-        .map(Pair::second)
-        .map(mk -> machineTable.rowIndexes().stream()
-            .filter(p -> p.second().equals(mk))
-            .toList())
-        .flatMap(List::stream)
-        .toList();
-    List<Pair<LocalDateTime, ProcessKey>> toRemovePKs = processTable
-        .aggregateByIndexSingle(Pair::second, (p1, p2) -> p2.first().compareTo(p1.first()), vs -> "")
-        .rowIndexes()
-        .stream()
-        .filter(p -> p.first().until(now, ChronoUnit.SECONDS) > configuration.purgeThreshold)
-        .map(Pair::second)
-        .map(pk -> processTable.rowIndexes().stream()
-            .filter(p -> p.second().equals(pk))
-            .toList())
-        .flatMap(List::stream)
-        .toList();
-    List<Pair<LocalDateTime, ExperimentKey>> toRemoveEKs = experimentTable.rowIndexes().stream()
-        .filter(ep -> toRemovePKs.stream()
-            .anyMatch(pp -> pp.second().equals(ep.second().processKey())))
-        .toList();
-    toRemoveRKs = runTable.rowIndexes().stream()
-        .filter(rp -> toRemovePKs.stream().anyMatch(pp -> pp.second()
-            .equals(rp.second().experimentKey().processKey())))
-        .toList();
-    toRemoveDIKs = dataItemTable.rowIndexes().stream()
-        .filter(dip -> toRemovePKs.stream().anyMatch(pp -> pp.second()
-            .equals(dip.second().runKey().experimentKey().processKey())))
-        .toList();
-    toRemoveMKs.forEach(machineTable::removeRow);
-    toRemovePKs.forEach(processTable::removeRow);
-    toRemoveEKs.forEach(experimentTable::removeRow);
-    toRemoveRKs.forEach(runTable::removeRow);
-    toRemoveDIKs.forEach(dataItemTable::removeRow);
+    Set<MachineKey> toRemoveMKs = machineLastTimes.entrySet().stream()
+        .filter(e -> e.getValue().until(now, ChronoUnit.SECONDS) > configuration.purgeThreshold)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+    Set<ProcessKey> toRemovePKs = lastProcessInfos.entrySet().stream()
+        .filter(e -> e.getValue().first().until(now, ChronoUnit.SECONDS) > configuration.purgeThreshold)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+    if (!toRemoveMKs.isEmpty()) {
+      machineTable.rowIndexes().stream()
+          .filter(p -> toRemoveMKs.contains(p.second()))
+          .toList()
+          .forEach(machineTable::removeRow);
+      machineLastTimes.keySet().removeAll(toRemoveMKs);
+    }
+    if (!toRemovePKs.isEmpty()) {
+      processTable.rowIndexes().stream()
+          .filter(p -> toRemovePKs.contains(p.second()))
+          .toList()
+          .forEach(processTable::removeRow);
+      experimentTable.rowIndexes().stream()
+          .filter(p -> toRemovePKs.contains(p.second().processKey()))
+          .toList()
+          .forEach(experimentTable::removeRow);
+      runTable.rowIndexes().stream()
+          .filter(p -> toRemovePKs.contains(p.second().experimentKey().processKey()))
+          .toList()
+          .forEach(runTable::removeRow);
+      dataItemTable.rowIndexes().stream()
+          .filter(p -> toRemovePKs.contains(
+              p.second().runKey().experimentKey().processKey()))
+          .toList()
+          .forEach(dataItemTable::removeRow);
+      lastProcessInfos.keySet().removeAll(toRemovePKs);
+      lastExperimentInfos.keySet().removeIf(ek -> toRemovePKs.contains(ek.processKey()));
+      lastRunInfos.keySet().removeIf(rk -> toRemovePKs.contains(rk.experimentKey().processKey()));
+      runRows.keySet().removeIf(rk -> toRemovePKs.contains(rk.experimentKey().processKey()));
+      dataItemRows
+          .keySet()
+          .removeIf(dik -> toRemovePKs.contains(dik.runKey().experimentKey().processKey()));
+    }
     while (logTable.nRows() > configuration.logHistorySize) {
       logTable.removeRow(logTable.rowIndexes().get(0));
     }
@@ -284,26 +316,13 @@ public class TuiMonitor implements Runnable {
     TuiDrawer td = new TuiDrawer(screen.newTextGraphics());
     // prepare data
     refreshTables();
-    List<MachineKey> machineKeys =
-        machineTable.rowIndexes().stream().map(Pair::second).distinct().toList();
-    List<ExperimentKey> experimentsKeys = experimentTable.rowIndexes().stream()
-        .map(Pair::second)
-        .distinct()
-        .toList();
+    List<MachineKey> machineKeys = List.copyOf(machineLastTimes.keySet());
+    List<ExperimentKey> experimentsKeys = List.copyOf(lastExperimentInfos.keySet());
     LocalDateTime machineHistoryStartTime = LocalDateTime.now().minusSeconds(configuration.machineHistorySeconds);
     LocalDateTime machineHistoryEndTime = LocalDateTime.now();
-    Map<ProcessKey, ProcessInfo> processInfos = processTable
-        .aggregateByIndexSingle(Pair::second, Comparator.comparing(Pair::first), vs -> last(vs).getValue())
-        .remapRowIndex(Pair::second)
-        .column(VALUE_NAME);
-    Map<RunKey, RunInfo> runInfos = runTable.aggregateByIndexSingle(
-            Pair::second, Comparator.comparing(Pair::first), vs -> last(vs).getValue())
-        .remapRowIndex(Pair::second)
-        .column(VALUE_NAME);
-    Map<ExperimentKey, ExperimentInfo> experimentInfos = experimentTable
-        .aggregateByIndexSingle(Pair::second, Comparator.comparing(Pair::first), vs -> last(vs).getValue())
-        .remapRowIndex(Pair::second)
-        .column(VALUE_NAME);
+    Map<ProcessKey, ProcessInfo> processInfos = values(lastProcessInfos);
+    Map<RunKey, RunInfo> runInfos = values(lastRunInfos);
+    Map<ExperimentKey, ExperimentInfo> experimentInfos = values(lastExperimentInfos);
     List<String> dataItemNames = experimentInfos.values().stream()
         .map(ei -> ei.formats().stream().map(Pair::first).toList())
         .flatMap(List::stream)
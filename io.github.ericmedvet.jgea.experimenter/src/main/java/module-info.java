@@ -22,8 +22,11 @@ module io.github.ericmedvet.jgea.experimenter {
       io.github.ericmedvet.jnb.core;
   opens io.github.ericmedvet.jgea.experimenter.listener.net to
       jcommander;
+  opens io.github.ericmedvet.jgea.experimenter.distributed to
+      jcommander;
 
   exports io.github.ericmedvet.jgea.experimenter;
+  exports io.github.ericmedvet.jgea.experimenter.distributed;
   exports io.github.ericmedvet.jgea.experimenter.listener;
   exports io.github.ericmedvet.jgea.experimenter.listener.plot.accumulator;
 
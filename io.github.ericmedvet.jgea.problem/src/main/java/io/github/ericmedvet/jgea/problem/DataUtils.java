@@ -20,7 +20,9 @@
 
 package io.github.ericmedvet.jgea.problem;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.IntStream;
 
 public class DataUtils {
@@ -29,6 +31,37 @@ public class DataUtils {
     return folds(items, List.of(fold), n);
   }
 
+  // the indexes of the items of each fold, consistently with fold() and folds()
+  public static int[][] foldIndexes(int size, int n) {
+    return IntStream.range(0, n)
+        .mapToObj(f -> IntStream.range(0, size).filter(i -> i % n == f).toArray())
+        .toArray(int[][]::new);
+  }
+
+  public static <E> List<E> view(List<E> items, int[] indexes) {
+    return new IndexedView<>(items, indexes);
+  }
+
+  private static class IndexedView<E> extends AbstractList<E> implements RandomAccess {
+    private final List<E> items;
+    private final int[] indexes;
+
+    private IndexedView(List<E> items, int[] indexes) {
+      this.items = items;
+      this.indexes = indexes;
+    }
+
+    @Override
+    public E get(int index) {
+      return items.get(indexes[index]);
+    }
+
+    @Override
+    public int size() {
+      return indexes.length;
+    }
+  }
+
   public static <E> List<E> folds(List<E> items, List<Integer> folds, int n) {
     return IntStream.range(0, items.size())
         .filter(i -> folds.contains(i % n))
@@ -0,0 +1,48 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public record KFoldQuality(List<List<Double>> learningQualities, List<List<Double>> validationQualities) {
+
+  private static List<Double> mean(List<List<Double>> qualities) {
+    return IntStream.range(0, qualities.get(0).size())
+        .mapToObj(j -> qualities.stream()
+            .mapToDouble(q -> q.get(j))
+            .average()
+            .orElse(Double.NaN))
+        .toList();
+  }
+
+  public List<Double> learningQuality() {
+    return mean(learningQualities);
+  }
+
+  public int nOfFolds() {
+    return learningQualities.size();
+  }
+
+  public List<Double> validationQuality() {
+    return mean(validationQualities);
+  }
+}
@@ -26,11 +26,13 @@ import io.github.ericmedvet.jgea.core.util.Pair;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public class ClassificationFitness<O, L extends Enum<L>>
     extends ListCaseBasedFitness<Classifier<O, L>, O, L, List<Double>> {
 
   private final List<Pair<O, L>> data;
+  private final Metric errorMetric;
   private final List<String> names;
 
   @SuppressWarnings("unchecked")
@@ -40,6 +42,7 @@ public class ClassificationFitness<O, L extends Enum<L>>
         Classifier::classify,
         getAggregator(data.stream().map(Pair::second).toList(), errorMetric));
     this.data = data;
+    this.errorMetric = errorMetric;
     names = new ArrayList<>();
     if (errorMetric.equals(Metric.CLASS_ERROR_RATE)) {
       L protoLabel = data.get(0).second();
@@ -91,41 +94,37 @@ public class ClassificationFitness<O, L extends Enum<L>>
   private static <E extends Enum<E>> Function<List<E>, List<Double>> getAggregator(
       List<E> actualLabels, Metric metric) {
     final ClassErrorRate<E> classErrorRate = new ClassErrorRate<>(actualLabels);
+    return (List<E> predictedLabels) -> values(classErrorRate.apply(predictedLabels), metric);
+  }
+
+  // pairs are (errors, count) for each label
+  static List<Double> values(List<Pair<Integer, Integer>> pairs, Metric metric) {
     if (metric.equals(Metric.CLASS_ERROR_RATE)) {
-      return (List<E> predictedLabels) -> {
-        List<Pair<Integer, Integer>> pairs = classErrorRate.apply(predictedLabels);
-        return pairs.stream()
-            .map(p -> ((double) p.first() / (double) p.second()))
-            .toList();
-      };
+      return pairs.stream()
+          .map(p -> ((double) p.first() / (double) p.second()))
+          .toList();
     }
     if (metric.equals(Metric.ERROR_RATE)) {
-      return (List<E> predictedLabels) -> {
-        List<Pair<Integer, Integer>> pairs = classErrorRate.apply(predictedLabels);
-        int errors = pairs.stream()
-            .map(Pair::first)
-            .mapToInt(Integer::intValue)
-            .sum();
-        int count = pairs.stream()
-            .map(Pair::second)
-            .mapToInt(Integer::intValue)
-            .sum();
-        return List.of((double) errors / (double) count);
-      };
+      int errors = pairs.stream().map(Pair::first).mapToInt(Integer::intValue).sum();
+      int count = pairs.stream().map(Pair::second).mapToInt(Integer::intValue).sum();
+      return List.of((double) errors / (double) count);
     }
     if (metric.equals(Metric.BALANCED_ERROR_RATE)) {
-      return (List<E> predictedLabels) -> {
-        List<Pair<Integer, Integer>> pairs = classErrorRate.apply(predictedLabels);
-        return List.of(pairs.stream()
-            .map(p -> ((double) p.first() / (double) p.second()))
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(Double.NaN));
-      };
+      return List.of(pairs.stream()
+          .map(p -> ((double) p.first() / (double) p.second()))
+          .mapToDouble(Double::doubleValue)
+          .average()
+          .orElse(Double.NaN));
     }
     return null;
   }
 
+  @Override
+  public Function<List<L>, List<Double>> aggregateFunction(int[] caseIndexes) {
+    return getAggregator(
+        IntStream.of(caseIndexes).mapToObj(i -> data.get(i).second()).toList(), errorMetric);
+  }
+
   public ClassificationFitness<O, L> changeMetric(Metric metric) {
     return new ClassificationFitness<>(data, metric);
   }
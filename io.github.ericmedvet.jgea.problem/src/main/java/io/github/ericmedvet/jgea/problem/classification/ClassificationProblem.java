@@ -38,6 +38,9 @@ public class ClassificationProblem<O, L extends Enum<L>>
   private final ClassificationFitness<O, L> validationFunction;
   private final List<Pair<O, L>> learningData;
   private final List<Pair<O, L>> validationData;
+  private final List<Pair<O, L>> data;
+  private final ClassificationFitness.Metric learningMetric;
+  private final ClassificationFitness.Metric validationMetric;
 
   public ClassificationProblem(
       List<Pair<O, L>> data,
@@ -45,6 +48,9 @@ public class ClassificationProblem<O, L extends Enum<L>>
       int i,
       ClassificationFitness.Metric learningMetric,
       ClassificationFitness.Metric validationMetric) {
+    this.data = data;
+    this.learningMetric = learningMetric;
+    this.validationMetric = validationMetric;
     validationData = DataUtils.fold(data, i, folds);
     learningData = new ArrayList<>(data);
     learningData.removeAll(validationData);
@@ -60,6 +66,10 @@ public class ClassificationProblem<O, L extends Enum<L>>
     return validationData;
   }
 
+  public KFoldClassificationProblem<O, L> kFold(int folds) {
+    return new KFoldClassificationProblem<>(data, folds, learningMetric, validationMetric);
+  }
+
   @Override
   public PartialComparator<List<Double>> qualityComparator() {
     return COMPARATOR;
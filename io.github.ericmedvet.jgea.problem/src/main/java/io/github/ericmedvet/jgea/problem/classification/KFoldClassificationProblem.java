@@ -0,0 +1,118 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+
+package io.github.ericmedvet.jgea.problem.classification;
+
+import io.github.ericmedvet.jgea.core.order.ParetoDominance;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.util.Pair;
+import io.github.ericmedvet.jgea.problem.DataUtils;
+import io.github.ericmedvet.jgea.problem.KFoldQuality;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+public class KFoldClassificationProblem<O, L extends Enum<L>>
+    implements QualityBasedProblem<Classifier<O, L>, KFoldQuality> {
+
+  private static final PartialComparator<KFoldQuality> COMPARATOR =
+      ParetoDominance.build(Double.class, 1).comparing(KFoldQuality::learningQuality);
+
+  private final List<Pair<O, L>> data;
+  private final int[][] foldIndexes;
+  private final ClassificationFitness.Metric learningMetric;
+  private final ClassificationFitness.Metric validationMetric;
+  private final int nOfLabels;
+  private final Function<Classifier<O, L>, KFoldQuality> qualityFunction;
+
+  public KFoldClassificationProblem(
+      List<Pair<O, L>> data,
+      int folds,
+      ClassificationFitness.Metric learningMetric,
+      ClassificationFitness.Metric validationMetric) {
+    this.data = data;
+    this.learningMetric = learningMetric;
+    this.validationMetric = validationMetric;
+    foldIndexes = DataUtils.foldIndexes(data.size(), folds);
+    nOfLabels = data.get(0).second().getDeclaringClass().getEnumConstants().length;
+    qualityFunction = this::quality;
+  }
+
+  private int[][] counts(Classifier<O, L> classifier, int[] indexes) {
+    // errors and number of cases for each label
+    int[][] counts = new int[2][nOfLabels];
+    for (int i : indexes) {
+      Pair<O, L> pair = data.get(i);
+      int label = pair.second().ordinal();
+      counts[1][label] = counts[1][label] + 1;
+      if (!pair.second().equals(classifier.classify(pair.first()))) {
+        counts[0][label] = counts[0][label] + 1;
+      }
+    }
+    return counts;
+  }
+
+  public List<Pair<O, L>> getFoldData(int fold) {
+    return DataUtils.view(data, foldIndexes[fold]);
+  }
+
+  public int nOfFolds() {
+    return foldIndexes.length;
+  }
+
+  private KFoldQuality quality(Classifier<O, L> classifier) {
+    // each case is classified once, the per-fold counts are then summed up to get the learning qualities
+    List<int[][]> foldCounts = IntStream.range(0, foldIndexes.length)
+        .parallel()
+        .mapToObj(f -> counts(classifier, foldIndexes[f]))
+        .toList();
+    int[][] totalCounts = new int[2][nOfLabels];
+    foldCounts.forEach(c -> IntStream.range(0, nOfLabels).forEach(l -> {
+      totalCounts[0][l] = totalCounts[0][l] + c[0][l];
+      totalCounts[1][l] = totalCounts[1][l] + c[1][l];
+    }));
+    List<List<Double>> learningQualities = new ArrayList<>(foldIndexes.length);
+    List<List<Double>> validationQualities = new ArrayList<>(foldIndexes.length);
+    for (int[][] counts : foldCounts) {
+      List<Pair<Integer, Integer>> learningPairs = new ArrayList<>(nOfLabels);
+      List<Pair<Integer, Integer>> validationPairs = new ArrayList<>(nOfLabels);
+      for (int l = 0; l < nOfLabels; l++) {
+        learningPairs.add(Pair.of(totalCounts[0][l] - counts[0][l], totalCounts[1][l] - counts[1][l]));
+        validationPairs.add(Pair.of(counts[0][l], counts[1][l]));
+      }
+      learningQualities.add(ClassificationFitness.values(learningPairs, learningMetric));
+      validationQualities.add(ClassificationFitness.values(validationPairs, validationMetric));
+    }
+    return new KFoldQuality(learningQualities, validationQualities);
+  }
+
+  @Override
+  public PartialComparator<KFoldQuality> qualityComparator() {
+    return COMPARATOR;
+  }
+
+  @Override
+  public Function<Classifier<O, L>, KFoldQuality> qualityFunction() {
+    return qualityFunction;
+  }
+}
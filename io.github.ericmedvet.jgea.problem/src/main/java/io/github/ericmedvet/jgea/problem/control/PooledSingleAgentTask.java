@@ -0,0 +1,99 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import java.util.Deque;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+/**
+ * A single agent task that simulates episodes with environments taken from a pool. When {@code reuseEnvironments} is
+ * true, environments are not rebuilt for each episode: they are reset with {@link Environment#reset()} and reused,
+ * hence {@code reset()} must bring an environment back to exactly the state of a freshly supplied one (including any
+ * internal random generator). By default, a fresh environment is used for each episode.
+ */
+public class PooledSingleAgentTask<C extends DynamicalSystem<O, A, ?>, O, A, S>
+    implements SingleAgentTask<C, O, A, S> {
+
+  private final Supplier<Environment<O, A, S>> environmentSupplier;
+  private final DoubleRange tRange;
+  private final double dT;
+  private final boolean reuseEnvironments;
+  private final Deque<Environment<O, A, S>> environments;
+
+  public PooledSingleAgentTask(
+      Supplier<Environment<O, A, S>> environmentSupplier,
+      DoubleRange tRange,
+      double dT,
+      boolean reuseEnvironments) {
+    this.environmentSupplier = environmentSupplier;
+    this.tRange = tRange;
+    this.dT = dT;
+    this.reuseEnvironments = reuseEnvironments;
+    environments = new ConcurrentLinkedDeque<>();
+  }
+
+  public PooledSingleAgentTask(Supplier<Environment<O, A, S>> environmentSupplier, DoubleRange tRange, double dT) {
+    this(environmentSupplier, tRange, dT, false);
+  }
+
+  @Override
+  public SortedMap<Double, Step<O, A, S>> simulate(C controller) {
+    Environment<O, A, S> environment = borrow();
+    try {
+      SortedMap<Double, Step<O, A, S>> behavior = new TreeMap<>();
+      double t = tRange.min();
+      controller.reset();
+      O observation = environment.step(t, environment.defaultAgentAction());
+      while (t < tRange.max()) {
+        A action = controller.step(t, observation);
+        observation = environment.step(t, action);
+        behavior.put(t, new Step<>(observation, action, environment.getState()));
+        t = t + dT;
+      }
+      return behavior;
+    } finally {
+      if (reuseEnvironments) {
+        environments.add(environment);
+      }
+    }
+  }
+
+  public int poolSize() {
+    return environments.size();
+  }
+
+  private Environment<O, A, S> borrow() {
+    Environment<O, A, S> environment = environments.pollFirst();
+    if (environment == null) {
+      return environmentSupplier.get();
+    }
+    // reused environments rely on reset() restoring the initial state
+    environment.reset();
+    return environment;
+  }
+}
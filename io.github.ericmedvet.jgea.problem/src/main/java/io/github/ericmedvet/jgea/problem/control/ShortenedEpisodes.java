@@ -0,0 +1,77 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Quality functions of a single agent control problem at a reduced fidelity, where the fidelity is the fraction of
+ * the episode duration that is actually simulated.
+ */
+class ShortenedEpisodes<C extends DynamicalSystem<O, A, ?>, O, A, S, Q> {
+
+  private final Supplier<Environment<O, A, S>> environment;
+  private final Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction;
+  private final DoubleRange tRange;
+  private final double dT;
+  private final double behaviorRetentionInterval;
+  private final boolean reuseEnvironments;
+  private final Map<Double, PooledSingleAgentTask<C, O, A, S>> tasks;
+
+  ShortenedEpisodes(
+      Supplier<Environment<O, A, S>> environment,
+      Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
+      DoubleRange tRange,
+      double dT,
+      double behaviorRetentionInterval,
+      boolean reuseEnvironments) {
+    this.environment = environment;
+    this.behaviorQualityFunction = behaviorQualityFunction;
+    this.tRange = tRange;
+    this.dT = dT;
+    this.behaviorRetentionInterval = behaviorRetentionInterval;
+    this.reuseEnvironments = reuseEnvironments;
+    tasks = new ConcurrentHashMap<>();
+  }
+
+  Function<C, SingleAgentControlProblem.Outcome<O, A, S, Q>> qualityFunction(double fidelity) {
+    PooledSingleAgentTask<C, O, A, S> task = tasks.computeIfAbsent(
+        fidelity,
+        f -> new PooledSingleAgentTask<>(
+            environment,
+            new DoubleRange(tRange.min(), tRange.min() + tRange.extent() * f),
+            dT,
+            reuseEnvironments));
+    return c -> {
+      SortedMap<Double, SingleAgentTask.Step<O, A, S>> behavior = task.simulate(c);
+      return new SingleAgentControlProblem.Outcome<>(behavior, behaviorQualityFunction.apply(behavior))
+          .downsampled(behaviorRetentionInterval);
+    };
+  }
+}
@@ -56,8 +56,49 @@ public interface SingleAgentComparableQualityControlProblem<
           Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
           DoubleRange tRange,
           double dT) {
-    SingleAgentTask<C, O, A, S> singleAgentTask = SingleAgentTask.fromEnvironment(environment, tRange, dT);
+    return fromEnvironment(environment, example, behaviorQualityFunction, tRange, dT, 0);
+  }
+
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S, Q extends Comparable<Q>>
+      SingleAgentComparableQualityControlProblem<C, O, A, S, Q> fromEnvironment(
+          Supplier<Environment<O, A, S>> environment,
+          C example,
+          Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
+          DoubleRange tRange,
+          double dT,
+          double behaviorRetentionInterval) {
+    return fromEnvironment(environment, example, behaviorQualityFunction, tRange, dT, behaviorRetentionInterval, false);
+  }
+
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S, Q extends Comparable<Q>>
+      SingleAgentComparableQualityControlProblem<C, O, A, S, Q> fromEnvironment(
+          Supplier<Environment<O, A, S>> environment,
+          C example,
+          Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
+          DoubleRange tRange,
+          double dT,
+          double behaviorRetentionInterval,
+          boolean reuseEnvironments) {
+    PooledSingleAgentTask<C, O, A, S> singleAgentTask =
+        new PooledSingleAgentTask<>(environment, tRange, dT, reuseEnvironments);
+    ShortenedEpisodes<C, O, A, S, Q> shortenedEpisodes = new ShortenedEpisodes<>(
+        environment, behaviorQualityFunction, tRange, dT, behaviorRetentionInterval, reuseEnvironments);
     return new SingleAgentComparableQualityControlProblem<>() {
+      @Override
+      public double behaviorRetentionInterval() {
+        return behaviorRetentionInterval;
+      }
+
+      @Override
+      public boolean supportsFidelity() {
+        return true;
+      }
+
+      @Override
+      public Function<C, Outcome<O, A, S, Q>> qualityFunction(double fidelity) {
+        return fidelity >= 1d ? qualityFunction() : shortenedEpisodes.qualityFunction(fidelity);
+      }
+
       @Override
       public Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction() {
         return behaviorQualityFunction;
@@ -36,19 +36,38 @@
 package io.github.ericmedvet.jgea.problem.control;
 
 import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.problem.MultiFidelityProblem;
 import io.github.ericmedvet.jgea.core.problem.ProblemWithExampleSolution;
-import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.control.Environment;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import java.util.Collections;
+import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 public interface SingleAgentControlProblem<C extends DynamicalSystem<O, A, ?>, O, A, S, Q>
-    extends QualityBasedProblem<C, SingleAgentControlProblem.Outcome<O, A, S, Q>>, ProblemWithExampleSolution<C> {
-  record Outcome<O, A, S, Q>(SortedMap<Double, SingleAgentTask.Step<O, A, S>> behavior, Q quality) {}
+    extends MultiFidelityProblem<C, SingleAgentControlProblem.Outcome<O, A, S, Q>>, ProblemWithExampleSolution<C> {
+  record Outcome<O, A, S, Q>(SortedMap<Double, SingleAgentTask.Step<O, A, S>> behavior, Q quality) {
+    public Outcome<O, A, S, Q> downsampled(double interval) {
+      if (interval <= 0 || behavior.size() <= 2) {
+        return this;
+      }
+      SortedMap<Double, SingleAgentTask.Step<O, A, S>> kept = new TreeMap<>();
+      double lastT = Double.NEGATIVE_INFINITY;
+      for (Map.Entry<Double, SingleAgentTask.Step<O, A, S>> entry : behavior.entrySet()) {
+        if (entry.getKey() - lastT >= interval) {
+          kept.put(entry.getKey(), entry.getValue());
+          lastT = entry.getKey();
+        }
+      }
+      kept.put(behavior.lastKey(), behavior.get(behavior.lastKey()));
+      return new Outcome<>(Collections.unmodifiableSortedMap(kept), quality);
+    }
+  }
 
   Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction();
 
@@ -61,8 +80,50 @@ public interface SingleAgentControlProblem<C extends DynamicalSystem<O, A, ?>, O
       PartialComparator<Outcome<O, A, S, Q>> qualityComparator,
       DoubleRange tRange,
       double dT) {
-    SingleAgentTask<C, O, A, S> singleAgentTask = SingleAgentTask.fromEnvironment(environment, tRange, dT);
+    return fromEnvironment(environment, example, behaviorQualityFunction, qualityComparator, tRange, dT, 0);
+  }
+
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S, Q> SingleAgentControlProblem<C, O, A, S, Q> fromEnvironment(
+      Supplier<Environment<O, A, S>> environment,
+      C example,
+      Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
+      PartialComparator<Outcome<O, A, S, Q>> qualityComparator,
+      DoubleRange tRange,
+      double dT,
+      double behaviorRetentionInterval) {
+    return fromEnvironment(
+        environment, example, behaviorQualityFunction, qualityComparator, tRange, dT, behaviorRetentionInterval, false);
+  }
+
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S, Q> SingleAgentControlProblem<C, O, A, S, Q> fromEnvironment(
+      Supplier<Environment<O, A, S>> environment,
+      C example,
+      Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction,
+      PartialComparator<Outcome<O, A, S, Q>> qualityComparator,
+      DoubleRange tRange,
+      double dT,
+      double behaviorRetentionInterval,
+      boolean reuseEnvironments) {
+    PooledSingleAgentTask<C, O, A, S> singleAgentTask =
+        new PooledSingleAgentTask<>(environment, tRange, dT, reuseEnvironments);
+    ShortenedEpisodes<C, O, A, S, Q> shortenedEpisodes = new ShortenedEpisodes<>(
+        environment, behaviorQualityFunction, tRange, dT, behaviorRetentionInterval, reuseEnvironments);
     return new SingleAgentControlProblem<>() {
+      @Override
+      public double behaviorRetentionInterval() {
+        return behaviorRetentionInterval;
+      }
+
+      @Override
+      public boolean supportsFidelity() {
+        return true;
+      }
+
+      @Override
+      public Function<C, Outcome<O, A, S, Q>> qualityFunction(double fidelity) {
+        return fidelity >= 1d ? qualityFunction() : shortenedEpisodes.qualityFunction(fidelity);
+      }
+
       @Override
       public Function<SortedMap<Double, SingleAgentTask.Step<O, A, S>>, Q> behaviorQualityFunction() {
         return behaviorQualityFunction;
@@ -85,12 +146,28 @@ public interface SingleAgentControlProblem<C extends DynamicalSystem<O, A, ?>, O
     };
   }
 
+  default double behaviorRetentionInterval() {
+    return 0;
+  }
+
+  @Override
+  default Function<C, SingleAgentControlProblem.Outcome<O, A, S, Q>> qualityFunction(double fidelity) {
+    return qualityFunction();
+  }
+
+  // the default quality function ignores the fidelity
+  @Override
+  default boolean supportsFidelity() {
+    return false;
+  }
+
   @Override
   default Function<C, SingleAgentControlProblem.Outcome<O, A, S, Q>> qualityFunction() {
     return c -> {
       SortedMap<Double, SingleAgentTask.Step<O, A, S>> behavior =
           singleAgentTask().simulate(c);
-      return new Outcome<>(behavior, behaviorQualityFunction().apply(behavior));
+      return new Outcome<>(behavior, behaviorQualityFunction().apply(behavior))
+          .downsampled(behaviorRetentionInterval());
     };
   }
 }
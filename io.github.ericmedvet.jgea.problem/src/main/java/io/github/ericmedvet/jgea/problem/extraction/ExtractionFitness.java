@@ -20,17 +20,37 @@
 
 package io.github.ericmedvet.jgea.problem.extraction;
 
+import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.CompiledDFA;
+import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.DeterministicFiniteAutomaton;
 import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.Extractor;
 import io.github.ericmedvet.jgea.core.util.IntRange;
+import io.github.ericmedvet.jgea.problem.extraction.string.RegexBasedExtractor;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public class ExtractionFitness<S> implements Function<Extractor<S>, List<Double>> {
 
+  private static final int RESULTS_CACHE_SIZE = 1000;
+
   private final Aggregator<S> aggregator;
+  private final Map<RegexBasedExtractor, Counts> regexResults;
+  private final LongAdder nOfEvaluations;
+  private final LongAdder nOfCachedEvaluations;
+  private final LongAdder nanos;
 
   public ExtractionFitness(List<S> sequence, Set<IntRange> desiredExtractions, Metric... metrics) {
     aggregator = new Aggregator<S>(sequence, desiredExtractions, metrics);
+    regexResults = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<RegexBasedExtractor, Counts> eldest) {
+        return size() > RESULTS_CACHE_SIZE;
+      }
+    };
+    nOfEvaluations = new LongAdder();
+    nOfCachedEvaluations = new LongAdder();
+    nanos = new LongAdder();
   }
 
   public enum Metric {
@@ -43,13 +63,44 @@ public class ExtractionFitness<S> implements Function<Extractor<S>, List<Double>
     SYMBOL_WEIGHTED_ERROR;
   }
 
-  private static class Aggregator<S> implements Function<Set<IntRange>, List<Double>> {
+  // statistics from which all the metrics are computed
+  public record Counts(
+      int nOfCorrectExtractions,
+      int nOfExtractions,
+      int nOfDesiredExtractions,
+      int nOfExtractedSymbols,
+      int nOfTruePositiveSymbols,
+      int nOfPositiveSymbols,
+      int nOfMaskSymbols,
+      int nOfSymbols) {}
+
+  public record Stats(long nOfEvaluations, long nOfCachedEvaluations, long nOfSymbols, long nanos) {
+    public double evaluationsPerSecond() {
+      return nanos == 0 ? 0d : (double) nOfEvaluations / (double) nanos * 1e9;
+    }
+
+    public double cacheHitRate() {
+      return nOfEvaluations == 0 ? 0d : (double) nOfCachedEvaluations / (double) nOfEvaluations;
+    }
+
+    public double symbolsPerSecond() {
+      return nanos == 0 ? 0d : (double) (nOfEvaluations - nOfCachedEvaluations) * nOfSymbols / (double) nanos * 1e9;
+    }
+  }
+
+  private static class Aggregator<S> implements Function<Set<IntRange>, Counts> {
 
     private final List<S> sequence;
     private final Set<IntRange> desiredExtractions;
     private final List<Metric> metrics;
     private final BitSet desiredExtractionMask;
     private final int positiveSymbols;
+    private final List<S> alphabet;
+    private final int[] encodedSequence;
+    private final int[] sortedDesiredExtractions;
+    private final boolean rangeMetrics;
+    private final boolean symbolMetrics;
+    private final String text;
 
     public Aggregator(List<S> sequence, Set<IntRange> desiredExtractions, Metric... metrics) {
       this.sequence = sequence;
@@ -57,42 +108,114 @@ public class ExtractionFitness<S> implements Function<Extractor<S>, List<Double>
       this.metrics = Arrays.asList(metrics);
       desiredExtractionMask = buildMask(desiredExtractions, sequence.size());
       positiveSymbols = desiredExtractionMask.cardinality();
+      alphabet = sequence.stream().distinct().toList();
+      Map<S, Integer> codes = new HashMap<>();
+      alphabet.forEach(s -> codes.put(s, codes.size()));
+      encodedSequence = sequence.stream().mapToInt(codes::get).toArray();
+      sortedDesiredExtractions = desiredExtractions.stream()
+          .sorted(Comparator.comparingInt(IntRange::min).thenComparingInt(IntRange::max))
+          .flatMapToInt(r -> IntStream.of(r.min(), r.max()))
+          .toArray();
+      rangeMetrics = this.metrics.contains(Metric.ONE_MINUS_FM)
+          || this.metrics.contains(Metric.ONE_MINUS_PREC)
+          || this.metrics.contains(Metric.ONE_MINUS_REC);
+      symbolMetrics = this.metrics.contains(Metric.SYMBOL_ERROR)
+          || this.metrics.contains(Metric.SYMBOL_FNR)
+          || this.metrics.contains(Metric.SYMBOL_FPR)
+          || this.metrics.contains(Metric.SYMBOL_WEIGHTED_ERROR);
+      if (sequence.stream().allMatch(s -> s instanceof Character)) {
+        StringBuilder sb = new StringBuilder(sequence.size());
+        sequence.forEach(sb::append);
+        text = sb.toString();
+      } else {
+        text = null;
+      }
     }
 
     @Override
-    public List<Double> apply(Set<IntRange> extractions) {
-      Map<Metric, Double> values = new EnumMap<>(Metric.class);
-      if (metrics.contains(Metric.ONE_MINUS_FM)
-          || metrics.contains(Metric.ONE_MINUS_PREC)
-          || metrics.contains(Metric.ONE_MINUS_REC)) {
-        // precision and recall
+    public Counts apply(Set<IntRange> extractions) {
+      int nOfCorrectExtractions = 0;
+      if (rangeMetrics) {
         Set<IntRange> correctExtractions = new LinkedHashSet<>(extractions);
         correctExtractions.retainAll(desiredExtractions);
-        double recall = (double) correctExtractions.size() / (double) desiredExtractions.size();
-        double precision = (double) correctExtractions.size() / (double) extractions.size();
+        nOfCorrectExtractions = correctExtractions.size();
+      }
+      return counts(
+          nOfCorrectExtractions,
+          extractions.size(),
+          symbolMetrics ? buildMask(extractions, sequence.size()) : null);
+    }
+
+    // extractions are packed as min/max pairs, sorted by min and then by max, with no duplicates
+    public Counts apply(int[] extractions) {
+      int nOfCorrectExtractions = 0;
+      if (rangeMetrics) {
+        int i = 0;
+        int j = 0;
+        while (i < extractions.length && j < sortedDesiredExtractions.length) {
+          int c = extractions[i] != sortedDesiredExtractions[j]
+              ? Integer.compare(extractions[i], sortedDesiredExtractions[j])
+              : Integer.compare(extractions[i + 1], sortedDesiredExtractions[j + 1]);
+          if (c == 0) {
+            nOfCorrectExtractions = nOfCorrectExtractions + 1;
+            i = i + 2;
+            j = j + 2;
+          } else if (c < 0) {
+            i = i + 2;
+          } else {
+            j = j + 2;
+          }
+        }
+      }
+      BitSet extractionMask = null;
+      if (symbolMetrics) {
+        extractionMask = new BitSet(sequence.size());
+        for (int i = 0; i < extractions.length; i = i + 2) {
+          extractionMask.set(extractions[i], extractions[i + 1]);
+        }
+      }
+      return counts(nOfCorrectExtractions, extractions.length / 2, extractionMask);
+    }
+
+    private Counts counts(int nOfCorrectExtractions, int nOfExtractions, BitSet extractionMask) {
+      int nOfExtractedSymbols = 0;
+      int nOfTruePositiveSymbols = 0;
+      if (symbolMetrics) {
+        nOfExtractedSymbols = extractionMask.cardinality();
+        extractionMask.and(desiredExtractionMask);
+        nOfTruePositiveSymbols = extractionMask.cardinality();
+      }
+      return new Counts(
+          nOfCorrectExtractions,
+          nOfExtractions,
+          desiredExtractions.size(),
+          nOfExtractedSymbols,
+          nOfTruePositiveSymbols,
+          positiveSymbols,
+          desiredExtractionMask.length(),
+          sequence.size());
+    }
+
+    private List<Double> values(Counts counts) {
+      Map<Metric, Double> values = new EnumMap<>(Metric.class);
+      if (rangeMetrics) {
+        // precision and recall
+        double recall = (double) counts.nOfCorrectExtractions / (double) counts.nOfDesiredExtractions;
+        double precision = (double) counts.nOfCorrectExtractions / (double) counts.nOfExtractions;
         double fMeasure = 2d * precision * recall / (precision + recall);
         values.put(Metric.ONE_MINUS_PREC, 1 - precision);
         values.put(Metric.ONE_MINUS_REC, 1 - recall);
         values.put(Metric.ONE_MINUS_FM, 1 - fMeasure);
       }
-      if (metrics.contains(Metric.SYMBOL_ERROR)
-          || metrics.contains(Metric.SYMBOL_FNR)
-          || metrics.contains(Metric.SYMBOL_FPR)
-          || metrics.contains(Metric.SYMBOL_WEIGHTED_ERROR)) {
-        BitSet extractionMask = buildMask(extractions, sequence.size());
-        int extractedSymbols = extractionMask.cardinality();
-        extractionMask.and(desiredExtractionMask);
-        double truePositiveSymbols = extractionMask.cardinality();
-        double falseNegativeSymbols = positiveSymbols - truePositiveSymbols;
-        double falsePositiveSymbols = extractedSymbols - truePositiveSymbols;
-        double trueNegativeChars = desiredExtractionMask.length()
-            - falsePositiveSymbols
-            - truePositiveSymbols
-            - falseNegativeSymbols;
+      if (symbolMetrics) {
+        double truePositiveSymbols = counts.nOfTruePositiveSymbols;
+        double falseNegativeSymbols = counts.nOfPositiveSymbols - truePositiveSymbols;
+        double falsePositiveSymbols = counts.nOfExtractedSymbols - truePositiveSymbols;
+        double trueNegativeChars =
+            counts.nOfMaskSymbols - falsePositiveSymbols - truePositiveSymbols - falseNegativeSymbols;
         values.put(Metric.SYMBOL_FPR, falsePositiveSymbols / (trueNegativeChars + falsePositiveSymbols));
         values.put(Metric.SYMBOL_FNR, falseNegativeSymbols / (truePositiveSymbols + falseNegativeSymbols));
-        values.put(
-            Metric.SYMBOL_ERROR, (falsePositiveSymbols + falseNegativeSymbols) / (double) sequence.size());
+        values.put(Metric.SYMBOL_ERROR, (falsePositiveSymbols + falseNegativeSymbols) / (double) counts.nOfSymbols);
         values.put(
             Metric.SYMBOL_WEIGHTED_ERROR,
             (falsePositiveSymbols / (trueNegativeChars + falsePositiveSymbols)
@@ -137,6 +260,42 @@ public class ExtractionFitness<S> implements Function<Extractor<S>, List<Double>
 
   @Override
   public List<Double> apply(Extractor<S> e) {
+    return aggregator.values(counts(e));
+  }
+
+  public Counts counts(Extractor<S> e) {
+    long startingNanos = System.nanoTime();
+    nOfEvaluations.increment();
+    try {
+      return compute(e);
+    } finally {
+      nanos.add(System.nanoTime() - startingNanos);
+    }
+  }
+
+  private Counts compute(Extractor<S> e) {
+    if (e instanceof RegexBasedExtractor regexBasedExtractor && aggregator.text != null) {
+      // the same regex is often found in many individuals: compute it once on this text
+      Counts counts;
+      synchronized (regexResults) {
+        counts = regexResults.get(regexBasedExtractor);
+      }
+      if (counts != null) {
+        nOfCachedEvaluations.increment();
+        return counts;
+      }
+      counts = aggregator.apply(regexBasedExtractor.extractNonOverlapping(aggregator.text));
+      synchronized (regexResults) {
+        regexResults.put(regexBasedExtractor, counts);
+      }
+      return counts;
+    }
+    if (e instanceof DeterministicFiniteAutomaton<S> dfa) {
+      return aggregator.apply(dfa.compile(aggregator.alphabet).extractNonOverlapping(aggregator.encodedSequence));
+    }
+    if (e instanceof CompiledDFA<S> compiledDFA && compiledDFA.getAlphabet().equals(aggregator.alphabet)) {
+      return aggregator.apply(compiledDFA.extractNonOverlapping(aggregator.encodedSequence));
+    }
     return aggregator.apply(e.extractNonOverlapping(aggregator.sequence));
   }
 
@@ -152,7 +311,15 @@ public class ExtractionFitness<S> implements Function<Extractor<S>, List<Double>
     return aggregator.getMetrics();
   }
 
+  public List<Double> values(Counts counts) {
+    return aggregator.values(counts);
+  }
+
   public List<S> getSequence() {
     return aggregator.sequence;
   }
+
+  public Stats stats() {
+    return new Stats(nOfEvaluations.sum(), nOfCachedEvaluations.sum(), aggregator.sequence.size(), nanos.sum());
+  }
 }
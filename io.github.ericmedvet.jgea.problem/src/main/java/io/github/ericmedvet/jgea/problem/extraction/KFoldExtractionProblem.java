@@ -0,0 +1,74 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+
+package io.github.ericmedvet.jgea.problem.extraction;
+
+import io.github.ericmedvet.jgea.core.order.ParetoDominance;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.Extractor;
+import io.github.ericmedvet.jgea.problem.KFoldQuality;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+public class KFoldExtractionProblem<S> implements QualityBasedProblem<Extractor<S>, KFoldQuality> {
+
+  private final List<ExtractionProblem<S>> foldProblems;
+  private final PartialComparator<KFoldQuality> qualityComparator;
+  private final Function<Extractor<S>, KFoldQuality> qualityFunction;
+
+  public KFoldExtractionProblem(
+      Set<Extractor<S>> extractors, List<S> sequence, int folds, ExtractionFitness.Metric... metrics) {
+    // learning is done on the concatenation of the other pieces, as in ExtractionProblem, since extractions may
+    // span piece boundaries and not all the metrics can be computed from per-piece counts
+    foldProblems = IntStream.range(0, folds)
+        .mapToObj(i -> new ExtractionProblem<>(extractors, sequence, folds, i, metrics))
+        .toList();
+    qualityComparator = ParetoDominance.build(Double.class, metrics.length).comparing(KFoldQuality::learningQuality);
+    qualityFunction = this::quality;
+  }
+
+  public List<ExtractionProblem<S>> getFoldProblems() {
+    return foldProblems;
+  }
+
+  private KFoldQuality quality(Extractor<S> extractor) {
+    List<List<List<Double>>> qualities = foldProblems.stream()
+        .parallel()
+        .map(p -> List.of(p.qualityFunction().apply(extractor), p.validationQualityFunction().apply(extractor)))
+        .toList();
+    return new KFoldQuality(
+        qualities.stream().map(q -> q.get(0)).toList(),
+        qualities.stream().map(q -> q.get(1)).toList());
+  }
+
+  @Override
+  public PartialComparator<KFoldQuality> qualityComparator() {
+    return qualityComparator;
+  }
+
+  @Override
+  public Function<Extractor<S>, KFoldQuality> qualityFunction() {
+    return qualityFunction;
+  }
+}
@@ -23,44 +23,81 @@ package io.github.ericmedvet.jgea.problem.extraction.string;
 import io.github.ericmedvet.jgea.core.representation.graph.finiteautomata.Extractor;
 import io.github.ericmedvet.jgea.core.util.IntRange;
 import io.github.ericmedvet.jgea.core.util.Sized;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class RegexBasedExtractor implements Extractor<Character>, Sized {
 
   private final String regex;
+  private final boolean dfa;
 
-  public RegexBasedExtractor(String regex) {
+  public RegexBasedExtractor(String regex, boolean dfa) {
     this.regex = regex;
+    this.dfa = dfa;
+  }
+
+  public RegexBasedExtractor(String regex) {
+    this(regex, false);
+  }
+
+  public static Function<String, Extractor<Character>> mapper(boolean dfa) {
+    return s -> new RegexBasedExtractor(s, dfa);
+  }
+
+  private static String toString(List<Character> sequence) {
+    StringBuilder sb = new StringBuilder(sequence.size());
+    sequence.forEach(sb::append);
+    return sb.toString();
   }
 
   @Override
   public Set<IntRange> extract(List<Character> sequence) {
-    String string = sequence.stream().map(String::valueOf).collect(Collectors.joining());
-    if (Pattern.compile(regex).matcher("").matches()) {
-      return Set.of();
-    }
-    Matcher matcher = Pattern.compile(regex).matcher(string);
+    int[] ranges = extractNonOverlapping(toString(sequence));
     Set<IntRange> extractions = new LinkedHashSet<>();
+    for (int i = 0; i < ranges.length; i = i + 2) {
+      extractions.add(new IntRange(ranges[i], ranges[i + 1]));
+    }
+    return extractions;
+  }
+
+  // extractions are packed as min/max pairs, sorted and non overlapping
+  public int[] extractNonOverlapping(String string) {
+    RegexCache.Compiled compiled = RegexCache.shared().get(regex, dfa);
+    if (compiled.dfa() != null) {
+      return compiled.dfa().extractNonOverlapping(string);
+    }
+    if (compiled.matchesEmpty()) {
+      return new int[0];
+    }
+    Matcher matcher = compiled.pattern().matcher(string);
+    int[] ranges = new int[16];
+    int n = 0;
     int s = 0;
     while (matcher.find(s)) {
-      IntRange extraction = new IntRange(matcher.start(), matcher.end());
-      s = extraction.max();
-      extractions.add(extraction);
+      if (2 * n + 2 > ranges.length) {
+        ranges = Arrays.copyOf(ranges, ranges.length * 2);
+      }
+      ranges[2 * n] = matcher.start();
+      ranges[2 * n + 1] = matcher.end();
+      n = n + 1;
+      s = matcher.end();
     }
-    return extractions;
+    return Arrays.copyOf(ranges, 2 * n);
   }
 
   @Override
   public boolean match(List<Character> sequence) {
-    String string = sequence.stream().map(String::valueOf).collect(Collectors.joining());
-    Matcher matcher = Pattern.compile(regex).matcher(string);
-    return matcher.matches();
+    String string = toString(sequence);
+    RegexCache.Compiled compiled = RegexCache.shared().get(regex, dfa);
+    if (compiled.dfa() != null) {
+      return compiled.dfa().matches(string);
+    }
+    return compiled.pattern().matcher(string).matches();
   }
 
   @Override
@@ -70,7 +107,7 @@ public class RegexBasedExtractor implements Extractor<Character>, Sized {
 
   @Override
   public int hashCode() {
-    return Objects.hash(regex);
+    return Objects.hash(regex, dfa);
   }
 
   @Override
@@ -78,7 +115,7 @@ public class RegexBasedExtractor implements Extractor<Character>, Sized {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     RegexBasedExtractor that = (RegexBasedExtractor) o;
-    return regex.equals(that.regex);
+    return regex.equals(that.regex) && dfa == that.dfa;
   }
 
   @Override
@@ -0,0 +1,101 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+
+package io.github.ericmedvet.jgea.problem.extraction.string;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.regex.Pattern;
+
+public class RegexCache {
+
+  private static final int DEFAULT_MAX_SIZE = 10000;
+  private static final RegexCache SHARED = new RegexCache(DEFAULT_MAX_SIZE);
+
+  private final int maxSize;
+  private final LinkedHashMap<Key, Compiled> cache;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public RegexCache(int maxSize) {
+    this.maxSize = maxSize;
+    cache = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  record Compiled(Pattern pattern, boolean matchesEmpty, RegexDFA dfa) {}
+
+  private record Key(String regex, boolean dfa) {}
+
+  public record Stats(long hits, long misses, long evictions, int nOfEntries) {
+    public double hitRate() {
+      return (hits + misses) == 0 ? 0d : (double) hits / (double) (hits + misses);
+    }
+  }
+
+  public static RegexCache shared() {
+    return SHARED;
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  Compiled get(String regex, boolean dfa) {
+    Key key = new Key(regex, dfa);
+    synchronized (cache) {
+      Compiled compiled = cache.get(key);
+      if (compiled != null) {
+        hits = hits + 1;
+        return compiled;
+      }
+      misses = misses + 1;
+    }
+    // compiled outside the lock: concurrent misses on the same regex just compile it twice
+    Pattern pattern = Pattern.compile(regex);
+    Compiled compiled =
+        new Compiled(pattern, pattern.matcher("").matches(), dfa ? RegexDFA.compile(regex) : null);
+    synchronized (cache) {
+      cache.put(key, compiled);
+      Iterator<Compiled> iterator = cache.values().iterator();
+      while (cache.size() > maxSize && iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+        evictions = evictions + 1;
+      }
+    }
+    return compiled;
+  }
+
+  public Stats stats() {
+    synchronized (cache) {
+      return new Stats(hits, misses, evictions, cache.size());
+    }
+  }
+
+  @Override
+  public String toString() {
+    Stats stats = stats();
+    return "RegexCache{n=%d, hitRate=%.3f}".formatted(stats.nOfEntries, stats.hitRate());
+  }
+}
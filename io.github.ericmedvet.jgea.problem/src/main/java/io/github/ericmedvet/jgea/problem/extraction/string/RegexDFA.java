@@ -0,0 +1,515 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+
+package io.github.ericmedvet.jgea.problem.extraction.string;
+
+import java.util.*;
+
+// DFA for the regex subset produced by RegexGrammar (literals, escapes, ., [..], [^..], groups, |, ?, *, +, {m,n})
+// with greedy quantifiers only: possessive and reluctant quantifiers are rejected, so that regexes using them are
+// handled by java.util.regex; matching is leftmost-longest, hence alternatives may still give different extractions
+// than java.util.regex, but there is no backtracking at all and extraction is linear in the text length
+class RegexDFA {
+
+  private static final int MAX_REPETITIONS = 100;
+  private static final int MAX_N_OF_STATES = 10000;
+  private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+
+  private final char[] boundaries;
+  private final int nOfClasses;
+  private final int[] transitions;
+  private final boolean[] accepting;
+  private final int[][] predecessors; // [class * nOfStates + target] -> sources
+
+  private RegexDFA(char[] boundaries, int[] transitions, boolean[] accepting) {
+    this.boundaries = boundaries;
+    nOfClasses = boundaries.length + 1;
+    this.transitions = transitions;
+    this.accepting = accepting;
+    int nOfStates = accepting.length;
+    int[] counts = new int[nOfClasses * nOfStates];
+    for (int source = 0; source < nOfStates; source++) {
+      for (int c = 0; c < nOfClasses; c++) {
+        int target = transitions[source * nOfClasses + c];
+        if (target >= 0) {
+          counts[c * nOfStates + target] = counts[c * nOfStates + target] + 1;
+        }
+      }
+    }
+    predecessors = new int[nOfClasses * nOfStates][];
+    for (int k = 0; k < predecessors.length; k++) {
+      predecessors[k] = new int[counts[k]];
+      counts[k] = 0;
+    }
+    for (int source = 0; source < nOfStates; source++) {
+      for (int c = 0; c < nOfClasses; c++) {
+        int target = transitions[source * nOfClasses + c];
+        if (target >= 0) {
+          int k = c * nOfStates + target;
+          predecessors[k][counts[k]] = source;
+          counts[k] = counts[k] + 1;
+        }
+      }
+    }
+  }
+
+  private sealed interface Node {}
+
+  private record Chars(List<char[]> ranges, boolean negated) implements Node {
+    private boolean test(char c) {
+      for (char[] range : ranges) {
+        if (range[0] <= c && c <= range[1]) {
+          return !negated;
+        }
+      }
+      return negated;
+    }
+  }
+
+  private record Concat(List<Node> nodes) implements Node {}
+
+  private record Union(List<Node> nodes) implements Node {}
+
+  private record Repeat(Node node, int min, int max) implements Node {}
+
+  private static class UnsupportedRegexException extends Exception {}
+
+  private static class Parser {
+    private final String regex;
+    private int i;
+
+    private Parser(String regex) {
+      this.regex = regex;
+    }
+
+    private Node atom() throws UnsupportedRegexException {
+      char c = regex.charAt(i);
+      if (c == '(') {
+        i = i + 1;
+        if (regex.startsWith("?:", i)) {
+          i = i + 2;
+        } else if (i < regex.length() && regex.charAt(i) == '?') {
+          throw new UnsupportedRegexException();
+        }
+        Node node = union();
+        expect(')');
+        return node;
+      }
+      if (c == '[') {
+        i = i + 1;
+        return charClass();
+      }
+      if (c == '.') {
+        i = i + 1;
+        List<char[]> ranges = new ArrayList<>();
+        LINE_TERMINATORS.chars().forEach(t -> ranges.add(new char[] {(char) t, (char) t}));
+        return new Chars(ranges, true);
+      }
+      char literal = literal();
+      return new Chars(List.<char[]>of(new char[] {literal, literal}), false);
+    }
+
+    private Node charClass() throws UnsupportedRegexException {
+      boolean negated = false;
+      if (i < regex.length() && regex.charAt(i) == '^') {
+        negated = true;
+        i = i + 1;
+      }
+      List<char[]> ranges = new ArrayList<>();
+      while (i < regex.length() && regex.charAt(i) != ']') {
+        if (regex.charAt(i) == '[' || regex.startsWith("&&", i)) {
+          throw new UnsupportedRegexException();
+        }
+        char from = literal();
+        char to = from;
+        if (i + 1 < regex.length() && regex.charAt(i) == '-' && regex.charAt(i + 1) != ']') {
+          i = i + 1;
+          to = literal();
+        }
+        if (to < from) {
+          throw new UnsupportedRegexException();
+        }
+        ranges.add(new char[] {from, to});
+      }
+      if (ranges.isEmpty()) {
+        throw new UnsupportedRegexException();
+      }
+      expect(']');
+      return new Chars(ranges, negated);
+    }
+
+    private Node concat() throws UnsupportedRegexException {
+      List<Node> nodes = new ArrayList<>();
+      while (i < regex.length() && regex.charAt(i) != '|' && regex.charAt(i) != ')') {
+        nodes.add(quantified());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new Concat(nodes);
+    }
+
+    private void expect(char c) throws UnsupportedRegexException {
+      if (i >= regex.length() || regex.charAt(i) != c) {
+        throw new UnsupportedRegexException();
+      }
+      i = i + 1;
+    }
+
+    private char literal() throws UnsupportedRegexException {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        // only escaped punctuation, not classes like \d or \w
+        if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+          throw new UnsupportedRegexException();
+        }
+        i = i + 2;
+        return regex.charAt(i - 1);
+      }
+      if ("^$*+?{}".indexOf(c) >= 0) {
+        throw new UnsupportedRegexException();
+      }
+      i = i + 1;
+      return c;
+    }
+
+    private int number() throws UnsupportedRegexException {
+      int start = i;
+      while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+        i = i + 1;
+      }
+      if (i == start || i - start > 3) {
+        throw new UnsupportedRegexException();
+      }
+      return Integer.parseInt(regex.substring(start, i));
+    }
+
+    private Node parse() throws UnsupportedRegexException {
+      Node node = union();
+      if (i != regex.length()) {
+        throw new UnsupportedRegexException();
+      }
+      return node;
+    }
+
+    private Node quantified() throws UnsupportedRegexException {
+      Node node = atom();
+      while (i < regex.length()) {
+        char c = regex.charAt(i);
+        int min;
+        int max;
+        if (c == '?' || c == '*' || c == '+') {
+          i = i + 1;
+          min = c == '+' ? 1 : 0;
+          max = c == '?' ? 1 : -1;
+        } else if (c == '{') {
+          i = i + 1;
+          min = number();
+          max = min;
+          if (i < regex.length() && regex.charAt(i) == ',') {
+            i = i + 1;
+            max = (i < regex.length() && regex.charAt(i) == '}') ? -1 : number();
+          }
+          expect('}');
+          if (min > MAX_REPETITIONS || max > MAX_REPETITIONS || (max >= 0 && max < min)) {
+            throw new UnsupportedRegexException();
+          }
+        } else {
+          break;
+        }
+        // possessive and reluctant quantifiers do not have leftmost-longest semantics
+        if (i < regex.length() && (regex.charAt(i) == '+' || regex.charAt(i) == '?')) {
+          throw new UnsupportedRegexException();
+        }
+        node = new Repeat(node, min, max);
+      }
+      return node;
+    }
+
+    private Node union() throws UnsupportedRegexException {
+      List<Node> nodes = new ArrayList<>();
+      nodes.add(concat());
+      while (i < regex.length() && regex.charAt(i) == '|') {
+        i = i + 1;
+        nodes.add(concat());
+      }
+      return nodes.size() == 1 ? nodes.get(0) : new Union(nodes);
+    }
+  }
+
+  private static class NFA {
+    private final List<List<Integer>> epsilons = new ArrayList<>();
+    private final List<Chars> chars = new ArrayList<>();
+    private final List<Integer> charTargets = new ArrayList<>();
+
+    private int[] build(Node node) {
+      // returns {in, out}
+      if (node instanceof Chars cs) {
+        int in = state();
+        int out = state();
+        chars.set(in, cs);
+        charTargets.set(in, out);
+        return new int[] {in, out};
+      }
+      if (node instanceof Concat concat) {
+        int in = state();
+        int out = in;
+        for (Node child : concat.nodes()) {
+          int[] fragment = build(child);
+          epsilons.get(out).add(fragment[0]);
+          out = fragment[1];
+        }
+        return new int[] {in, out};
+      }
+      if (node instanceof Union union) {
+        int in = state();
+        int out = state();
+        for (Node child : union.nodes()) {
+          int[] fragment = build(child);
+          epsilons.get(in).add(fragment[0]);
+          epsilons.get(fragment[1]).add(out);
+        }
+        return new int[] {in, out};
+      }
+      Repeat repeat = (Repeat) node;
+      int in = state();
+      int out = in;
+      for (int k = 0; k < repeat.min(); k++) {
+        int[] fragment = build(repeat.node());
+        epsilons.get(out).add(fragment[0]);
+        out = fragment[1];
+      }
+      if (repeat.max() < 0) {
+        int[] fragment = build(repeat.node());
+        epsilons.get(out).add(fragment[0]);
+        epsilons.get(fragment[1]).add(out);
+      } else {
+        int end = state();
+        for (int k = repeat.min(); k < repeat.max(); k++) {
+          int[] fragment = build(repeat.node());
+          epsilons.get(out).add(fragment[0]);
+          epsilons.get(out).add(end);
+          out = fragment[1];
+        }
+        epsilons.get(out).add(end);
+        out = end;
+      }
+      return new int[] {in, out};
+    }
+
+    private BitSet closure(BitSet states) {
+      BitSet closure = (BitSet) states.clone();
+      Deque<Integer> stack = new ArrayDeque<>();
+      states.stream().forEach(stack::push);
+      while (!stack.isEmpty()) {
+        for (int target : epsilons.get(stack.pop())) {
+          if (!closure.get(target)) {
+            closure.set(target);
+            stack.push(target);
+          }
+        }
+      }
+      return closure;
+    }
+
+    private int state() {
+      epsilons.add(new ArrayList<>());
+      chars.add(null);
+      charTargets.add(-1);
+      return epsilons.size() - 1;
+    }
+  }
+
+  // returns null if the regex is outside the supported subset or if the DFA would be too large
+  static RegexDFA compile(String regex) {
+    Node root;
+    try {
+      root = new Parser(regex).parse();
+    } catch (UnsupportedRegexException | StringIndexOutOfBoundsException e) {
+      return null;
+    }
+    NFA nfa = new NFA();
+    int[] fragment = nfa.build(root);
+    // symbol classes are the maximal intervals of chars on which all the char sets agree
+    TreeSet<Character> boundarySet = new TreeSet<>();
+    for (Chars cs : nfa.chars) {
+      if (cs != null) {
+        for (char[] range : cs.ranges()) {
+          boundarySet.add(range[0]);
+          if (range[1] < Character.MAX_VALUE) {
+            boundarySet.add((char) (range[1] + 1));
+          }
+        }
+      }
+    }
+    boundarySet.remove((char) 0);
+    char[] boundaries = new char[boundarySet.size()];
+    int b = 0;
+    for (char boundary : boundarySet) {
+      boundaries[b] = boundary;
+      b = b + 1;
+    }
+    int nOfClasses = boundaries.length + 1;
+    // subset construction
+    Map<BitSet, Integer> indexes = new HashMap<>();
+    List<BitSet> dfaStates = new ArrayList<>();
+    BitSet start = new BitSet();
+    start.set(fragment[0]);
+    start = nfa.closure(start);
+    indexes.put(start, 0);
+    dfaStates.add(start);
+    List<int[]> rows = new ArrayList<>();
+    for (int s = 0; s < dfaStates.size(); s++) {
+      if (dfaStates.size() > MAX_N_OF_STATES) {
+        return null;
+      }
+      BitSet dfaState = dfaStates.get(s);
+      int[] row = new int[nOfClasses];
+      for (int c = 0; c < nOfClasses; c++) {
+        char representative = c == 0 ? (char) 0 : boundaries[c - 1];
+        BitSet targets = new BitSet();
+        for (int n = dfaState.nextSetBit(0); n >= 0; n = dfaState.nextSetBit(n + 1)) {
+          Chars cs = nfa.chars.get(n);
+          if (cs != null && cs.test(representative)) {
+            targets.set(nfa.charTargets.get(n));
+          }
+        }
+        if (targets.isEmpty()) {
+          row[c] = -1;
+        } else {
+          BitSet closure = nfa.closure(targets);
+          Integer index = indexes.get(closure);
+          if (index == null) {
+            index = dfaStates.size();
+            indexes.put(closure, index);
+            dfaStates.add(closure);
+          }
+          row[c] = index;
+        }
+      }
+      rows.add(row);
+    }
+    int[] transitions = new int[dfaStates.size() * nOfClasses];
+    boolean[] accepting = new boolean[dfaStates.size()];
+    for (int s = 0; s < dfaStates.size(); s++) {
+      System.arraycopy(rows.get(s), 0, transitions, s * nOfClasses, nOfClasses);
+      accepting[s] = dfaStates.get(s).get(fragment[1]);
+    }
+    return new RegexDFA(boundaries, transitions, accepting);
+  }
+
+  private int classOf(char c) {
+    int low = 0;
+    int high = boundaries.length;
+    // number of boundaries <= c
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (boundaries[mid] <= c) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  // packed min/max pairs of the leftmost-longest non-empty non-overlapping matches
+  int[] extractNonOverlapping(String text) {
+    if (accepting[0]) {
+      return new int[0];
+    }
+    int[] classes = new int[text.length()];
+    for (int i = 0; i < classes.length; i++) {
+      classes[i] = classOf(text.charAt(i));
+    }
+    // right-to-left pass: coreachables.get(ids[i]) is the set of states from which an accepting state can be reached
+    // reading text[i..j) for some j >= i; a match starts at i iff the initial state is in it, and a scan can stop as
+    // soon as its state is not in it, so each char is read a bounded number of times
+    int nOfStates = accepting.length;
+    List<BitSet> coreachables = new ArrayList<>();
+    Map<BitSet, Integer> coreachableIndexes = new HashMap<>();
+    Map<Long, Integer> coreachableTransitions = new HashMap<>();
+    BitSet acceptingStates = new BitSet(nOfStates);
+    for (int state = 0; state < nOfStates; state++) {
+      acceptingStates.set(state, accepting[state]);
+    }
+    coreachables.add(acceptingStates);
+    coreachableIndexes.put(acceptingStates, 0);
+    int[] ids = new int[classes.length + 1];
+    for (int i = classes.length - 1; i >= 0; i--) {
+      int c = classes[i];
+      int next = ids[i + 1];
+      ids[i] = coreachableTransitions.computeIfAbsent((long) next * nOfClasses + c, k -> {
+        BitSet nextStates = coreachables.get(next);
+        BitSet states = (BitSet) acceptingStates.clone();
+        for (int target = nextStates.nextSetBit(0); target >= 0; target = nextStates.nextSetBit(target + 1)) {
+          for (int source : predecessors[c * nOfStates + target]) {
+            states.set(source);
+          }
+        }
+        return coreachableIndexes.computeIfAbsent(states, bs -> {
+          coreachables.add(bs);
+          return coreachables.size() - 1;
+        });
+      });
+    }
+    int[] ranges = new int[16];
+    int n = 0;
+    int s = 0;
+    while (s < classes.length) {
+      if (!coreachables.get(ids[s]).get(0)) {
+        s = s + 1;
+        continue;
+      }
+      int state = 0;
+      int last = -1;
+      for (int i = s; i < classes.length; i++) {
+        state = transitions[state * nOfClasses + classes[i]];
+        if (state < 0 || !coreachables.get(ids[i + 1]).get(state)) {
+          break;
+        }
+        if (accepting[state]) {
+          last = i + 1;
+        }
+      }
+      if (2 * n + 2 > ranges.length) {
+        ranges = Arrays.copyOf(ranges, ranges.length * 2);
+      }
+      ranges[2 * n] = s;
+      ranges[2 * n + 1] = last;
+      n = n + 1;
+      s = last;
+    }
+    return Arrays.copyOf(ranges, 2 * n);
+  }
+
+  boolean matches(String text) {
+    int state = 0;
+    for (int i = 0; i < text.length(); i++) {
+      state = transitions[state * nOfClasses + classOf(text.charAt(i))];
+      if (state < 0) {
+        return false;
+      }
+    }
+    return accepting[state];
+  }
+
+  int size() {
+    return accepting.length;
+  }
+}
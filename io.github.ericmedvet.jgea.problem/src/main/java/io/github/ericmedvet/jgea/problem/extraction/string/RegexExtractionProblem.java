@@ -22,6 +22,7 @@ package io.github.ericmedvet.jgea.problem.extraction.string;
 
 import io.github.ericmedvet.jgea.problem.extraction.ExtractionFitness;
 import io.github.ericmedvet.jgea.problem.extraction.ExtractionProblem;
+import io.github.ericmedvet.jgea.problem.extraction.KFoldExtractionProblem;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
@@ -81,6 +82,14 @@ public class RegexExtractionProblem extends ExtractionProblem<Character> {
     return new RegexExtractionProblem(new LinkedHashSet<>(regexes), text, 5, (int) seed % (size / 3), metrics);
   }
 
+  public KFoldExtractionProblem<Character> kFold(int folds) {
+    return new KFoldExtractionProblem<>(
+        regexes.stream().map(RegexBasedExtractor::new).collect(Collectors.toSet()),
+        text.chars().mapToObj(c -> (char) c).toList(),
+        folds,
+        qualityFunction().getMetrics().toArray(ExtractionFitness.Metric[]::new));
+  }
+
   public Set<String> getRegexes() {
     return regexes;
   }
@@ -21,8 +21,11 @@
 package io.github.ericmedvet.jgea.problem.image;
 
 import io.github.ericmedvet.jgea.core.problem.ComparableQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.representation.BatchUnivariateRealFunction;
 import io.github.ericmedvet.jsdynsym.core.numerical.UnivariateRealFunction;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 public class ImageReconstruction implements ComparableQualityBasedProblem<UnivariateRealFunction, Double> {
@@ -30,26 +33,78 @@ public class ImageReconstruction implements ComparableQualityBasedProblem<Univar
   private final Function<UnivariateRealFunction, Double> fitnessFunction;
 
   public ImageReconstruction(BufferedImage image, boolean normalize) {
+    this(image, normalize, 1, Double.POSITIVE_INFINITY);
+  }
+
+  // with coarseStep > 1, candidates are first evaluated on grids subsampled every coarseStep, coarseStep/2, ...
+  // pixels and rejected as soon as their error exceeds rejectionFactor times the error of the best constant
+  public ImageReconstruction(BufferedImage image, boolean normalize, int coarseStep, double rejectionFactor) {
+    if (coarseStep < 1) {
+      throw new IllegalArgumentException("Coarse step must be >= 1: %d found".formatted(coarseStep));
+    }
+    List<Grid> grids = new ArrayList<>();
+    for (int step = coarseStep; step > 1; step = step / 2) {
+      grids.add(Grid.of(image, step));
+    }
+    grids.add(Grid.of(image, 1));
+    double rejectionThreshold = rejectionFactor * grids.get(grids.size() - 1).variance();
     fitnessFunction = f -> {
-      double err = 0d;
-      for (int x = 0; x < image.getWidth(); x++) {
-        for (int y = 0; y < image.getHeight(); y++) {
-          double fOut = f.applyAsDouble(new double[] {
-            (double) x / (double) image.getWidth(), (double) y / (double) image.getHeight()
-          });
-          if (normalize) {
-            fOut = Math.tanh(fOut) / 2d + 0.5d;
-          }
+      double err = Double.NaN;
+      for (Grid grid : grids) {
+        err = grid.error(f, normalize);
+        if (err > rejectionThreshold) {
+          break;
+        }
+      }
+      return err;
+    };
+  }
+
+  private record Grid(double[][] xColumns, double[] targets) {
+    private static Grid of(BufferedImage image, int step) {
+      int w = (image.getWidth() + step - 1) / step;
+      int h = (image.getHeight() + step - 1) / step;
+      double[] xs = new double[w * h];
+      double[] ys = new double[w * h];
+      double[] targets = new double[w * h];
+      int i = 0;
+      for (int x = 0; x < image.getWidth(); x = x + step) {
+        for (int y = 0; y < image.getHeight(); y = y + step) {
+          xs[i] = (double) x / (double) image.getWidth();
+          ys[i] = (double) y / (double) image.getHeight();
           int color = image.getRGB(x, y);
           double red = (color & 0x00ff0000) >> 16;
           double green = (color & 0x0000ff00) >> 8;
           double blue = color & 0x000000ff;
-          double imgOut = (red / 256d + green / 256d + blue / 256d) / 3d;
-          err = err + (imgOut - fOut) * (imgOut - fOut);
+          targets[i] = (red / 256d + green / 256d + blue / 256d) / 3d;
+          i = i + 1;
         }
       }
-      return err / ((double) (image.getWidth() * image.getHeight()));
-    };
+      return new Grid(new double[][] {xs, ys}, targets);
+    }
+
+    private double error(UnivariateRealFunction f, boolean normalize) {
+      double[] fOuts = BatchUnivariateRealFunction.applyAsDoubles(f, xColumns);
+      double err = 0d;
+      for (int i = 0; i < targets.length; i++) {
+        double fOut = normalize ? (Math.tanh(fOuts[i]) / 2d + 0.5d) : fOuts[i];
+        err = err + (targets[i] - fOut) * (targets[i] - fOut);
+      }
+      return err / (double) targets.length;
+    }
+
+    private double variance() {
+      double mean = 0d;
+      for (double target : targets) {
+        mean = mean + target;
+      }
+      mean = mean / (double) targets.length;
+      double var = 0d;
+      for (double target : targets) {
+        var = var + (target - mean) * (target - mean);
+      }
+      return var / (double) targets.length;
+    }
   }
 
   @Override
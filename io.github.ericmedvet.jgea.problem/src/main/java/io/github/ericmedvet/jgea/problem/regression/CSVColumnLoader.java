@@ -0,0 +1,252 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.problem.regression;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+// parses ';'-separated files directly into primitive columns, only for the selected columns; large files are parsed
+// in parallel chunks split at line boundaries, hence quoted values spanning more lines are not supported
+class CSVColumnLoader {
+
+  private static final Logger L = Logger.getLogger(CSVColumnLoader.class.getName());
+  private static final byte DELIMITER = ';';
+  private static final int MIN_CHUNK_SIZE = 1 << 20;
+  private static final int MAX_FAST_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = IntStream.rangeClosed(0, 22)
+      .mapToDouble(i -> Double.parseDouble("1e" + i))
+      .toArray();
+
+  private final byte[] bytes;
+  private final int dataStart;
+  private final List<String> names;
+
+  public CSVColumnLoader(InputStream inputStream) throws IOException {
+    try (inputStream) {
+      bytes = inputStream.readAllBytes();
+    }
+    int headerEnd = lineEnd(bytes, 0);
+    names = splitHeader(new String(bytes, 0, headerEnd, Charset.defaultCharset()));
+    dataStart = Math.min(bytes.length, headerEnd + 1);
+  }
+
+  private record Chunk(double[][] columns, int nOfRows, int nOfSkippedLines) {}
+
+  private static int lineEnd(byte[] bytes, int from) {
+    int i = from;
+    while (i < bytes.length && bytes[i] != '\n') {
+      i = i + 1;
+    }
+    return i;
+  }
+
+  public static List<String> names(InputStream inputStream) throws IOException {
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
+      String line = br.readLine();
+      return line == null ? List.of() : splitHeader(line);
+    }
+  }
+
+  static double parseDouble(byte[] bytes, int from, int to) {
+    while (from < to && bytes[from] == ' ') {
+      from = from + 1;
+    }
+    while (to > from && (bytes[to - 1] == ' ' || bytes[to - 1] == '\r')) {
+      to = to - 1;
+    }
+    if (to - from >= 2 && bytes[from] == '"' && bytes[to - 1] == '"') {
+      from = from + 1;
+      to = to - 1;
+    }
+    int i = from;
+    boolean negative = false;
+    if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+      negative = bytes[i] == '-';
+      i = i + 1;
+    }
+    long mantissa = 0;
+    int nOfDigits = 0;
+    int exponent = 0;
+    boolean anyDigit = false;
+    for (; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+      anyDigit = true;
+      if (mantissa != 0 || bytes[i] != '0') {
+        mantissa = mantissa * 10 + (bytes[i] - '0');
+        nOfDigits = nOfDigits + 1;
+      }
+    }
+    if (i < to && bytes[i] == '.') {
+      for (i = i + 1; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+        anyDigit = true;
+        if (mantissa != 0 || bytes[i] != '0') {
+          mantissa = mantissa * 10 + (bytes[i] - '0');
+          nOfDigits = nOfDigits + 1;
+        }
+        exponent = exponent - 1;
+      }
+    }
+    if (i < to && (bytes[i] == 'e' || bytes[i] == 'E') && anyDigit) {
+      i = i + 1;
+      boolean negativeExponent = false;
+      if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+        negativeExponent = bytes[i] == '-';
+        i = i + 1;
+      }
+      int explicitExponent = 0;
+      boolean anyExponentDigit = false;
+      for (; i < to && bytes[i] >= '0' && bytes[i] <= '9' && explicitExponent < 10000; i++) {
+        anyExponentDigit = true;
+        explicitExponent = explicitExponent * 10 + (bytes[i] - '0');
+      }
+      if (!anyExponentDigit) {
+        anyDigit = false;
+      }
+      exponent = exponent + (negativeExponent ? -explicitExponent : explicitExponent);
+    }
+    // exact when both the mantissa and the power of ten are exactly representable
+    if (i == to && anyDigit && nOfDigits <= MAX_FAST_DIGITS && Math.abs(exponent) < POWERS_OF_TEN.length) {
+      double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+      return negative ? -value : value;
+    }
+    return Double.parseDouble(new String(bytes, from, to - from, Charset.defaultCharset()));
+  }
+
+  private static List<String> splitHeader(String line) {
+    if (line.endsWith("\r")) {
+      line = line.substring(0, line.length() - 1);
+    }
+    return Arrays.stream(line.split(String.valueOf((char) DELIMITER), -1))
+        .map(n -> n.length() >= 2 && n.startsWith("\"") && n.endsWith("\"") ? n.substring(1, n.length() - 1) : n)
+        .toList();
+  }
+
+  public double[][] load(List<String> selectedNames) {
+    long startingNanos = System.nanoTime();
+    // a field may be selected more than once, hence it may have more targets
+    int[][] fieldTargets = new int[names.size()][0];
+    for (int j = 0; j < selectedNames.size(); j++) {
+      int fieldIndex = names.indexOf(selectedNames.get(j));
+      if (fieldIndex < 0) {
+        throw new IllegalArgumentException("Var %s not found".formatted(selectedNames.get(j)));
+      }
+      fieldTargets[fieldIndex] = Arrays.copyOf(fieldTargets[fieldIndex], fieldTargets[fieldIndex].length + 1);
+      fieldTargets[fieldIndex][fieldTargets[fieldIndex].length - 1] = j;
+    }
+    // split in chunks at line boundaries
+    int nOfChunks = Math.max(
+        1, Math.min(Runtime.getRuntime().availableProcessors(), (bytes.length - dataStart) / MIN_CHUNK_SIZE));
+    List<Integer> bounds = new ArrayList<>();
+    bounds.add(dataStart);
+    for (int c = 1; c < nOfChunks; c++) {
+      int bound = lineEnd(bytes, dataStart + (int) ((long) (bytes.length - dataStart) * c / nOfChunks)) + 1;
+      if (bound < bytes.length && bound > bounds.get(bounds.size() - 1)) {
+        bounds.add(bound);
+      }
+    }
+    bounds.add(bytes.length);
+    List<Chunk> chunks = IntStream.range(0, bounds.size() - 1)
+        .parallel()
+        .mapToObj(c -> parseChunk(bounds.get(c), bounds.get(c + 1), fieldTargets, selectedNames.size()))
+        .toList();
+    // merge chunks
+    int nOfRows = chunks.stream().mapToInt(Chunk::nOfRows).sum();
+    double[][] columns = new double[selectedNames.size()][nOfRows];
+    int offset = 0;
+    for (Chunk chunk : chunks) {
+      for (int j = 0; j < columns.length; j++) {
+        System.arraycopy(chunk.columns[j], 0, columns[j], offset, chunk.nOfRows);
+      }
+      offset = offset + chunk.nOfRows;
+    }
+    int nOfSkippedLines = chunks.stream().mapToInt(Chunk::nOfSkippedLines).sum();
+    if (nOfSkippedLines > 0) {
+      L.warning("%d lines do not have %d items: skipped".formatted(nOfSkippedLines, names.size()));
+    }
+    double elapsedSeconds = (System.nanoTime() - startingNanos) / 1e9;
+    L.info("Loaded %d rows x %d of %d columns (%.1f MB) in %.2fs with %d chunks: %.0f rows/s, %.1f MB/s"
+        .formatted(
+            nOfRows,
+            selectedNames.size(),
+            names.size(),
+            bytes.length / 1e6,
+            elapsedSeconds,
+            chunks.size(),
+            nOfRows / elapsedSeconds,
+            bytes.length / 1e6 / elapsedSeconds));
+    return columns;
+  }
+
+  public List<String> names() {
+    return names;
+  }
+
+  private Chunk parseChunk(int from, int to, int[][] fieldTargets, int nOfColumns) {
+    int capacity = 1024;
+    double[][] columns = new double[nOfColumns][capacity];
+    double[] row = new double[nOfColumns];
+    int nOfRows = 0;
+    int nOfSkippedLines = 0;
+    int lineStart = from;
+    while (lineStart < to) {
+      int lineEnd = lineEnd(bytes, lineStart);
+      int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+      if (contentEnd > lineStart) {
+        int fieldIndex = 0;
+        int fieldStart = lineStart;
+        for (int i = lineStart; i <= contentEnd; i++) {
+          if (i == contentEnd || bytes[i] == DELIMITER) {
+            if (fieldIndex < fieldTargets.length && fieldTargets[fieldIndex].length > 0) {
+              double value = parseDouble(bytes, fieldStart, i);
+              for (int target : fieldTargets[fieldIndex]) {
+                row[target] = value;
+              }
+            }
+            fieldIndex = fieldIndex + 1;
+            fieldStart = i + 1;
+          }
+        }
+        if (fieldIndex != fieldTargets.length) {
+          nOfSkippedLines = nOfSkippedLines + 1;
+        } else {
+          if (nOfRows == capacity) {
+            capacity = capacity * 2;
+            for (int j = 0; j < nOfColumns; j++) {
+              columns[j] = Arrays.copyOf(columns[j], capacity);
+            }
+          }
+          for (int j = 0; j < nOfColumns; j++) {
+            columns[j][nOfRows] = row[j];
+          }
+          nOfRows = nOfRows + 1;
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+    return new Chunk(columns, nOfRows, nOfSkippedLines);
+  }
+}
@@ -26,12 +26,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.IntFunction;
-import java.util.stream.Collectors;
 
 public class LazyNumericalDataset implements NumericalDataset {
 
   private static final Map<DatasetKey, NumericalDataset> FILTERED_DATASETS = new HashMap<>();
-  private static final Map<String, NumericalDataset> DATASETS = new HashMap<>();
   private final String path;
   private final List<String> xVarNames;
   private final List<String> yVarNames;
@@ -44,13 +42,13 @@ public class LazyNumericalDataset implements NumericalDataset {
 
   public LazyNumericalDataset(String path, String xVarNamePattern, String yVarNamePattern) throws IOException {
     // read just varNames
-    NumericalDataset dataset = getDataset(path);
+    List<String> varNames = CSVColumnLoader.names(new FileInputStream(path));
     this.path = path;
-    xVarNames = dataset.xVarNames().stream()
+    xVarNames = varNames.stream()
         .filter(n -> n.matches(xVarNamePattern))
         .sorted()
         .toList();
-    yVarNames = dataset.yVarNames().stream()
+    yVarNames = varNames.stream()
         .filter(n -> n.matches(yVarNamePattern))
         .sorted()
         .toList();
@@ -58,87 +56,25 @@ public class LazyNumericalDataset implements NumericalDataset {
 
   private record DatasetKey(String path, List<String> xVarNames, List<String> yVarNames) {}
 
-  private static class FilteredNumericalDataset implements NumericalDataset {
-    private final NumericalDataset dataset;
-    private final List<String> xVarNames;
-
-    private final List<String> yVarNames;
-
-    public FilteredNumericalDataset(NumericalDataset dataset, List<String> xVarNames, List<String> yVarNames) {
-      this.dataset = dataset;
-      this.xVarNames = xVarNames;
-      this.yVarNames = yVarNames;
-    }
-
-    @Override
-    public IntFunction<Example> exampleProvider() {
-      return i -> {
-        NamedExample ne = dataset.namedExampleProvider().apply(i);
-        return new Example(
-            xVarNames.stream().mapToDouble(n -> ne.x().get(n)).toArray(),
-            yVarNames.stream().mapToDouble(n -> ne.y().get(n)).toArray());
-      };
-    }
-
-    @Override
-    public int size() {
-      return dataset.size();
-    }
-
-    @Override
-    public List<String> xVarNames() {
-      return xVarNames;
-    }
-
-    @Override
-    public List<String> yVarNames() {
-      return yVarNames;
-    }
-
-    @Override
-    public IntFunction<NamedExample> namedExampleProvider() {
-      return i -> {
-        NamedExample ne = dataset.namedExampleProvider().apply(i);
-        return new NamedExample(
-            xVarNames.stream()
-                .collect(Collectors.toMap(n -> n, n -> ne.x().get(n))),
-            yVarNames.stream()
-                .collect(Collectors.toMap(n -> n, n -> ne.x().get(n))));
-      };
-    }
-  }
-
-  private static NumericalDataset getDataset(String path) {
-    NumericalDataset dataset = DATASETS.get(path);
-    if (dataset == null) {
-      try {
-        dataset = ListNumericalDataset.loadFromCSV(new FileInputStream(path), ".*", ".*");
-        DATASETS.put(path, dataset);
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
-    }
-    return dataset;
-  }
-
   private static NumericalDataset getFilteredDataset(DatasetKey key) {
-    NumericalDataset fDataset = FILTERED_DATASETS.get(key);
-    if (fDataset == null) {
-      NumericalDataset dataset = getDataset(key.path());
-      fDataset = new FilteredNumericalDataset(dataset, key.xVarNames, key.yVarNames);
-      FILTERED_DATASETS.put(key, fDataset);
+    synchronized (FILTERED_DATASETS) {
+      NumericalDataset fDataset = FILTERED_DATASETS.get(key);
+      if (fDataset == null) {
+        try {
+          // only the needed columns are parsed
+          fDataset = ListNumericalDataset.loadFromCSV(new FileInputStream(key.path()), key.xVarNames, key.yVarNames);
+          FILTERED_DATASETS.put(key, fDataset);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return fDataset;
     }
-    return fDataset;
   }
 
   @Override
   public IntFunction<Example> exampleProvider() {
-    return i -> {
-      NumericalDataset dataset = getFilteredDataset();
-      synchronized (dataset) {
-        return dataset.exampleProvider().apply(i);
-      }
-    };
+    return getFilteredDataset().exampleProvider();
   }
 
   @Override
@@ -156,6 +92,12 @@ public class LazyNumericalDataset implements NumericalDataset {
     return yVarNames;
   }
 
+  private boolean isLoaded() {
+    synchronized (FILTERED_DATASETS) {
+      return FILTERED_DATASETS.containsKey(new DatasetKey(path, xVarNames, yVarNames));
+    }
+  }
+
   private NumericalDataset getFilteredDataset() {
     return getFilteredDataset(new DatasetKey(path, xVarNames, yVarNames));
   }
@@ -164,9 +106,7 @@ public class LazyNumericalDataset implements NumericalDataset {
   public String toString() {
     return "LazyDataset{"
         + "n="
-        + (!FILTERED_DATASETS.containsKey(new DatasetKey(path, xVarNames, yVarNames))
-            ? "NA"
-            : getFilteredDataset().size())
+        + (!isLoaded() ? "NA" : getFilteredDataset().size())
         + ", xVarNames="
         + xVarNames
         + ", yVarNames="
@@ -23,21 +23,12 @@ package io.github.ericmedvet.jgea.problem.regression;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.*;
 import java.util.function.IntFunction;
-import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 
 public record ListNumericalDataset(List<Example> examples, List<String> xVarNames, List<String> yVarNames)
     implements NumericalDataset {
 
-  private static final Logger L = Logger.getLogger(ListNumericalDataset.class.getName());
-
   public ListNumericalDataset {
     List<Integer> xsSizes =
         examples.stream().map(e -> e.xs().length).distinct().toList();
@@ -73,46 +64,49 @@ public record ListNumericalDataset(List<Example> examples, List<String> xVarName
   }
 
   private static NumericalDataset buildDataset(
-      List<Map<String, String>> data, List<String> xVarNames, List<String> yVarNames) {
-    return new ListNumericalDataset(
-            data.stream()
-                .map(dp -> new Example(
-                    xVarNames.stream()
-                        .mapToDouble(n -> Double.parseDouble(dp.get(n)))
-                        .toArray(),
-                    yVarNames.stream()
-                        .mapToDouble(n -> Double.parseDouble(dp.get(n)))
-                        .toArray()))
-                .toList(),
-            xVarNames,
-            yVarNames)
-        .shuffled(1);
+      CSVColumnLoader loader, List<String> xVarNames, List<String> yVarNames) {
+    List<String> varNames = new ArrayList<>(xVarNames);
+    varNames.addAll(yVarNames);
+    double[][] columns = loader.load(varNames);
+    int nOfRows = columns.length == 0 ? 0 : columns[0].length;
+    List<Example> examples = new ArrayList<>(nOfRows);
+    for (int i = 0; i < nOfRows; i++) {
+      double[] xs = new double[xVarNames.size()];
+      double[] ys = new double[yVarNames.size()];
+      for (int j = 0; j < xs.length; j++) {
+        xs[j] = columns[j][i];
+      }
+      for (int j = 0; j < ys.length; j++) {
+        ys[j] = columns[xs.length + j][i];
+      }
+      examples.add(new Example(xs, ys));
+    }
+    return new ListNumericalDataset(examples, xVarNames, yVarNames).shuffled(1);
+  }
+
+  private static void checkVarNames(List<String> varNames, List<String> names, String kind) throws IOException {
+    if (!names.containsAll(varNames)) {
+      Set<String> notFoundVars = new LinkedHashSet<>(varNames);
+      names.forEach(notFoundVars::remove);
+      throw new IOException("Some %s not found in the file: %s".formatted(kind, notFoundVars));
+    }
   }
 
   public static NumericalDataset loadFromCSV(InputStream inputStream, List<String> xVarNames, List<String> yVarNames)
       throws IOException {
-    List<Map<String, String>> data = loadFromCSV(inputStream, Long.MAX_VALUE);
-    if (!data.get(0).keySet().containsAll(xVarNames)) {
-      Set<String> notFoundVars = new LinkedHashSet<>(xVarNames);
-      data.get(0).keySet().forEach(notFoundVars::remove);
-      throw new IOException("Some xVarNames not found in the file: %s".formatted(notFoundVars));
-    }
-    if (!data.get(0).keySet().containsAll(yVarNames)) {
-      Set<String> notFoundVars = new LinkedHashSet<>(yVarNames);
-      data.get(0).keySet().forEach(notFoundVars::remove);
-      throw new IOException("Some yVarNames not found in the file: %s".formatted(notFoundVars));
-    }
-    return buildDataset(data, xVarNames, yVarNames);
+    CSVColumnLoader loader = new CSVColumnLoader(inputStream);
+    checkVarNames(xVarNames, loader.names(), "xVarNames");
+    checkVarNames(yVarNames, loader.names(), "yVarNames");
+    return buildDataset(loader, xVarNames, yVarNames);
   }
 
   public static NumericalDataset loadFromCSV(InputStream inputStream, String xVarNamePattern, String yVarNamePattern)
       throws IOException {
-    List<Map<String, String>> data = loadFromCSV(inputStream, Long.MAX_VALUE);
-    List<String> varNames = data.get(0).keySet().stream().toList();
+    CSVColumnLoader loader = new CSVColumnLoader(inputStream);
     return buildDataset(
-        data,
-        varNames.stream().filter(n -> n.matches(xVarNamePattern)).toList(),
-        varNames.stream().filter(n -> n.matches(yVarNamePattern)).toList());
+        loader,
+        loader.names().stream().filter(n -> n.matches(xVarNamePattern)).toList(),
+        loader.names().stream().filter(n -> n.matches(yVarNamePattern)).toList());
   }
 
   public static NumericalDataset loadFromCSV(InputStream inputStream, String yVarName) throws IOException {
@@ -120,46 +114,12 @@ public record ListNumericalDataset(List<Example> examples, List<String> xVarName
   }
 
   public static NumericalDataset loadFromCSV(InputStream inputStream, List<String> yVarNames) throws IOException {
-    List<Map<String, String>> data = loadFromCSV(inputStream, Long.MAX_VALUE);
-    if (!data.get(0).keySet().containsAll(yVarNames)) {
-      Set<String> notFoundVars = new LinkedHashSet<>(yVarNames);
-      data.get(0).keySet().forEach(notFoundVars::remove);
-      throw new IOException("Some yVarNames not found in the file: %s".formatted(notFoundVars));
-    }
-    Set<String> xVarNamesSet = new LinkedHashSet<>(data.get(0).keySet());
+    CSVColumnLoader loader = new CSVColumnLoader(inputStream);
+    checkVarNames(yVarNames, loader.names(), "yVarNames");
+    Set<String> xVarNamesSet = new LinkedHashSet<>(loader.names());
     yVarNames.forEach(xVarNamesSet::remove);
     List<String> xVarNames = xVarNamesSet.stream().toList();
-    return buildDataset(data, xVarNames, yVarNames);
-  }
-
-  private static List<Map<String, String>> loadFromCSV(InputStream inputStream, long limit) throws IOException {
-    try (inputStream) {
-      CSVParser parser =
-          CSVFormat.Builder.create().setDelimiter(";").build().parse(new InputStreamReader(inputStream));
-      List<CSVRecord> records = parser.getRecords();
-      List<String> varNames = records.get(0).stream().toList();
-      List<Map<String, String>> maps = new ArrayList<>();
-      int lc = 0;
-      for (CSVRecord record : records) {
-        if (lc >= limit) {
-          break;
-        }
-        if (lc != 0) {
-          if (record.size() != varNames.size()) {
-            L.warning("Line %d/%d has %d items instead of expected %d: skipping it"
-                .formatted(lc, records.size(), record.size(), varNames.size()));
-          } else {
-            Map<String, String> map = IntStream.range(0, varNames.size())
-                .mapToObj(i -> Map.entry(varNames.get(i), record.get(i)))
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey, Map.Entry::getValue, (s1, s2) -> s1, LinkedHashMap::new));
-            maps.add(map);
-          }
-        }
-        lc = lc + 1;
-      }
-      return maps;
-    }
+    return buildDataset(loader, xVarNames, yVarNames);
   }
 
   public static NumericalDataset loadFromCSVResource(String name, List<String> xVarNames, List<String> yVarNames)
@@ -0,0 +1,225 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem.regression;
+
+import io.github.ericmedvet.jgea.core.representation.tree.Tree;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.Element;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedUnivariateRealFunction;
+import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Local optimization stage for tree-based regression functions: optional closed-form linear scaling of the
+ * predictions and a bounded pattern search on the values of the {@link Element.Constant} nodes. Each call to
+ * {@link #optimize} performs at most {@code nOfConstantEvaluations} batch evaluations beyond the initial one.
+ */
+public class LocalOptimizer {
+
+  private static final double INITIAL_STEP_RATE = 0.1d;
+  private static final double MIN_STEP = 1e-6;
+
+  private final boolean linearScaling;
+  private final int nOfConstantEvaluations;
+  private final LongAdder nOfOptimizations;
+  private final LongAdder nOfEvaluations;
+  private final LongAdder nanos;
+
+  public LocalOptimizer(boolean linearScaling, int nOfConstantEvaluations) {
+    this.linearScaling = linearScaling;
+    this.nOfConstantEvaluations = nOfConstantEvaluations;
+    nOfOptimizations = new LongAdder();
+    nOfEvaluations = new LongAdder();
+    nanos = new LongAdder();
+  }
+
+  public record Outcome(TreeBasedUnivariateRealFunction function, double[] outputs, double error) {}
+
+  public record Stats(long nOfOptimizations, long nOfEvaluations, long nanos) {
+    public double evaluationsPerOptimization() {
+      return nOfOptimizations == 0 ? 0d : (double) nOfEvaluations / (double) nOfOptimizations;
+    }
+
+    public double seconds() {
+      return nanos / 1e9;
+    }
+
+    public double secondsPerOptimization() {
+      return nOfOptimizations == 0 ? 0d : seconds() / (double) nOfOptimizations;
+    }
+  }
+
+  private record Scaling(double a, double b) {
+    private static final Scaling IDENTITY = new Scaling(0d, 1d);
+
+    private static Scaling of(double[] outputs, double[] ys) {
+      // single pass co-moments (Welford)
+      double outputMean = 0d;
+      double yMean = 0d;
+      double nCovariance = 0d;
+      double nVariance = 0d;
+      for (int i = 0; i < outputs.length; i++) {
+        double outputDelta = outputs[i] - outputMean;
+        outputMean = outputMean + outputDelta / (i + 1);
+        yMean = yMean + (ys[i] - yMean) / (i + 1);
+        nCovariance = nCovariance + outputDelta * (ys[i] - yMean);
+        nVariance = nVariance + outputDelta * (outputs[i] - outputMean);
+      }
+      double b = (nVariance != 0d) ? nCovariance / nVariance : 0d;
+      double a = yMean - outputMean * b;
+      if (!Double.isFinite(a) || !Double.isFinite(b)) {
+        return IDENTITY;
+      }
+      return new Scaling(a, b);
+    }
+
+    private double[] apply(double[] outputs) {
+      double[] scaled = new double[outputs.length];
+      for (int i = 0; i < outputs.length; i++) {
+        scaled[i] = a + b * outputs[i];
+      }
+      return scaled;
+    }
+  }
+
+  private static void collectConstants(Tree<Element> tree, List<Double> values) {
+    if (tree.content() instanceof Element.Constant constant) {
+      values.add(constant.value());
+    }
+    for (Tree<Element> child : tree) {
+      collectConstants(child, values);
+    }
+  }
+
+  private static boolean isBetter(double error, double bestError) {
+    return !Double.isNaN(error) && (Double.isNaN(bestError) || error < bestError);
+  }
+
+  private static Tree<Element> withConstants(Tree<Element> tree, double[] values, int[] index) {
+    if (tree.content() instanceof Element.Constant) {
+      Tree<Element> constant = Tree.of(new Element.Constant(values[index[0]]));
+      index[0] = index[0] + 1;
+      return constant;
+    }
+    List<Tree<Element>> children = new ArrayList<>(tree.nChildren());
+    for (Tree<Element> child : tree) {
+      children.add(withConstants(child, values, index));
+    }
+    return Tree.of(tree.content(), children);
+  }
+
+  public Stats stats() {
+    return new Stats(nOfOptimizations.sum(), nOfEvaluations.sum(), nanos.sum());
+  }
+
+  public boolean isLinearScaling() {
+    return linearScaling;
+  }
+
+  public int getNOfConstantEvaluations() {
+    return nOfConstantEvaluations;
+  }
+
+  public Outcome optimize(
+      TreeBasedUnivariateRealFunction function,
+      double[] outputs,
+      double[][] xColumns,
+      double[] ys,
+      UnivariateRegressionFitness.Metric metric) {
+    long startingNanos = System.nanoTime();
+    Tree<Element> bestTree = function.getParams();
+    Scaling bestScaling = linearScaling ? Scaling.of(outputs, ys) : Scaling.IDENTITY;
+    double[] bestOutputs = linearScaling ? bestScaling.apply(outputs) : outputs;
+    double bestError = metric.apply(bestOutputs, ys);
+    List<Double> constants = new ArrayList<>();
+    if (nOfConstantEvaluations > 0) {
+      collectConstants(bestTree, constants);
+    }
+    int nOfEvaluations = 0;
+    if (!constants.isEmpty()) {
+      // coordinate-wise pattern search: try +step and -step on each constant, halve the step on failure
+      double[] values = constants.stream().mapToDouble(Double::doubleValue).toArray();
+      double[] steps = new double[values.length];
+      for (int i = 0; i < values.length; i++) {
+        steps[i] = INITIAL_STEP_RATE * Math.max(1d, Math.abs(values[i]));
+      }
+      int i = 0;
+      int nOfConvergedConstants = 0;
+      while (nOfEvaluations < nOfConstantEvaluations && nOfConvergedConstants < values.length) {
+        boolean improved = false;
+        if (steps[i] >= MIN_STEP) {
+          for (double direction : new double[] {1d, -1d}) {
+            if (nOfEvaluations >= nOfConstantEvaluations) {
+              break;
+            }
+            double[] candidateValues = values.clone();
+            candidateValues[i] = values[i] + direction * steps[i];
+            Tree<Element> candidateTree = withConstants(bestTree, candidateValues, new int[] {0});
+            double[] candidateOutputs = new TreeBasedUnivariateRealFunction(
+                    candidateTree, function.xVarNames(), function.yVarName(), function.getPostOperator())
+                .applyAsDoubles(xColumns);
+            nOfEvaluations = nOfEvaluations + 1;
+            Scaling candidateScaling = linearScaling ? Scaling.of(candidateOutputs, ys) : Scaling.IDENTITY;
+            if (linearScaling) {
+              candidateOutputs = candidateScaling.apply(candidateOutputs);
+            }
+            double candidateError = metric.apply(candidateOutputs, ys);
+            if (isBetter(candidateError, bestError)) {
+              values = candidateValues;
+              bestTree = candidateTree;
+              bestScaling = candidateScaling;
+              bestOutputs = candidateOutputs;
+              bestError = candidateError;
+              improved = true;
+              break;
+            }
+          }
+          if (!improved) {
+            steps[i] = steps[i] / 2d;
+          }
+        }
+        nOfConvergedConstants = steps[i] < MIN_STEP ? nOfConvergedConstants + 1 : 0;
+        i = (i + 1) % values.length;
+      }
+    }
+    DoubleUnaryOperator postOperator = function.getPostOperator();
+    if (linearScaling) {
+      Scaling scaling = bestScaling;
+      postOperator = postOperator.andThen(v -> scaling.a + scaling.b * v);
+    }
+    Outcome outcome = new Outcome(
+        new TreeBasedUnivariateRealFunction(bestTree, function.xVarNames(), function.yVarName(), postOperator),
+        bestOutputs,
+        bestError);
+    this.nOfOptimizations.increment();
+    this.nOfEvaluations.add(nOfEvaluations);
+    nanos.add(System.nanoTime() - startingNanos);
+    return outcome;
+  }
+
+  @Override
+  public String toString() {
+    return "LocalOptimizer{linearScaling=%s, nOfConstantEvaluations=%d}"
+        .formatted(linearScaling, nOfConstantEvaluations);
+  }
+}
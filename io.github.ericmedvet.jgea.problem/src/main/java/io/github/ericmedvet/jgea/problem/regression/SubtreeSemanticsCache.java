@@ -0,0 +1,166 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem.regression;
+
+import io.github.ericmedvet.jgea.core.representation.tree.ImmutableTree;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.Element;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SubtreeSemanticsCache {
+
+  private static final long ENTRY_OVERHEAD_BYTES = 64;
+  // an immutable tree node plus its children list
+  private static final long KEY_NODE_BYTES = 56;
+
+  private final NumericalDataset dataset;
+  private final long maxBytes;
+  private final LinkedHashMap<ImmutableTree<Element>, double[]> cache;
+  private double[][] xColumns;
+  private Map<String, Integer> xIndexes;
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  public SubtreeSemanticsCache(NumericalDataset dataset, long maxBytes) {
+    this.dataset = dataset;
+    this.maxBytes = maxBytes;
+    cache = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  public record Stats(long hits, long misses, long evictions, int nOfEntries, long bytes) {
+    public double hitRate() {
+      return (hits + misses) == 0 ? 0d : (double) hits / (double) (hits + misses);
+    }
+  }
+
+  private static long entryBytes(ImmutableTree<Element> tree, double[] values) {
+    return ENTRY_OVERHEAD_BYTES + KEY_NODE_BYTES * tree.size() + 8L * values.length;
+  }
+
+  private synchronized void ensureColumns() {
+    if (xColumns == null) {
+      int n = dataset.size();
+      int p = dataset.xVarNames().size();
+      double[][] columns = new double[p][n];
+      for (int i = 0; i < n; i++) {
+        double[] xs = dataset.exampleProvider().apply(i).xs();
+        for (int j = 0; j < p; j++) {
+          columns[j][i] = xs[j];
+        }
+      }
+      Map<String, Integer> indexes = new LinkedHashMap<>();
+      for (int j = 0; j < p; j++) {
+        indexes.put(dataset.xVarNames().get(j), j);
+      }
+      xIndexes = indexes;
+      xColumns = columns;
+    }
+  }
+
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+      bytes = 0;
+    }
+  }
+
+  public NumericalDataset getDataset() {
+    return dataset;
+  }
+
+  public double[] outputs(ImmutableTree<Element> tree) {
+    // the returned array may be shared with the cache and has hence not to be modified
+    ensureColumns();
+    return compute(tree);
+  }
+
+  private double[] compute(ImmutableTree<Element> tree) {
+    if (tree.content() instanceof Element.Decoration) {
+      throw new RuntimeException(String.format("Cannot compute: decoration node %s found", tree.content()));
+    }
+    if (tree.content() instanceof Element.Variable variable) {
+      Integer index = xIndexes.get(variable.name());
+      if (index == null) {
+        throw new RuntimeException(String.format("Undefined variable: %s", variable.name()));
+      }
+      return xColumns[index];
+    }
+    if (tree.content() instanceof Element.Constant constant) {
+      double[] values = new double[dataset.size()];
+      Arrays.fill(values, constant.value());
+      return values;
+    }
+    double[] values;
+    synchronized (cache) {
+      values = cache.get(tree);
+      if (values != null) {
+        hits = hits + 1;
+        return values;
+      }
+      misses = misses + 1;
+    }
+    double[][] childrenValues = new double[tree.nChildren()][];
+    for (int c = 0; c < childrenValues.length; c++) {
+      childrenValues[c] = compute(tree.child(c));
+    }
+    Element.Operator operator = (Element.Operator) tree.content();
+    values = new double[dataset.size()];
+    operator.applyAsDoubles(childrenValues, values);
+    store(tree, values);
+    return values;
+  }
+
+  public Stats stats() {
+    synchronized (cache) {
+      return new Stats(hits, misses, evictions, cache.size(), bytes);
+    }
+  }
+
+  private void store(ImmutableTree<Element> tree, double[] values) {
+    long entryBytes = entryBytes(tree, values);
+    if (entryBytes > maxBytes) {
+      return;
+    }
+    synchronized (cache) {
+      if (cache.put(tree, values) == null) {
+        bytes = bytes + entryBytes;
+      }
+      Iterator<Map.Entry<ImmutableTree<Element>, double[]>> iterator =
+          cache.entrySet().iterator();
+      while (bytes > maxBytes && iterator.hasNext()) {
+        Map.Entry<ImmutableTree<Element>, double[]> entry = iterator.next();
+        bytes = bytes - entryBytes(entry.getKey(), entry.getValue());
+        iterator.remove();
+        evictions = evictions + 1;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    Stats stats = stats();
+    return "SubtreeSemanticsCache{n=%d, hitRate=%.3f, bytes=%d}".formatted(stats.nOfEntries, stats.hitRate(), stats.bytes);
+  }
+}
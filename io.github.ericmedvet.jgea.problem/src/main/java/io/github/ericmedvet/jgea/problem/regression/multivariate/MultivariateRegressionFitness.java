@@ -22,7 +22,9 @@ package io.github.ericmedvet.jgea.problem.regression.multivariate;
 
 import io.github.ericmedvet.jgea.core.fitness.CaseBasedFitness;
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedMultivariateRealFunction;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
+import io.github.ericmedvet.jgea.problem.regression.SubtreeSemanticsCache;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import java.util.List;
 import java.util.Map;
@@ -36,37 +38,80 @@ public class MultivariateRegressionFitness
     implements CaseBasedFitness<NamedMultivariateRealFunction, Map<String, Double>, Map<String, Double>, Double> {
   private final NumericalDataset dataset;
   private final UnivariateRegressionFitness.Metric metric;
+  private final SubtreeSemanticsCache cache;
 
   private Map<String, List<Double>> actualYs;
 
-  public MultivariateRegressionFitness(NumericalDataset dataset, UnivariateRegressionFitness.Metric metric) {
+  public MultivariateRegressionFitness(
+      NumericalDataset dataset, UnivariateRegressionFitness.Metric metric, long cacheBytes) {
     this.dataset = dataset;
     this.metric = metric;
+    cache = cacheBytes > 0 ? new SubtreeSemanticsCache(dataset, cacheBytes) : null;
     actualYs = null;
   }
 
+  public MultivariateRegressionFitness(NumericalDataset dataset, UnivariateRegressionFitness.Metric metric) {
+    this(dataset, metric, 0);
+  }
+
+  private Map<String, List<Double>> actualYs() {
+    if (actualYs == null) {
+      actualYs = dataset.yVarNames().stream()
+          .collect(Collectors.toMap(yName -> yName, yName -> IntStream.range(0, dataset.size())
+              .mapToObj(i -> dataset.namedExampleProvider()
+                  .apply(i)
+                  .y()
+                  .get(yName))
+              .toList()));
+    }
+    return actualYs;
+  }
+
+  private double aggregate(List<Map<String, Double>> outputs, Map<String, List<Double>> actualYs) {
+    Map<String, List<Double>> predictedYs = dataset.yVarNames().stream()
+        .collect(Collectors.toMap(
+            yName -> yName, yName -> outputs.stream().map(o -> o.get(yName)).toList()));
+    return predictedYs.entrySet().stream()
+        .mapToDouble(e ->
+            metric.apply(UnivariateRegressionFitness.pairs(e.getValue(), actualYs.get(e.getKey()))))
+        .average()
+        .orElse(Double.NaN);
+  }
+
   @Override
   public Function<List<Map<String, Double>>, Double> aggregateFunction() {
-    return outputs -> {
-      if (actualYs == null) {
-        actualYs = dataset.yVarNames().stream()
-            .collect(Collectors.toMap(yName -> yName, yName -> IntStream.range(0, dataset.size())
-                .mapToObj(i -> dataset.namedExampleProvider()
-                    .apply(i)
-                    .y()
-                    .get(yName))
-                .toList()));
-      }
-      Map<String, List<Double>> predictedYs = dataset.yVarNames().stream()
-          .collect(Collectors.toMap(
-              yName -> yName,
-              yName -> outputs.stream().map(o -> o.get(yName)).toList()));
-      return predictedYs.entrySet().stream()
-          .mapToDouble(e ->
-              metric.apply(UnivariateRegressionFitness.pairs(e.getValue(), actualYs.get(e.getKey()))))
-          .average()
-          .orElse(Double.NaN);
-    };
+    return outputs -> aggregate(outputs, actualYs());
+  }
+
+  @Override
+  public Function<List<Map<String, Double>>, Double> aggregateFunction(int[] caseIndexes) {
+    return outputs -> aggregate(
+        outputs,
+        actualYs().entrySet().stream()
+            .collect(Collectors.toMap(
+                Map.Entry::getKey,
+                e -> IntStream.of(caseIndexes)
+                    .mapToObj(e.getValue()::get)
+                    .toList())));
+  }
+
+  @Override
+  public Double apply(NamedMultivariateRealFunction f) {
+    if (cache != null && f instanceof TreeBasedMultivariateRealFunction treeBasedFunction) {
+      List<String> yVarNames = treeBasedFunction.yVarNames();
+      double[][] outputs = treeBasedFunction.getImmutableParams().stream()
+          .map(cache::outputs)
+          .toArray(double[][]::new);
+      return aggregateFunction()
+          .apply(IntStream.range(0, nOfCases())
+              .mapToObj(i -> IntStream.range(0, yVarNames.size())
+                  .boxed()
+                  .collect(Collectors.toMap(
+                      yVarNames::get,
+                      j -> treeBasedFunction.getPostOperator().applyAsDouble(outputs[j][i]))))
+              .toList());
+    }
+    return CaseBasedFitness.super.apply(f);
   }
 
   @Override
@@ -84,6 +129,10 @@ public class MultivariateRegressionFitness
     return dataset.size();
   }
 
+  public SubtreeSemanticsCache getCache() {
+    return cache;
+  }
+
   public NumericalDataset getDataset() {
     return dataset;
   }
@@ -22,12 +22,17 @@ package io.github.ericmedvet.jgea.problem.regression.univariate;
 
 import io.github.ericmedvet.jgea.core.fitness.CaseBasedFitness;
 import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedUnivariateRealFunction;
+import io.github.ericmedvet.jgea.problem.regression.LocalOptimizer;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
+import io.github.ericmedvet.jgea.problem.regression.SubtreeSemanticsCache;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToDoubleBiFunction;
 import java.util.stream.IntStream;
 
 public class UnivariateRegressionFitness
@@ -35,43 +40,66 @@ public class UnivariateRegressionFitness
 
   private final NumericalDataset dataset;
   private final Metric metric;
+  private final SubtreeSemanticsCache cache;
+  private final LocalOptimizer localOptimizer;
 
   private List<Double> actualYs;
+  private double[][] xColumns;
+  private double[] ys;
 
-  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric) {
+  public UnivariateRegressionFitness(
+      NumericalDataset dataset, Metric metric, long cacheBytes, LocalOptimizer localOptimizer) {
     this.dataset = dataset;
     this.metric = metric;
+    cache = cacheBytes > 0 ? new SubtreeSemanticsCache(dataset, cacheBytes) : null;
+    this.localOptimizer = localOptimizer;
     actualYs = null;
   }
 
+  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric, long cacheBytes) {
+    this(dataset, metric, cacheBytes, null);
+  }
+
+  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric) {
+    this(dataset, metric, 0);
+  }
+
   public enum Metric implements Function<List<Y>, Double> {
-    MAE(ys -> ys.stream()
-        .mapToDouble(y -> Math.abs(y.predicted - y.actual))
-        .average()
-        .orElse(Double.NaN)),
-    MSE(ys -> ys.stream()
-        .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-        .average()
-        .orElse(Double.NaN)),
-    RMSE(ys -> Math.sqrt(ys.stream()
-        .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-        .average()
-        .orElse(Double.NaN))),
-    NMSE(ys -> ys.stream()
-            .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-            .average()
-            .orElse(Double.NaN)
-        / ys.stream().mapToDouble(y -> y.actual).average().orElse(1d));
-    private final Function<List<Y>, Double> function;
-
-    Metric(Function<List<Y>, Double> function) {
+    MAE((predictedYs, actualYs) -> {
+      double sum = 0d;
+      for (int i = 0; i < actualYs.length; i++) {
+        sum = sum + Math.abs(predictedYs[i] - actualYs[i]);
+      }
+      return sum / actualYs.length;
+    }),
+    MSE(UnivariateRegressionFitness::mse),
+    RMSE((predictedYs, actualYs) -> Math.sqrt(mse(predictedYs, actualYs))),
+    NMSE((predictedYs, actualYs) ->
+        mse(predictedYs, actualYs) / Arrays.stream(actualYs).average().orElse(1d));
+    private final ToDoubleBiFunction<double[], double[]> function;
+
+    Metric(ToDoubleBiFunction<double[], double[]> function) {
       this.function = function;
     }
 
     @Override
     public Double apply(List<Y> ys) {
-      return function.apply(ys);
+      return apply(
+          ys.stream().mapToDouble(Y::predicted).toArray(),
+          ys.stream().mapToDouble(Y::actual).toArray());
+    }
+
+    public double apply(double[] predictedYs, double[] actualYs) {
+      return function.applyAsDouble(predictedYs, actualYs);
+    }
+  }
+
+  private static double mse(double[] predictedYs, double[] actualYs) {
+    double sum = 0d;
+    for (int i = 0; i < actualYs.length; i++) {
+      sum = sum + (predictedYs[i] - actualYs[i]) * (predictedYs[i] - actualYs[i]);
     }
+    return sum / actualYs.length;
   }
 
   private record Y(double predicted, double actual) {}
@@ -82,6 +110,14 @@ public class UnivariateRegressionFitness
         .toList();
   }
 
+  public SubtreeSemanticsCache getCache() {
+    return cache;
+  }
+
+  public LocalOptimizer getLocalOptimizer() {
+    return localOptimizer;
+  }
+
   public NumericalDataset getDataset() {
     return dataset;
   }
@@ -90,18 +126,117 @@ public class UnivariateRegressionFitness
     return metric;
   }
 
+  private List<Double> actualYs() {
+    if (actualYs == null) {
+      actualYs = IntStream.range(0, dataset.size())
+          .mapToObj(i -> dataset.exampleProvider().apply(i).ys()[0])
+          .toList();
+    }
+    return actualYs;
+  }
+
   @Override
   public Function<List<Double>, Double> aggregateFunction() {
+    return predictedYs -> metric.apply(pairs(predictedYs, actualYs()));
+  }
+
+  @Override
+  public Function<List<Double>, Double> aggregateFunction(int[] caseIndexes) {
     return predictedYs -> {
-      if (actualYs == null) {
-        actualYs = IntStream.range(0, dataset.size())
-            .mapToObj(i -> dataset.exampleProvider().apply(i).ys()[0])
-            .toList();
-      }
-      return metric.apply(pairs(predictedYs, actualYs));
+      List<Double> allActualYs = actualYs();
+      return metric.apply(pairs(
+          predictedYs, IntStream.of(caseIndexes).mapToObj(allActualYs::get).toList()));
     };
   }
 
+  private synchronized void ensureColumns() {
+    if (xColumns == null) {
+      int n = dataset.size();
+      int p = dataset.xVarNames().size();
+      double[][] columns = new double[p][n];
+      double[] targets = new double[n];
+      for (int i = 0; i < n; i++) {
+        NumericalDataset.Example example = dataset.exampleProvider().apply(i);
+        for (int j = 0; j < p; j++) {
+          columns[j][i] = example.xs()[j];
+        }
+        targets[i] = example.ys()[0];
+      }
+      ys = targets;
+      xColumns = columns;
+    }
+  }
+
+  private double[] outputs(TreeBasedUnivariateRealFunction f) {
+    ensureColumns();
+    return cache != null
+        ? Arrays.stream(cache.outputs(f.getImmutableParams()))
+            .map(f.getPostOperator())
+            .toArray()
+        : f.applyAsDoubles(xColumns);
+  }
+
+  private static double[] select(double[] values, int[] indexes) {
+    return IntStream.of(indexes).mapToDouble(i -> values[i]).toArray();
+  }
+
+  private boolean isOptimizable(NamedUnivariateRealFunction f) {
+    return localOptimizer != null
+        && f instanceof TreeBasedUnivariateRealFunction treeBasedFunction
+        && treeBasedFunction.xVarNames().equals(dataset.xVarNames());
+  }
+
+  private LocalOptimizer.Outcome optimize(TreeBasedUnivariateRealFunction f) {
+    return localOptimizer.optimize(f, outputs(f), xColumns, ys, metric);
+  }
+
+  /**
+   * Returns the function whose quality is actually computed by this fitness, i.e., {@code f} after the local
+   * optimization stage, if any, or {@code f} itself otherwise.
+   */
+  public NamedUnivariateRealFunction optimized(NamedUnivariateRealFunction f) {
+    if (isOptimizable(f)) {
+      return optimize((TreeBasedUnivariateRealFunction) f).function();
+    }
+    return f;
+  }
+
+  @Override
+  public Double apply(NamedUnivariateRealFunction f) {
+    if (isOptimizable(f)) {
+      return optimize((TreeBasedUnivariateRealFunction) f).error();
+    }
+    if (cache != null && f instanceof TreeBasedUnivariateRealFunction treeBasedFunction) {
+      return metric.apply(outputs(treeBasedFunction), ys);
+    }
+    return CaseBasedFitness.super.apply(f);
+  }
+
+  /**
+   * Computes the quality on a subset of the cases going through the same semantics cache and local optimization
+   * stage used at full fidelity: the local optimizer is fitted on the selected cases only.
+   */
+  @Override
+  public Double apply(NamedUnivariateRealFunction f, double fidelity) {
+    if (fidelity >= 1d
+        || !(f instanceof TreeBasedUnivariateRealFunction treeBasedFunction)
+        || (cache == null && !isOptimizable(f))) {
+      return CaseBasedFitness.super.apply(f, fidelity);
+    }
+    int[] caseIndexes = CaseBasedFitness.caseIndexes(nOfCases(), fidelity);
+    ensureColumns();
+    double[][] columns =
+        Arrays.stream(xColumns).map(column -> select(column, caseIndexes)).toArray(double[][]::new);
+    double[] targets = select(ys, caseIndexes);
+    double[] outputs = cache != null
+        ? select(outputs(treeBasedFunction), caseIndexes)
+        : treeBasedFunction.applyAsDoubles(columns);
+    if (isOptimizable(f)) {
+      return localOptimizer.optimize(treeBasedFunction, outputs, columns, targets, metric).error();
+    }
+    return metric.apply(outputs, targets);
+  }
+
   @Override
   public BiFunction<NamedUnivariateRealFunction, Map<String, Double>, Double> caseFunction() {
     return NamedUnivariateRealFunction::computeAsDouble;
@@ -25,6 +25,7 @@ import io.github.ericmedvet.jgea.core.problem.ProblemWithExampleSolution;
 import io.github.ericmedvet.jgea.core.problem.ProblemWithValidation;
 import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction;
 import io.github.ericmedvet.jsdynsym.core.numerical.UnivariateRealFunction;
+import java.util.function.Function;
 
 public class UnivariateRegressionProblem<F extends UnivariateRegressionFitness>
     implements ComparableQualityBasedProblem<NamedUnivariateRealFunction, Double>,
@@ -48,13 +49,24 @@ public class UnivariateRegressionProblem<F extends UnivariateRegressionFitness>
         fitness.getDataset().yVarNames().get(0));
   }
 
+  public F getValidationFitness() {
+    return validationFitness;
+  }
+
   @Override
   public F qualityFunction() {
     return fitness;
   }
 
+  /**
+   * Returns the validation quality of the function actually selected on the training data, i.e., after the local
+   * optimization stage of the training fitness, if any, has been applied.
+   */
   @Override
-  public F validationQualityFunction() {
-    return validationFitness;
+  public Function<NamedUnivariateRealFunction, Double> validationQualityFunction() {
+    if (validationFitness == null) {
+      return null;
+    }
+    return f -> validationFitness.apply(fitness.optimized(f));
   }
 }
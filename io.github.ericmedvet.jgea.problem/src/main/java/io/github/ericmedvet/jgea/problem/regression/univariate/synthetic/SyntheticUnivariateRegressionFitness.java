@@ -21,6 +21,7 @@
 package io.github.ericmedvet.jgea.problem.regression.univariate.synthetic;
 
 import io.github.ericmedvet.jgea.problem.regression.ListNumericalDataset;
+import io.github.ericmedvet.jgea.problem.regression.LocalOptimizer;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import io.github.ericmedvet.jsdynsym.core.numerical.UnivariateRealFunction;
@@ -31,15 +32,25 @@ public class SyntheticUnivariateRegressionFitness extends UnivariateRegressionFi
   private final UnivariateRealFunction targetFunction;
 
   public SyntheticUnivariateRegressionFitness(
-      UnivariateRealFunction targetFunction, List<double[]> points, Metric metric) {
+      UnivariateRealFunction targetFunction,
+      List<double[]> points,
+      Metric metric,
+      LocalOptimizer localOptimizer) {
     super(
         new ListNumericalDataset(points.stream()
             .map(xs -> new NumericalDataset.Example(xs, targetFunction.applyAsDouble(xs)))
             .toList()),
-        metric);
+        metric,
+        0,
+        localOptimizer);
     this.targetFunction = targetFunction;
   }
 
+  public SyntheticUnivariateRegressionFitness(
+      UnivariateRealFunction targetFunction, List<double[]> points, Metric metric) {
+    this(targetFunction, points, metric, null);
+  }
+
   public UnivariateRealFunction getTargetFunction() {
     return targetFunction;
   }
@@ -20,10 +20,12 @@
 
 package io.github.ericmedvet.jgea.problem.regression.univariate.synthetic;
 
+import io.github.ericmedvet.jgea.problem.regression.LocalOptimizer;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionProblem;
 import io.github.ericmedvet.jsdynsym.core.numerical.UnivariateRealFunction;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class SyntheticUnivariateRegressionProblem
     extends UnivariateRegressionProblem<SyntheticUnivariateRegressionFitness> {
@@ -34,14 +36,38 @@ public class SyntheticUnivariateRegressionProblem
       UnivariateRealFunction targetFunction,
       List<double[]> trainingPoints,
       List<double[]> validationPoints,
-      UnivariateRegressionFitness.Metric metric) {
+      UnivariateRegressionFitness.Metric metric,
+      LocalOptimizer localOptimizer) {
     super(
-        new SyntheticUnivariateRegressionFitness(targetFunction, trainingPoints, metric),
+        new SyntheticUnivariateRegressionFitness(targetFunction, trainingPoints, metric, localOptimizer),
         new SyntheticUnivariateRegressionFitness(targetFunction, validationPoints, metric));
     this.targetFunction = targetFunction;
   }
 
+  public SyntheticUnivariateRegressionProblem(
+      UnivariateRealFunction targetFunction,
+      List<double[]> trainingPoints,
+      List<double[]> validationPoints,
+      UnivariateRegressionFitness.Metric metric) {
+    this(targetFunction, trainingPoints, validationPoints, metric, null);
+  }
+
+  private static List<double[]> points(UnivariateRegressionFitness fitness) {
+    return IntStream.range(0, fitness.getDataset().size())
+        .mapToObj(i -> fitness.getDataset().exampleProvider().apply(i).xs())
+        .toList();
+  }
+
   public UnivariateRealFunction getTargetFunction() {
     return targetFunction;
   }
+
+  public SyntheticUnivariateRegressionProblem withLocalOptimizer(LocalOptimizer localOptimizer) {
+    return new SyntheticUnivariateRegressionProblem(
+        targetFunction,
+        points(qualityFunction()),
+        points(getValidationFitness()),
+        qualityFunction().getMetric(),
+        localOptimizer);
+  }
 }
@@ -24,7 +24,6 @@ import io.github.ericmedvet.jgea.core.problem.ProblemWithExampleSolution;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
-import java.util.function.ToDoubleFunction;
 
 /**
  * @author "Eric Medvet" on 2024/01/21 for jgea
@@ -32,11 +31,43 @@ import java.util.function.ToDoubleFunction;
 public abstract class AbstractNumericalProblem
     implements ComparableQualityBasedProblem<List<Double>, Double>, ProblemWithExampleSolution<List<Double>> {
   private final int p;
-  private final ToDoubleFunction<List<Double>> f;
+  private final ThreadLocal<double[]> buffer;
 
-  public AbstractNumericalProblem(int p, ToDoubleFunction<List<Double>> f) {
+  public AbstractNumericalProblem(int p) {
     this.p = p;
-    this.f = f;
+    buffer = ThreadLocal.withInitial(() -> new double[p]);
+  }
+
+  /**
+   * Evaluates the point made of the {@code p} values starting at {@code offset}, without allocating memory.
+   */
+  public abstract double evaluate(double[] values, int offset);
+
+  public double evaluate(double[] values) {
+    if (values.length != p) {
+      throw new IllegalArgumentException("Wrong input size: %d expected, %d found".formatted(p, values.length));
+    }
+    return evaluate(values, 0);
+  }
+
+  /**
+   * Evaluates all the rows of a population matrix stored row-wise in {@code values}, putting the results in {@code
+   * qualities}.
+   */
+  public void evaluateAll(double[] values, double[] qualities) {
+    if (values.length != qualities.length * p) {
+      throw new IllegalArgumentException("Wrong input size: %d expected, %d found"
+          .formatted(qualities.length * p, values.length));
+    }
+    for (int i = 0; i < qualities.length; i++) {
+      qualities[i] = evaluate(values, i * p);
+    }
+  }
+
+  public double[] evaluateAll(double[] values) {
+    double[] qualities = new double[values.length / p];
+    evaluateAll(values, qualities);
+    return qualities;
   }
 
   @Override
@@ -44,13 +75,21 @@ public abstract class AbstractNumericalProblem
     return Collections.nCopies(p, 0d);
   }
 
+  public int p() {
+    return p;
+  }
+
   @Override
   public Function<List<Double>, Double> qualityFunction() {
     return vs -> {
       if (vs.size() != p) {
         throw new IllegalArgumentException("Wrong input size: %d expected, %d found".formatted(p, vs.size()));
       }
-      return f.applyAsDouble(vs);
+      double[] values = buffer.get();
+      for (int i = 0; i < p; i++) {
+        values[i] = vs.get(i);
+      }
+      return evaluate(values, 0);
     };
   }
 }
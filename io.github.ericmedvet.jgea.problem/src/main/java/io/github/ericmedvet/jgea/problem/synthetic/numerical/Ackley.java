@@ -27,11 +27,18 @@ public class Ackley extends AbstractNumericalProblem {
   private static final double C = 2 * Math.PI;
 
   public Ackley(int p) {
-    super(p, vs -> {
-      double d = vs.size();
-      double squaredSum = vs.stream().mapToDouble(v -> v * v).sum();
-      double cosSum = vs.stream().mapToDouble(v -> Math.cos(C * v)).sum();
-      return -A * Math.exp(-B * Math.sqrt(squaredSum / d)) - Math.exp(cosSum / d) + A + Math.exp(1);
-    });
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    int p = p();
+    double squaredSum = 0d;
+    double cosSum = 0d;
+    for (int i = offset; i < offset + p; i++) {
+      squaredSum = squaredSum + values[i] * values[i];
+      cosSum = cosSum + Math.cos(C * values[i]);
+    }
+    return -A * Math.exp(-B * Math.sqrt(squaredSum / p)) - Math.exp(cosSum / p) + A + Math.exp(1);
   }
 }
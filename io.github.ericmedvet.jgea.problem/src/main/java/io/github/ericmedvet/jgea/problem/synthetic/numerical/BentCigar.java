@@ -19,19 +19,20 @@
  */
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
-import java.util.stream.IntStream;
-
 /**
  * @author "Eric Medvet" on 2024/01/21 for jgea
  */
 public class BentCigar extends AbstractNumericalProblem {
   public BentCigar(int p) {
-    super(
-        p,
-        vs -> vs.get(0) * vs.get(0)
-            + 1000000d
-                * IntStream.range(1, p)
-                    .mapToDouble(i -> vs.get(i) * vs.get(i))
-                    .sum());
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 0d;
+    for (int i = offset + 1; i < offset + p(); i++) {
+      sum = sum + values[i] * values[i];
+    }
+    return values[offset] * values[offset] + 1000000d * sum;
   }
 }
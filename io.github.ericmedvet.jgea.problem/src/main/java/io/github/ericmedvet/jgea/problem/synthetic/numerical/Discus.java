@@ -19,18 +19,20 @@
  */
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
-import java.util.stream.IntStream;
-
 /**
  * @author "Eric Medvet" on 2024/01/21 for jgea
  */
 public class Discus extends AbstractNumericalProblem {
   public Discus(int p) {
-    super(
-        p,
-        vs -> 1000000d * vs.get(0) * vs.get(0)
-            + IntStream.range(1, p)
-                .mapToDouble(i -> vs.get(i) * vs.get(i))
-                .sum());
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 0d;
+    for (int i = offset + 1; i < offset + p(); i++) {
+      sum = sum + values[i] * values[i];
+    }
+    return 1000000d * values[offset] * values[offset] + sum;
   }
 }
@@ -19,15 +19,26 @@
  */
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
-import java.util.stream.IntStream;
-
 /**
  * @author "Eric Medvet" on 2024/01/21 for jgea
  */
 public class HighConditionedElliptic extends AbstractNumericalProblem {
+  private final double[] coefficients;
+
   public HighConditionedElliptic(int p) {
-    super(p, vs -> IntStream.range(0, p)
-        .mapToDouble(i -> vs.get(i) * vs.get(i) * Math.pow(1000000d, (double) i / (p - 1)))
-        .sum());
+    super(p);
+    coefficients = new double[p];
+    for (int i = 0; i < p; i++) {
+      coefficients[i] = p == 1 ? 1d : Math.pow(1000000d, (double) i / (p - 1));
+    }
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 0d;
+    for (int i = 0; i < coefficients.length; i++) {
+      sum = sum + values[offset + i] * values[offset + i] * coefficients[i];
+    }
+    return sum;
   }
 }
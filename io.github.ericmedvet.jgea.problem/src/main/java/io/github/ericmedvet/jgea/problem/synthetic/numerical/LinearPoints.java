@@ -21,17 +21,20 @@
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
 public class LinearPoints extends AbstractNumericalProblem {
-
   public LinearPoints(int p) {
-    super(p, vs -> {
-      double m = (vs.get(vs.size() - 1) - vs.get(0)) / (double) vs.size();
-      double q = vs.get(0);
-      double sumOfSquaredErrors = 0;
-      for (int i = 0; i < vs.size(); i++) {
-        double error = vs.get(i) - (m * (double) i + q);
-        sumOfSquaredErrors = sumOfSquaredErrors + error * error;
-      }
-      return sumOfSquaredErrors / (double) vs.size();
-    });
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    int p = p();
+    double m = (values[offset + p - 1] - values[offset]) / (double) p;
+    double q = values[offset];
+    double sumOfSquaredErrors = 0;
+    for (int i = 0; i < p; i++) {
+      double error = values[offset + i] - (m * (double) i + q);
+      sumOfSquaredErrors = sumOfSquaredErrors + error * error;
+    }
+    return sumOfSquaredErrors / (double) p;
   }
 }
@@ -23,11 +23,15 @@ package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 public class Rastrigin extends AbstractNumericalProblem {
 
   public Rastrigin(int p) {
-    super(
-        p,
-        vs -> 10d * (double) vs.size()
-            + vs.stream()
-                .mapToDouble(v -> v * v - 10 * Math.cos(2 * Math.PI * v))
-                .sum());
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 10d * (double) p();
+    for (int i = offset; i < offset + p(); i++) {
+      sum = sum + values[i] * values[i] - 10 * Math.cos(2 * Math.PI * values[i]);
+    }
+    return sum;
   }
 }
@@ -19,16 +19,21 @@
  */
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
-import java.util.stream.IntStream;
-
 /**
  * @author "Eric Medvet" on 2024/01/21 for jgea
  */
 public class Rosenbrock extends AbstractNumericalProblem {
   public Rosenbrock(int p) {
-    super(p, vs -> IntStream.range(0, p - 1)
-        .mapToDouble(i ->
-            100 * Math.pow(vs.get(i) * vs.get(i) - vs.get(i + 1), 2) + (vs.get(i) - 1) * (vs.get(i) - 1))
-        .sum());
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 0d;
+    for (int i = offset; i < offset + p() - 1; i++) {
+      double d = values[i] * values[i] - values[i + 1];
+      sum = sum + 100 * d * d + (values[i] - 1) * (values[i] - 1);
+    }
+    return sum;
   }
 }
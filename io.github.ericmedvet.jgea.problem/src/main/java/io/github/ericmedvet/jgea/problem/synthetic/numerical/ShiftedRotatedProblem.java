@@ -0,0 +1,123 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-problem
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.problem.synthetic.numerical;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * A shifted and (optionally) rotated version of a numerical problem, as in the CEC benchmark suites: the quality of
+ * {@code x} is the quality of {@code M (x - o)} according to the inner problem, with {@code o} a shift vector and
+ * {@code M} an orthogonal matrix. Both are computed once at construction.
+ */
+public class ShiftedRotatedProblem extends AbstractNumericalProblem {
+  private final AbstractNumericalProblem innerProblem;
+  private final double[] shift;
+  private final double[] rotation; // row-wise p x p, null if not rotated
+  private final ThreadLocal<double[]> buffer;
+
+  public ShiftedRotatedProblem(AbstractNumericalProblem innerProblem, double[] shift, double[] rotation) {
+    super(innerProblem.p());
+    int p = innerProblem.p();
+    if (shift.length != p) {
+      throw new IllegalArgumentException("Wrong shift size: %d expected, %d found".formatted(p, shift.length));
+    }
+    if (rotation != null && rotation.length != p * p) {
+      throw new IllegalArgumentException(
+          "Wrong rotation matrix size: %d expected, %d found".formatted(p * p, rotation.length));
+    }
+    this.innerProblem = innerProblem;
+    this.shift = shift;
+    this.rotation = rotation;
+    buffer = ThreadLocal.withInitial(() -> new double[2 * p]);
+  }
+
+  public ShiftedRotatedProblem(AbstractNumericalProblem innerProblem, double shiftRange, boolean rotated, long seed) {
+    this(
+        innerProblem,
+        randomShift(innerProblem.p(), shiftRange, new Random(seed)),
+        rotated ? randomRotation(innerProblem.p(), new Random(seed + 1)) : null);
+  }
+
+  private static double[] randomRotation(int p, RandomGenerator random) {
+    // orthonormalize the rows of a gaussian matrix with modified Gram-Schmidt
+    double[] m = new double[p * p];
+    for (int i = 0; i < p; i++) {
+      double norm;
+      do {
+        for (int j = 0; j < p; j++) {
+          m[i * p + j] = random.nextGaussian();
+        }
+        for (int k = 0; k < i; k++) {
+          double dot = 0d;
+          for (int j = 0; j < p; j++) {
+            dot = dot + m[i * p + j] * m[k * p + j];
+          }
+          for (int j = 0; j < p; j++) {
+            m[i * p + j] = m[i * p + j] - dot * m[k * p + j];
+          }
+        }
+        norm = 0d;
+        for (int j = 0; j < p; j++) {
+          norm = norm + m[i * p + j] * m[i * p + j];
+        }
+        norm = Math.sqrt(norm);
+      } while (norm < 1e-10);
+      for (int j = 0; j < p; j++) {
+        m[i * p + j] = m[i * p + j] / norm;
+      }
+    }
+    return m;
+  }
+
+  private static double[] randomShift(int p, double range, RandomGenerator random) {
+    double[] shift = new double[p];
+    for (int i = 0; i < p; i++) {
+      shift[i] = range == 0d ? 0d : random.nextDouble(-range, range);
+    }
+    return shift;
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    int p = p();
+    double[] local = buffer.get();
+    for (int j = 0; j < p; j++) {
+      local[j] = values[offset + j] - shift[j];
+    }
+    if (rotation == null) {
+      return innerProblem.evaluate(local, 0);
+    }
+    for (int i = 0; i < p; i++) {
+      double z = 0d;
+      int o = i * p;
+      for (int j = 0; j < p; j++) {
+        z = z + rotation[o + j] * local[j];
+      }
+      local[p + i] = z;
+    }
+    return innerProblem.evaluate(local, p);
+  }
+
+  public AbstractNumericalProblem innerProblem() {
+    return innerProblem;
+  }
+}
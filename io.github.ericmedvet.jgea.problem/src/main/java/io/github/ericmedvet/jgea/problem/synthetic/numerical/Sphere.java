@@ -21,8 +21,16 @@
 package io.github.ericmedvet.jgea.problem.synthetic.numerical;
 
 public class Sphere extends AbstractNumericalProblem {
-
   public Sphere(int p) {
-    super(p, vs -> vs.stream().mapToDouble(v -> v * v).sum());
+    super(p);
+  }
+
+  @Override
+  public double evaluate(double[] values, int offset) {
+    double sum = 0d;
+    for (int i = offset; i < offset + p(); i++) {
+      sum = sum + values[i] * values[i];
+    }
+    return sum;
   }
 }
@@ -41,6 +41,5 @@ module io.github.ericmedvet.jgea.problem {
   requires io.github.ericmedvet.jviz.core;
   requires commons.math3;
   requires java.desktop;
-  requires org.apache.commons.csv;
   requires java.logging;
 }